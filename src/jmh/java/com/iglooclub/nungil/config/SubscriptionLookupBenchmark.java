@@ -0,0 +1,68 @@
+package com.iglooclub.nungil.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 토픽 구독 조회를 기본 구독 저장소와 {@link RoomSubscriptionRegistry}로 비교한다.
+ * 채팅방마다 두 세션이 /topic/{채팅방 ID}를 구독한 상태에서, 임의의 채팅방 토픽으로 발행할 때의 조회 비용을 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubscriptionLookupBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rooms;
+
+    @Param({"default", "room"})
+    private String registryType;
+
+    private AbstractSubscriptionRegistry registry;
+
+    private Message<?>[] messages;
+
+    @Setup
+    public void setUp() {
+        registry = "room".equals(registryType) ? new RoomSubscriptionRegistry() : new DefaultSubscriptionRegistry();
+
+        for (int room = 0; room < rooms; room++) {
+            registry.registerSubscription(subscribe("session-" + room + "-a", "sub-0", "/topic/" + room));
+            registry.registerSubscription(subscribe("session-" + room + "-b", "sub-0", "/topic/" + room));
+        }
+
+        messages = new Message<?>[rooms];
+        for (int room = 0; room < rooms; room++) {
+            messages[room] = message("/topic/" + room);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MultiValueMap<String, String> findSubscriptions() {
+        return registry.findSubscriptions(messages[ThreadLocalRandom.current().nextInt(rooms)]);
+    }
+
+    private static Message<?> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<?> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,113 @@
+package com.iglooclub.nungil.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.iglooclub.nungil.util.TokenUtil.getAccessToken;
+
+/**
+ * TokenAuthenticationFilter가 요청마다 하는 토큰 검증 비용을 잰다.
+ * 요청 헤더에서 토큰을 꺼내 {@link TokenProvider#authenticate}로 인증 정보를 만드는 과정을 헤더 종류별로 비교한다.
+ *
+ * - valid: 발급된 토큰 중 하나를 임의로 보낸다. cache가 hit이면 모든 토큰이 클레임 캐시에 들어가고, miss이면 거의 모든 요청이 파싱된다.
+ * - missing, malformed: 토큰이 없거나 JWT 형식이 아닌 요청 (파싱하지 않고 거절된다)
+ * - forged: 서명이 다른 토큰 (파싱 후 거절된다)
+ *
+ * parseTwice는 검증과 인증 정보 조회에서 토큰을 두 번 파싱하던 이전 방식의 비용이다. (header, cache와 관계없이 발급된 토큰을 쓴다)
+ * 폐기 목록은 비어 있으므로 Redis에 연결하지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenVerifyBenchmark {
+
+    private static final String SECRET = "bnVuZ2lsLWJlbmNobWFyay1zZWNyZXQtZm9yLWhzMjU2LXNpZ25pbmc=";
+
+    private static final String OTHER_SECRET = "b3RoZXItYmVuY2htYXJrLXNlY3JldC1mb3ItaHMyNTYtc2lnbmluZw==";
+
+    private static final int TOKEN_COUNT = 1000;
+
+    @Param({"valid", "missing", "malformed", "forged"})
+    private String header;
+
+    @Param({"hit", "miss"})
+    private String cache;
+
+    private TokenProvider tokenProvider;
+
+    private String[] headers;
+
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = jwtProperties(SECRET);
+        // miss이면 구획마다 항목 하나만 남으므로 임의의 토큰은 거의 항상 캐시에 없다.
+        int cacheMaxSize = "hit".equals(cache) ? TOKEN_COUNT * 2 : 16;
+        tokenProvider = new TokenProvider(jwtProperties, revocationList(), new SimpleMeterRegistry(), cacheMaxSize);
+        TokenProvider forger = new TokenProvider(jwtProperties(OTHER_SECRET), revocationList(), new SimpleMeterRegistry(), 16);
+
+        headers = new String[TOKEN_COUNT];
+        tokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            tokens[i] = tokenProvider.generateToken((long) i, Duration.ofHours(1));
+
+            switch (header) {
+                case "valid":
+                    headers[i] = "Bearer " + tokens[i];
+                    break;
+                case "missing":
+                    headers[i] = null;
+                    break;
+                case "malformed":
+                    headers[i] = "Bearer not a jwt " + i;
+                    break;
+                case "forged":
+                    headers[i] = "Bearer " + forger.generateToken((long) i, Duration.ofHours(1));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown header: " + header);
+            }
+        }
+
+        // 측정 전에 캐시를 채운다.
+        for (String value : headers) {
+            tokenProvider.authenticate(getAccessToken(value));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Authentication authenticate() {
+        return tokenProvider.authenticate(getAccessToken(headers[ThreadLocalRandom.current().nextInt(TOKEN_COUNT)]));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Claims parseTwice() {
+        String token = tokens[ThreadLocalRandom.current().nextInt(TOKEN_COUNT)];
+        Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token);
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+
+    private static JwtProperties jwtProperties(String secret) {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(secret);
+        return jwtProperties;
+    }
+
+    // Redis 연결 없이 빈 필터로 만든다. (init을 호출하지 않으므로 Redis에서 필터를 채우지 않는다)
+    private static TokenRevocationList revocationList() {
+        return new TokenRevocationList(new StringRedisTemplate(), new RedisMessageListenerContainer(),
+                new SimpleMeterRegistry(), 1000, 0.001);
+    }
+}
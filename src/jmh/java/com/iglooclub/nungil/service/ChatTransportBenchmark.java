@@ -0,0 +1,121 @@
+package com.iglooclub.nungil.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iglooclub.nungil.dto.ChatDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+import org.springframework.web.socket.sockjs.frame.SockJsFrame;
+import org.springframework.web.socket.sockjs.frame.SockJsMessageCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * 채팅 메시지 하나를 세션에 보내기까지의 직렬화와 프레임 비용을 전송 방식별로 비교한다.
+ *
+ * sockjs: JSON STOMP 프레임을 SockJS 메시지 프레임(a["..."])으로 감싼다. (/stomp)
+ * websocket: JSON STOMP 프레임을 그대로 보낸다. (/ws)
+ * websocket-cbor: CBOR STOMP 프레임을 그대로 보낸다. (/ws, accept: application/cbor)
+ * 각 방식에 deflate를 붙인 경우는 세션마다 압축 문맥을 유지하는 permessage-deflate를 흉내 낸다.
+ *
+ * 메시지당 보내는 바이트 수는 bytes 보조 지표(마이크로초당 바이트)를 처리량(마이크로초당 메시지)으로 나누어 구한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatTransportBenchmark {
+
+    @Param({"sockjs", "sockjs-deflate", "websocket", "websocket-deflate", "websocket-cbor", "websocket-cbor-deflate"})
+    private String transport;
+
+    @Param({"20", "200"})
+    private int contentLength;
+
+    private final ChatFrameCodec codec = new ChatFrameCodec(new ObjectMapper().findAndRegisterModules());
+
+    private final StompEncoder stompEncoder = new StompEncoder();
+
+    private final SockJsMessageCodec sockJsMessageCodec = new Jackson2SockJsMessageCodec();
+
+    private ChatDTO message;
+
+    private Deflater deflater;
+
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+
+    private long seq = 0;
+
+    @Setup
+    public void setUp() {
+        char[] content = new char[contentLength];
+        Arrays.fill(content, '눈');
+        message = new ChatDTO(1L, 1234L, "sender", new String(content), LocalDateTime.now(), 42L, 1L, null);
+
+        // permessage-deflate는 raw deflate를 사용한다.
+        deflater = transport.endsWith("-deflate") ? new Deflater(Deflater.DEFAULT_COMPRESSION, true) : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+
+    @Benchmark
+    public int send(BytesCounter counter) {
+        ChatDTO next = message.withMessageId(++seq).withSeq(seq);
+        ChatFrameCodec.EncodedFrame frame = codec.encode(next);
+
+        boolean cbor = transport.startsWith("websocket-cbor");
+        byte[] stomp = stompFrame(cbor ? frame.getCbor() : frame.getJson(), cbor);
+        byte[] wire = transport.startsWith("sockjs")
+                ? SockJsFrame.messageFrame(sockJsMessageCodec, new String(stomp, StandardCharsets.UTF_8)).getContentBytes()
+                : stomp;
+
+        int length = (deflater != null) ? deflate(wire) : wire.length;
+        counter.bytes += length;
+        return length;
+    }
+
+    private byte[] stompFrame(byte[] payload, boolean cbor) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination("/topic/" + message.getChatRoomId());
+        accessor.setSubscriptionId("sub-0");
+        accessor.setMessageId(String.valueOf(seq));
+        accessor.setContentType(cbor ? MimeTypeUtils.APPLICATION_OCTET_STREAM : MimeTypeUtils.APPLICATION_JSON);
+        accessor.setContentLength(payload.length);
+        return stompEncoder.encode(accessor.getMessageHeaders(), payload);
+    }
+
+    // 압축 문맥을 유지한 채 SYNC_FLUSH로 메시지 하나를 압축한다.
+    private int deflate(byte[] wire) {
+        deflater.setInput(wire);
+        int length = 0;
+        int written;
+        do {
+            written = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+            length += written;
+        } while (written == deflateBuffer.length);
+        return length;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class BytesCounter {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
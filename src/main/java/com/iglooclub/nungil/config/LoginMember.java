@@ -0,0 +1,20 @@
+package com.iglooclub.nungil.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드에서 인증된 회원을 주입받는 파라미터에 붙이는 어노테이션이다.
+ * 파라미터 타입이 Member이면 회원을 조회하여 주입하고, MemberRef이면 조회 없이 회원 ID만 주입한다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LoginMember {
+
+    /**
+     * 인증되지 않은 요청을 허용할지 여부이다. false이면 인증되지 않은 요청에 null을 주입한다.
+     */
+    boolean required() default true;
+}
@@ -0,0 +1,79 @@
+package com.iglooclub.nungil.config;
+
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.MemberRef;
+import com.iglooclub.nungil.exception.GeneralException;
+import com.iglooclub.nungil.exception.MemberErrorResult;
+import com.iglooclub.nungil.service.MemberService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * {@link LoginMember}가 붙은 파라미터에 인증된 회원을 주입하는 클래스이다.
+ *
+ * Member 파라미터는 요청마다 한 번만 조회하여 요청 속성에 저장하므로, 같은 요청에서 다시 주입해도 조회하지 않는다.
+ * MemberRef 파라미터는 인증 정보의 회원 ID만 사용하므로 데이터베이스를 조회하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginMemberArgumentResolver implements HandlerMethodArgumentResolver {
+
+    // 요청 속성에 조회한 회원을 저장하는 키
+    private static final String MEMBER_ATTRIBUTE = LoginMemberArgumentResolver.class.getName() + ".member";
+
+    private final MemberService memberService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(LoginMember.class)
+                && (Member.class.equals(type) || MemberRef.class.equals(type));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Long memberId = getAuthenticatedMemberId();
+        if (memberId == null) {
+            LoginMember loginMember = parameter.getParameterAnnotation(LoginMember.class);
+            if (loginMember != null && !loginMember.required()) {
+                return null;
+            }
+            throw new GeneralException(MemberErrorResult.ANONYMOUS_USER);
+        }
+
+        if (MemberRef.class.equals(parameter.getParameterType())) {
+            return MemberRef.of(memberId);
+        }
+
+        Member member = (Member) webRequest.getAttribute(MEMBER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (member == null) {
+            member = memberService.findById(memberId);
+            webRequest.setAttribute(MEMBER_ATTRIBUTE, member, RequestAttributes.SCOPE_REQUEST);
+        }
+        return member;
+    }
+
+    // 인증되지 않은 요청이면 null
+    private Long getAuthenticatedMemberId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(authentication.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -2,14 +2,17 @@ package com.iglooclub.nungil.config;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 @Configuration
 @RequiredArgsConstructor
@@ -31,6 +34,31 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    /**
+     * 채팅 메시지를 여러 서버에 전달하기 위한 Redis Pub/Sub 리스너 컨테이너이다.
+     * chat.broker.mode가 redis일 때만 생성되며, 구독할 채널은 RedisChatBroadcaster가 동적으로 등록한다.
+     * 채팅 채널의 구독과 해제가 다른 채널의 수신을 막지 않도록 토큰 폐기 채널과 컨테이너를 나누며, 이름 없이 주입하면 이 컨테이너를 사용한다.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    /**
+     * 폐기된 토큰을 다른 서버에 알리기 위한 Redis Pub/Sub 리스너 컨테이너이다.
+     * 토큰 폐기는 서버가 한 대여도 여러 대일 수 있으므로 chat.broker.mode와 관계없이 항상 생성되며, TokenRevocationList가 사용한다.
+     */
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
     @Getter
     @ConfigurationProperties(prefix = "spring.redis")
     @ConstructorBinding
@@ -0,0 +1,200 @@
+package com.iglooclub.nungil.config;
+
+import com.iglooclub.nungil.util.LongObjectHashMap;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 토픽(/topic/{채팅방 ID}, /topic/{채팅방 ID}/...)에 특화된 심플 브로커용 구독 저장소이다.
+ *
+ * 기본 구독 저장소(DefaultSubscriptionRegistry)는 모든 구독을 패턴으로 비교하고 조회 결과를 크기가 제한된 캐시에 담는다.
+ * 채팅방 토픽이 수만 개이고 토픽마다 구독자가 두 명 정도인 경우 캐시가 계속 밀려나므로,
+ * 이 저장소는 채팅방 ID를 키로 하는 long 해시 맵에서 구독을 바로 찾는다.
+ * 맵은 채팅방 ID로 나눈 여러 구획으로 나뉘어 있어, 서로 다른 구획의 조회와 갱신은 서로 막지 않는다.
+ *
+ * 패턴 구독과 selector 헤더는 지원하지 않으며, 채팅방 토픽이 아닌 목적지는 목적지 문자열로 정확히 일치하는 구독만 찾는다.
+ */
+public class RoomSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private static final int STRIPE_COUNT = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    // 채팅방 토픽이 아닌 목적지 -> 구독 목록
+    private final Map<String, List<Subscription>> otherSubscriptions = new ConcurrentHashMap<>();
+
+    // 세션 ID -> (구독 ID -> 구독), 세션 종료 시 구독을 한 번에 제거하기 위해 사용한다.
+    private final Map<String, Map<String, Subscription>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    public RoomSubscriptionRegistry() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId, String destination, Message<?> message) {
+        Subscription subscription = new Subscription(sessionId, subscriptionId, destination, parseChatRoomId(destination));
+
+        Subscription previous = sessionSubscriptions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, subscription);
+        if (previous != null) {
+            removeFromIndex(previous);
+        }
+
+        if (subscription.chatRoomId >= 0) {
+            stripeOf(subscription.chatRoomId).add(subscription);
+        } else {
+            otherSubscriptions.compute(destination, (key, subscriptions) -> {
+                List<Subscription> updated = (subscriptions != null) ? new ArrayList<>(subscriptions) : new ArrayList<>(2);
+                updated.add(subscription);
+                return updated;
+            });
+        }
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, Subscription> subscriptions = sessionSubscriptions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+
+        Subscription subscription = subscriptions.remove(subscriptionId);
+        if (subscription != null) {
+            removeFromIndex(subscription);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, Subscription> subscriptions = sessionSubscriptions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::removeFromIndex);
+        }
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        long chatRoomId = parseChatRoomId(destination);
+
+        List<Subscription> candidates = (chatRoomId >= 0)
+                ? stripeOf(chatRoomId).get(chatRoomId)
+                : otherSubscriptions.get(destination);
+
+        MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+        if (candidates != null) {
+            for (Subscription subscription : candidates) {
+                if (subscription.destination.equals(destination)) {
+                    result.add(subscription.sessionId, subscription.subscriptionId);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void removeFromIndex(Subscription subscription) {
+        if (subscription.chatRoomId >= 0) {
+            stripeOf(subscription.chatRoomId).remove(subscription);
+        } else {
+            otherSubscriptions.computeIfPresent(subscription.destination, (key, subscriptions) -> {
+                List<Subscription> updated = new ArrayList<>(subscriptions);
+                updated.remove(subscription);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    private Stripe stripeOf(long chatRoomId) {
+        return stripes[(int) (chatRoomId & (STRIPE_COUNT - 1))];
+    }
+
+    /**
+     * /topic/{채팅방 ID} 또는 /topic/{채팅방 ID}/... 형식의 목적지에서 채팅방 ID를 꺼낸다.
+     * @return 채팅방 ID (채팅방 토픽이 아니면 -1)
+     */
+    static long parseChatRoomId(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return -1;
+        }
+
+        long chatRoomId = 0;
+        int index = TOPIC_PREFIX.length();
+        int start = index;
+        for (; index < destination.length(); index++) {
+            char c = destination.charAt(index);
+            if (c == '/') {
+                break;
+            }
+            if (c < '0' || c > '9' || index - start >= 18) {
+                return -1;
+            }
+            chatRoomId = chatRoomId * 10 + (c - '0');
+        }
+
+        return (index > start) ? chatRoomId : -1;
+    }
+
+    /**
+     * 채팅방 ID 구획 하나이다. 채팅방 ID -> 구독 목록을 저장한다.
+     * 구독 목록은 변경할 때마다 새로 만들어 저장하므로, 조회한 목록은 잠금 없이 순회할 수 있다.
+     */
+    private static class Stripe {
+
+        private final LongObjectHashMap<List<Subscription>> rooms = new LongObjectHashMap<>();
+
+        synchronized List<Subscription> get(long chatRoomId) {
+            return rooms.get(chatRoomId);
+        }
+
+        synchronized void add(Subscription subscription) {
+            List<Subscription> subscriptions = rooms.get(subscription.chatRoomId);
+            List<Subscription> updated = (subscriptions != null) ? new ArrayList<>(subscriptions) : new ArrayList<>(2);
+            updated.add(subscription);
+            rooms.put(subscription.chatRoomId, updated);
+        }
+
+        synchronized void remove(Subscription subscription) {
+            List<Subscription> subscriptions = rooms.get(subscription.chatRoomId);
+            if (subscriptions == null) {
+                return;
+            }
+
+            List<Subscription> updated = new ArrayList<>(subscriptions);
+            updated.remove(subscription);
+            if (updated.isEmpty()) {
+                rooms.remove(subscription.chatRoomId);
+            } else {
+                rooms.put(subscription.chatRoomId, updated);
+            }
+        }
+    }
+
+    private static class Subscription {
+
+        private final String sessionId;
+
+        private final String subscriptionId;
+
+        private final String destination;
+
+        // 채팅방 토픽이 아니면 -1
+        private final long chatRoomId;
+
+        Subscription(String sessionId, String subscriptionId, String destination, long chatRoomId) {
+            this.sessionId = sessionId;
+            this.subscriptionId = subscriptionId;
+            this.destination = destination;
+            this.chatRoomId = chatRoomId;
+        }
+    }
+}
@@ -61,7 +61,7 @@ public class SecurityConfig {
                 // 인증, 인가 설정
                 .authorizeRequests()
                 .antMatchers("/api/auth/**").permitAll()
-                .antMatchers("/stomp", "/stomp/**").permitAll()
+                .antMatchers("/stomp", "/stomp/**", "/ws").permitAll()
                 .regexMatchers(HttpMethod.GET, "/api/nungil/nungils(\\?([^=&]*=[^=&]*&)*status=RECOMMENDED(&[^=&]*=[^=&]*)*)").permitAll()
                 .anyRequest().authenticated()
                 .and()
@@ -0,0 +1,234 @@
+package com.iglooclub.nungil.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.*;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 느린 클라이언트에 대한 WebSocket 송신 정책이다.
+ *
+ * 브로커가 세션으로 보낸 메시지 중 아직 소켓에 쓰이지 않은 메시지의 크기(대기 바이트)를 세션마다 추적한다.
+ * 대기 바이트가 droppable-buffer-size를 넘으면 입력 중(/typing), 접속 상태(/presence) 이벤트부터 버리고,
+ * send-buffer-size-limit를 넘으면 세션을 강제로 종료한다.
+ * 소켓 쓰기가 send-time-limit 이상 막히는 경우는 스프링의 ConcurrentWebSocketSessionDecorator가 세션을 종료한다.
+ *
+ * 클라이언트 송신 채널의 인터셉터로 등록되어 메시지가 송신 스레드 풀에 들어가기 전에 판단하므로,
+ * 버려지는 메시지는 스레드 풀의 큐와 세션 버퍼에 쌓이지 않는다.
+ */
+@Slf4j
+@Component
+public class SlowConsumerPolicy implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final String[] DROPPABLE_SUFFIXES = {"/typing", "/presence"};
+
+    private static final byte[] MESSAGE_FRAME_PREFIX = "MESSAGE\n".getBytes(StandardCharsets.UTF_8);
+
+    private final long droppableBufferSize;
+
+    private final long sendBufferSizeLimit;
+
+    // 세션 ID -> 송신 대기 상태
+    private final Map<String, Backlog> backlogs = new ConcurrentHashMap<>();
+
+    private final Counter droppedCounter;
+
+    private final Counter disconnectCounter;
+
+    public SlowConsumerPolicy(MeterRegistry meterRegistry,
+                              @Value("${chat.websocket.droppable-buffer-size:65536}") long droppableBufferSize,
+                              @Value("${chat.websocket.send-buffer-size-limit:524288}") long sendBufferSizeLimit) {
+        this.droppableBufferSize = droppableBufferSize;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+
+        meterRegistry.gauge("websocket.outbound.sessions", backlogs, Map::size);
+        meterRegistry.gauge("websocket.outbound.queued.bytes", this, SlowConsumerPolicy::totalQueuedBytes);
+        meterRegistry.gauge("websocket.outbound.queued.bytes.max", this, SlowConsumerPolicy::maxQueuedBytes);
+        this.droppedCounter = meterRegistry.counter("websocket.outbound.dropped");
+        this.disconnectCounter = meterRegistry.counter("websocket.outbound.disconnects");
+    }
+
+    /**
+     * 세션으로 보낼 메시지를 대기 바이트에 더하거나, 세션이 밀려 있으면 메시지를 버리는 메서드이다.
+     * @return 보낼 메시지 (버리는 경우 null)
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        Backlog backlog = backlogs.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (backlog == null) {
+            return message;
+        }
+
+        long queuedBytes = backlog.queuedBytes.get();
+        if (queuedBytes >= sendBufferSizeLimit) {
+            backlog.session.evict(queuedBytes);
+            return null;
+        }
+
+        if (queuedBytes >= droppableBufferSize && isDroppable(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+            droppedCounter.increment();
+            return null;
+        }
+
+        Object payload = message.getPayload();
+        backlog.enqueue((payload instanceof byte[]) ? ((byte[]) payload).length : 0);
+        return message;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                TrackedSession trackedSession = new TrackedSession(session);
+                backlogs.put(session.getId(), trackedSession.backlog);
+                super.afterConnectionEstablished(trackedSession);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                backlogs.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private long totalQueuedBytes() {
+        return backlogs.values().stream().mapToLong(backlog -> backlog.queuedBytes.get()).sum();
+    }
+
+    private long maxQueuedBytes() {
+        return backlogs.values().stream().mapToLong(backlog -> backlog.queuedBytes.get()).max().orElse(0);
+    }
+
+    private static boolean isDroppable(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String suffix : DROPPABLE_SUFFIXES) {
+            if (destination.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 세션으로 보냈지만 아직 소켓에 쓰이지 않은 메시지이다.
+     * 메시지 하나는 STOMP MESSAGE 프레임 하나로 쓰이므로, 프레임이 쓰일 때마다 가장 먼저 들어온 메시지 크기를 뺀다.
+     */
+    private static class Backlog {
+
+        private final TrackedSession session;
+
+        private final Queue<Integer> pendingSizes = new ConcurrentLinkedQueue<>();
+
+        private final AtomicLong queuedBytes = new AtomicLong();
+
+        Backlog(TrackedSession session) {
+            this.session = session;
+        }
+
+        void enqueue(int size) {
+            pendingSizes.add(size);
+            queuedBytes.addAndGet(size);
+        }
+
+        void written() {
+            Integer size = pendingSizes.poll();
+            if (size != null) {
+                queuedBytes.addAndGet(-size);
+            }
+        }
+    }
+
+    /**
+     * 소켓에 쓰인 프레임을 대기 바이트에서 빼고, 신뢰할 수 없는 세션으로 종료될 때 강제 종료 수를 세는 세션이다.
+     * 스프링의 ConcurrentWebSocketSessionDecorator가 이 세션을 감싸므로, 한 번에 한 스레드만 sendMessage를 호출한다.
+     */
+    private class TrackedSession extends WebSocketSessionDecorator {
+
+        private final Backlog backlog = new Backlog(this);
+
+        private final AtomicBoolean evicted = new AtomicBoolean();
+
+        TrackedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (isMessageFrame(message)) {
+                    backlog.written();
+                }
+            }
+        }
+
+        @Override
+        public void close(CloseStatus status) throws IOException {
+            if (CloseStatus.SESSION_NOT_RELIABLE.equals(status) && evicted.compareAndSet(false, true)) {
+                disconnectCounter.increment();
+            }
+            super.close(status);
+        }
+
+        void evict(long queuedBytes) {
+            if (evicted.get()) {
+                return;
+            }
+
+            log.warn("Closing slow WebSocket session {} with {} queued bytes", getId(), queuedBytes);
+            try {
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Failed to close slow WebSocket session {}", getId(), e);
+            }
+        }
+
+        private boolean isMessageFrame(WebSocketMessage<?> message) {
+            if (message instanceof TextMessage) {
+                return ((TextMessage) message).getPayload().startsWith("MESSAGE\n");
+            }
+            if (message instanceof BinaryMessage) {
+                ByteBuffer payload = ((BinaryMessage) message).getPayload();
+                if (payload.remaining() < MESSAGE_FRAME_PREFIX.length) {
+                    return false;
+                }
+                for (int i = 0; i < MESSAGE_FRAME_PREFIX.length; i++) {
+                    if (payload.get(payload.position() + i) != MESSAGE_FRAME_PREFIX[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
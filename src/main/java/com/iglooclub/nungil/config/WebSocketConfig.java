@@ -2,13 +2,30 @@ package com.iglooclub.nungil.config;
 
 import com.iglooclub.nungil.config.jwt.ChatPreHandler;
 import com.iglooclub.nungil.exception.ChatErrorHandler;
+import com.iglooclub.nungil.service.ChatFrameCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 웹 소켓 설정 클래스입니다.
@@ -23,19 +40,68 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final ChatErrorHandler chatErrorHandler;
 
+    private final SlowConsumerPolicy slowConsumerPolicy;
+
+    private final ChatFrameCodec chatFrameCodec;
+
+    @Value("${chat.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${chat.websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${chat.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${chat.websocket.send-time-limit-millis:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${chat.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    // 서버가 하트비트를 보내는 간격과 클라이언트에게 기대하는 하트비트 간격 (0이면 사용하지 않는다)
+    @Value("${chat.websocket.heartbeat.server-millis:10000}")
+    private long serverHeartbeatMillis;
+
+    @Value("${chat.websocket.heartbeat.client-millis:10000}")
+    private long clientHeartbeatMillis;
+
+    @Value("${chat.websocket.sockjs.heartbeat-millis:25000}")
+    private long sockJsHeartbeatMillis;
+
+    @Value("${chat.websocket.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    // 메시지 브로커 설정이 끝난 뒤에 생성되는 빈이므로 지연 주입한다.
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry
                 .addEndpoint("/stomp")
                 .setAllowedOriginPatterns("*")
-                .withSockJS();
+                .withSockJS()
+                .setHeartbeatTime(sockJsHeartbeatMillis);
+        // SockJS를 사용하지 않는 클라이언트를 위한 WebSocket 엔드포인트
+        registry
+                .addEndpoint("/ws")
+                .setHandshakeHandler(handshakeHandler())
+                .setAllowedOriginPatterns("*");
         registry.setErrorHandler(chatErrorHandler);
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
 
-        registry.enableSimpleBroker("/topic");
+        // /queue는 회원 한 명에게 보내는 메시지(/user/queue/...)에 사용한다.
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{serverHeartbeatMillis, clientHeartbeatMillis})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         registry.setApplicationDestinationPrefixes("/chat");
     }
 
@@ -43,4 +109,63 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(chatPreHandler);
     }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        // 세션 형식으로 바꾼 뒤의 크기로 송신 대기 바이트를 계산하도록 형식 변환을 먼저 등록한다.
+        registration.interceptors(chatFrameCodec, slowConsumerPolicy);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(slowConsumerPolicy)
+                .addDecoratorFactory(chatFrameCodec);
+    }
+
+    /**
+     * 클라이언트가 요청한 WebSocket 확장 중 컨테이너가 지원하는 확장을 사용하는 핸드셰이크 핸들러를 반환하는 메서드이다.
+     * 컨테이너(Tomcat)가 permessage-deflate를 지원하므로, 클라이언트가 요청하면 메시지가 압축된다.
+     * chat.websocket.compression.enabled=false로 설정하면 압축을 사용하지 않는다.
+     */
+    private DefaultHandshakeHandler handshakeHandler() {
+        return new DefaultHandshakeHandler() {
+            @Override
+            protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                         List<WebSocketExtension> requestedExtensions,
+                                                                         List<WebSocketExtension> supportedExtensions) {
+                List<WebSocketExtension> extensions = super.filterRequestedExtensions(request, requestedExtensions, supportedExtensions);
+                if (compressionEnabled) {
+                    return extensions;
+                }
+                return extensions.stream()
+                        .filter(extension -> !"permessage-deflate".equals(extension.getName()))
+                        .collect(Collectors.toList());
+            }
+        };
+    }
+
+    /**
+     * 심플 브로커의 구독 저장소를 채팅방 ID로 구독을 찾는 {@link RoomSubscriptionRegistry}로 교체하는 메서드이다.
+     * chat.broker.room-registry.enabled=false로 설정하면 스프링 기본 구독 저장소를 사용한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "chat.broker.room-registry.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor roomSubscriptionRegistryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler) {
+                    ((SimpleBrokerMessageHandler) bean).setSubscriptionRegistry(new RoomSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
 }
@@ -1,44 +1,109 @@
 package com.iglooclub.nungil.config.jwt;
 
+import com.iglooclub.nungil.domain.ChatSession;
+import com.iglooclub.nungil.service.ChatFrameCodec;
+import com.iglooclub.nungil.service.ChatPresenceService;
+import com.iglooclub.nungil.service.ChatSessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 import static com.iglooclub.nungil.util.TokenUtil.*;
 
 @RequiredArgsConstructor
 @Component
 public class ChatPreHandler implements ChannelInterceptor {
 
+    // ChatErrorHandler 클래스에서 처리하는 예외 메시지와 동일해야 한다.
+    public static final String UNAUTHORIZED = "UNAUTHORIZED";
+    public static final String NOT_MEMBER = "NOT_MEMBER";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
     private final TokenProvider tokenProvider;
 
+    private final ChatSessionService chatSessionService;
+
+    private final ChatFrameCodec chatFrameCodec;
+
+    private final ChatPresenceService chatPresenceService;
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(message);
+        StompCommand command = headerAccessor.getCommand();
 
-        if (StompCommand.CONNECT == headerAccessor.getCommand()) {
+        if (StompCommand.CONNECT == command) {
             // 요청 헤더의 Authorization 키의 값 조회
             String authorizationHeader = String.valueOf(headerAccessor.getFirstNativeHeader(HEADER_AUTHORIZATION));
 
             // 가져온 값에서 접두사 제거
             String token = getAccessToken(authorizationHeader);
-            // 가져온 토큰이 유효한지 확인하고, 유효한 때는 인증 정보 설정
-            if (tokenProvider.validateToken(token)) {
-                Authentication authentication = tokenProvider.getAuthentication(token);
+            // 가져온 토큰을 한 번만 검증하고, 유효한 때는 인증 정보 설정
+            Authentication authentication = tokenProvider.authenticate(token);
+            if (authentication != null) {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                // 회원 ID로 세션을 찾을 수 있도록 세션의 사용자로 등록 (/user/queue/errors 전송에 사용)
+                StompHeaderAccessor connectAccessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (connectAccessor != null) {
+                    connectAccessor.setUser(authentication);
+                }
+
+                // 이후 메시지에서 토큰을 다시 파싱하지 않도록 인증된 회원 정보를 세션에 저장
+                ChatSession chatSession = chatSessionService.open(Long.parseLong(authentication.getName()));
+                headerAccessor.getSessionAttributes().put(ChatSession.ATTRIBUTE_NAME, chatSession);
+
+                // 클라이언트가 요청한 메시지 형식 협상 (기본값은 JSON)
+                chatFrameCodec.negotiate(headerAccessor.getSessionId(), headerAccessor.getFirstNativeHeader(ChatFrameCodec.ACCEPT_HEADER));
+
+                // 접속 상태 기록
+                chatPresenceService.connect(chatSession.getMemberId(), headerAccessor.getSessionId());
             } else {
-                // ChatErrorHandler 클래스에서 처리하는 예외와 에러 메시지가 "UNAUTHORIZED"로 동일해야 한다.
-                throw new MessageDeliveryException("UNAUTHORIZED");
+                throw new MessageDeliveryException(UNAUTHORIZED);
+            }
+        } else if (StompCommand.DISCONNECT == command) {
+            // 클라이언트의 DISCONNECT 프레임과 연결 종료 시 모두 전달된다.
+            chatPresenceService.disconnect(headerAccessor.getSessionId());
+        } else if (StompCommand.SUBSCRIBE == command || StompCommand.SEND == command) {
+            ChatSession chatSession = getChatSession(headerAccessor.getSessionAttributes());
+
+            // 채팅방 토픽은 해당 채팅방의 일원만 구독할 수 있다.
+            String destination = headerAccessor.getDestination();
+            if (StompCommand.SUBSCRIBE == command && destination != null && destination.startsWith(TOPIC_PREFIX)
+                    && !chatSessionService.checkRoomMember(chatSession, parseChatRoomId(destination))) {
+                throw new MessageDeliveryException(NOT_MEMBER);
             }
         }
 
         return message;
     }
+
+    private ChatSession getChatSession(Map<String, Object> sessionAttributes) {
+        ChatSession chatSession = ChatSession.from(sessionAttributes);
+        if (chatSession == null) {
+            throw new MessageDeliveryException(UNAUTHORIZED);
+        }
+        return chatSession;
+    }
+
+    // /topic/{채팅방 ID} 또는 /topic/{채팅방 ID}/read 형식에서 채팅방 ID를 꺼낸다.
+    private Long parseChatRoomId(String destination) {
+        int end = destination.indexOf('/', TOPIC_PREFIX.length());
+        try {
+            return Long.parseLong(destination.substring(TOPIC_PREFIX.length(), (end < 0) ? destination.length() : end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
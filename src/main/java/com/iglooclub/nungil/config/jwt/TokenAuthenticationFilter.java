@@ -1,6 +1,5 @@
 package com.iglooclub.nungil.config.jwt;
 
-import com.iglooclub.nungil.util.TokenUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,9 +25,9 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         String authorizationHeader = request.getHeader(HEADER_AUTHORIZATION);
         // 가져온 값에서 접두사 제거
         String token = getAccessToken(authorizationHeader);
-        // 가져온 토큰이 유효한지 확인하고, 유효한 때는 인증 정보 설정
-        if (tokenProvider.validateToken(token)) {
-            Authentication authentication = tokenProvider.getAuthentication(token);
+        // 가져온 토큰을 한 번만 검증하고, 유효한 때는 인증 정보 설정 (토큰이 없으면 파싱하지 않는다)
+        Authentication authentication = tokenProvider.authenticate(token);
+        if (authentication != null) {
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
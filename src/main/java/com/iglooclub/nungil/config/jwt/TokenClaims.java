@@ -0,0 +1,102 @@
+package com.iglooclub.nungil.config.jwt;
+
+import com.iglooclub.nungil.domain.enums.RegisterProgress;
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * 서명이 검증된 JWT 토큰의 클레임이다.
+ * 검증된 클레임 캐시에 저장되므로 변경할 수 없다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class TokenClaims {
+
+    // 다음 가입 절차를 담는 클레임 이름
+    static final String PROGRESS_CLAIM = "progress";
+
+    // 토큰 용도를 담는 클레임 이름 (access 또는 refresh)
+    static final String TOKEN_USE_CLAIM = "token_use";
+
+    static final String ACCESS_TOKEN_USE = "access";
+
+    static final String REFRESH_TOKEN_USE = "refresh";
+
+    // 리프레시 토큰의 계열 ID를 담는 클레임 이름
+    static final String FAMILY_CLAIM = "fam";
+
+    // 용도 클레임이 없는 이전 토큰 중 유효 기간이 이보다 길지 않은 토큰만 액세스 토큰으로 본다. (이전 리프레시 토큰은 14일이다)
+    private static final long LEGACY_ACCESS_TOKEN_MAX_LIFETIME_MILLIS = Duration.ofDays(1).toMillis();
+
+    // 토큰 제목 (회원 ID)
+    private final String subject;
+
+    private final Long memberId;
+
+    // 토큰 ID (jti가 없는 이전 토큰이면 null)
+    private final String jti;
+
+    // 토큰의 발급 시간 (epoch 밀리초, 초 단위로 저장되므로 실제 발급 시간보다 이를 수 있다)
+    private final long issuedAtMillis;
+
+    // 토큰의 만료 시간 (epoch 밀리초)
+    private final long expiresAtMillis;
+
+    // 발급 시점의 다음 가입 절차 (클레임이 없으면 null)
+    private final RegisterProgress progress;
+
+    // 토큰 용도 (용도 클레임이 없는 이전 토큰이면 null)
+    private final String tokenUse;
+
+    // 리프레시 토큰의 계열 ID (액세스 토큰이나 이전 토큰이면 null)
+    private final String familyId;
+
+    /**
+     * 파싱된 클레임에서 필요한 값만 꺼내는 메서드이다.
+     * @param claims 서명이 검증된 클레임
+     * @return 검증된 클레임 (만료 시간이 없는 토큰이면 null)
+     */
+    static TokenClaims from(Claims claims) {
+        if (claims.getExpiration() == null) {
+            return null;
+        }
+        return new TokenClaims(claims.getSubject(),
+                claims.get("id", Long.class),
+                claims.getId(),
+                (claims.getIssuedAt() != null) ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration().getTime(),
+                parseProgress(claims.get(PROGRESS_CLAIM, String.class)),
+                claims.get(TOKEN_USE_CLAIM, String.class),
+                claims.get(FAMILY_CLAIM, String.class));
+    }
+
+    private static RegisterProgress parseProgress(String progress) {
+        if (progress == null) {
+            return null;
+        }
+        try {
+            return RegisterProgress.valueOf(progress);
+        } catch (IllegalArgumentException e) { // 이후 버전에서 없어진 가입 절차이다.
+            return null;
+        }
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    /**
+     * 요청 인증에 사용할 수 있는 액세스 토큰인지 확인하는 메서드이다.
+     * 용도 클레임이 없는 이전 토큰은 유효 기간으로 구분한다.
+     */
+    public boolean isAccessToken() {
+        if (tokenUse != null) {
+            return ACCESS_TOKEN_USE.equals(tokenUse);
+        }
+        return issuedAtMillis > 0 && expiresAtMillis - issuedAtMillis <= LEGACY_ACCESS_TOKEN_MAX_LIFETIME_MILLIS;
+    }
+}
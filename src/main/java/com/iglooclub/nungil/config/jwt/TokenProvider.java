@@ -1,11 +1,15 @@
 package com.iglooclub.nungil.config.jwt;
 
 import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.enums.RegisterProgress;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,37 +17,118 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.Collections;
-import java.util.Date;
-import java.util.Set;
+import java.util.*;
 
-@RequiredArgsConstructor
+import static com.iglooclub.nungil.util.TokenUtil.digest;
+
+/**
+ * JWT 토큰을 생성하고 검증하는 클래스이다.
+ *
+ * 서명이 검증된 토큰의 클레임은 토큰의 SHA-256 다이제스트를 키로 캐시에 저장되어, 같은 토큰으로 다시 요청하면 파싱하지 않는다.
+ * 캐시 항목은 토큰의 만료 시간까지만 사용되며, 캐시는 여러 구획으로 나뉘어 구획마다 가장 오래 사용되지 않은 항목부터 제거된다.
+ * 헤더가 없거나 JWT 형식이 아닌 토큰은 파싱하지 않고 바로 거절하므로, 인증 없는 요청에서 예외가 발생하지 않는다.
+ * 캐시에 있는 토큰도 매번 폐기 여부를 확인하며, 리프레시 토큰은 토큰이 속한 계열의 폐기 여부도 확인한다.
+ */
 @Service
 public class TokenProvider {
 
+    private static final int CACHE_STRIPE_COUNT = 16;
+
+    // HS256 토큰의 길이는 클레임 수에 비례하므로 넉넉한 상한만 둔다.
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    // 폐기 목록에서 jti와 구분하기 위해 계열 ID 앞에 붙인다.
+    private static final String FAMILY_REVOCATION_PREFIX = "family:";
+
     private final JwtProperties jwtProperties;
 
+    private final TokenRevocationList tokenRevocationList;
+
+    private final ClaimsCacheStripe[] claimsCache = new ClaimsCacheStripe[CACHE_STRIPE_COUNT];
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter rejectedCounter;
+
+    public TokenProvider(JwtProperties jwtProperties,
+                         TokenRevocationList tokenRevocationList,
+                         MeterRegistry meterRegistry,
+                         @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
+        this.jwtProperties = jwtProperties;
+        this.tokenRevocationList = tokenRevocationList;
+
+        int stripeCapacity = Math.max(1, claimsCacheMaxSize / CACHE_STRIPE_COUNT);
+        for (int i = 0; i < CACHE_STRIPE_COUNT; i++) {
+            claimsCache[i] = new ClaimsCacheStripe(stripeCapacity);
+        }
+
+        meterRegistry.gauge("jwt.claims-cache.size", this, TokenProvider::claimsCacheSize);
+        this.hitCounter = meterRegistry.counter("jwt.claims-cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("jwt.claims-cache.requests", "result", "miss");
+        this.rejectedCounter = meterRegistry.counter("jwt.verify.rejected");
+    }
+
     public String generateToken(Member member, Duration expiredAt) {
-        Date now = new Date();
-        return makeToken(new Date(now.getTime() + expiredAt.toMillis()), member);
+        return generateToken(member.getId(), expiredAt);
+    }
+
+    /**
+     * 회원 ID만으로 액세스 토큰을 생성하는 메서드이다. 회원을 조회하지 않고 토큰을 재발급할 때 사용한다.
+     * @param memberId 회원 ID
+     * @param expiredAt 토큰의 유효 기간
+     * @return 생성된 토큰
+     */
+    public String generateToken(Long memberId, Duration expiredAt) {
+        return makeToken(expiryAfter(expiredAt), memberId, TokenClaims.ACCESS_TOKEN_USE, null, null);
+    }
+
+    /**
+     * 가입 절차를 클레임에 담은 리프레시 토큰을 생성하는 메서드이다. 토큰을 재발급할 때 회원을 조회하지 않도록 가입 절차를 담는다.
+     * 리프레시 토큰은 요청 인증({@link #authenticate})에 사용할 수 없다.
+     * @param memberId 회원 ID
+     * @param expiredAt 토큰의 유효 기간
+     * @param progress 회원의 다음 가입 절차 (없으면 null)
+     * @param familyId 토큰이 속한 계열 ID (계열을 폐기하면 계열의 모든 토큰이 검증에 실패한다)
+     * @return 생성된 토큰
+     */
+    public String generateRefreshToken(Long memberId, Duration expiredAt, RegisterProgress progress, String familyId) {
+        return makeToken(expiryAfter(expiredAt), memberId, TokenClaims.REFRESH_TOKEN_USE, progress, familyId);
+    }
+
+    private static Date expiryAfter(Duration expiredAt) {
+        return new Date(System.currentTimeMillis() + expiredAt.toMillis());
     }
 
     /**
      * JWT 토큰을 생성하는 메서드이다.
      * @param expiry 토큰의 만료 시간
-     * @param member 회원 정보
+     * @param memberId 회원 ID
+     * @param tokenUse 토큰 용도 (access 또는 refresh)
+     * @param progress 회원의 다음 가입 절차 (없으면 null)
+     * @param familyId 리프레시 토큰의 계열 ID (없으면 null)
      * @return 생성된 토큰
      */
-    private String makeToken(Date expiry, Member member) {
+    private String makeToken(Date expiry, Long memberId, String tokenUse, RegisterProgress progress, String familyId) {
         Date now = new Date();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setHeaderParam(Header.TYPE, Header.JWT_TYPE)   // 헤더 typ(타입) : JWT
                 .setIssuedAt(now)                               // 내용 iat(발급 일시) : 현재 시간
                 .setExpiration(expiry)                          // 내용 exp(만료일시) : expiry 멤버 변수값
-                .setSubject(String.valueOf(member.getId()))     // 내용 sub(토큰 제목) : 회원 ID
-                .claim("id", member.getId())              // 클레임 id : 회원 ID
-                // 서명 : 비밀값과 함께 해시값을 HS256 방식으로 암호화
+                .setSubject(String.valueOf(memberId))           // 내용 sub(토큰 제목) : 회원 ID
+                .setId(UUID.randomUUID().toString())            // 내용 jti(토큰 ID) : 같은 시각에 발급해도 토큰이 달라지도록 고유한 값
+                .claim("id", memberId)                    // 클레임 id : 회원 ID
+                .claim(TokenClaims.TOKEN_USE_CLAIM, tokenUse);  // 클레임 token_use : 액세스 토큰과 리프레시 토큰 구분
+
+        if (progress != null) {
+            builder.claim(TokenClaims.PROGRESS_CLAIM, progress.name());     // 클레임 progress : 다음 가입 절차
+        }
+        if (familyId != null) {
+            builder.claim(TokenClaims.FAMILY_CLAIM, familyId);              // 클레임 fam : 리프레시 토큰 계열 ID
+        }
+
+        // 서명 : 비밀값과 함께 해시값을 HS256 방식으로 암호화
+        return builder
                 .signWith(SignatureAlgorithm.HS256, jwtProperties.getSecret())
                 .compact();
     }
@@ -54,26 +139,104 @@ public class TokenProvider {
      * @return 토큰 유효 여부
      */
     public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    /**
+     * 액세스 토큰을 검증하고 인증 정보를 가져오는 메서드이다.
+     * 요청마다 토큰을 최대 한 번만 파싱하며, 캐시에 있는 토큰은 파싱하지 않는다. 리프레시 토큰은 거절한다.
+     * @param token 검증할 JWT 토큰 (없으면 null)
+     * @return 인증 정보를 담은 Authentication 객체 (유효하지 않은 토큰이면 null)
+     */
+    public Authentication authenticate(String token) {
+        TokenClaims claims = verify(token);
+        if (claims == null) {
+            return null;
+        }
+
+        // 리프레시 토큰은 같은 키로 서명되므로, 용도를 확인하지 않으면 유효 기간 동안 액세스 토큰처럼 사용될 수 있다.
+        if (!claims.isAccessToken()) {
+            rejectedCounter.increment();
+            return null;
+        }
+
+        Set<SimpleGrantedAuthority> authorities = Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
+        return new UsernamePasswordAuthenticationToken(new User(claims.getSubject(), "", authorities), token, authorities);
+    }
+
+    /**
+     * 토큰의 서명, 만료 시간, 폐기 여부를 검증하고 클레임을 반환하는 메서드이다.
+     * @param token 검증할 JWT 토큰 (없으면 null)
+     * @return 검증된 클레임 (유효하지 않은 토큰이면 null)
+     */
+    public TokenClaims verify(String token) {
+        if (!isWellFormed(token)) {
+            rejectedCounter.increment();
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        ClaimsCacheStripe stripe = claimsCache[Math.floorMod(digest.hashCode(), CACHE_STRIPE_COUNT)];
+
+        TokenClaims cached = stripe.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                hitCounter.increment();
+                return checkRevoked(cached);
+            }
+            stripe.remove(digest);
+            rejectedCounter.increment();
+            return null;
+        }
+        missCounter.increment();
+
+        TokenClaims claims;
         try {
-            Jwts.parser()
-                    .setSigningKey(jwtProperties.getSecret())   // 비밀값으로 복호화
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) { // 복호화 과정에서 에러가 나면 유효하지 않은 토큰이다.
-            return false;
+            claims = TokenClaims.from(getClaims(token));
+        } catch (Exception e) { // 서명이 다르거나 만료된 토큰이다.
+            rejectedCounter.increment();
+            return null;
         }
+
+        if (claims == null || claims.isExpired(now)) {
+            rejectedCounter.increment();
+            return null;
+        }
+
+        stripe.put(digest, claims);
+        return checkRevoked(claims);
     }
 
     /**
-     * 토큰 기반으로 인증 정보를 가져오는 메서드이다.
-     * @param token 인증된 회원의 토큰
-     * @return 인증 정보를 담은 Authentication 객체
+     * 토큰을 만료 시간까지 사용할 수 없도록 폐기하는 메서드이다.
+     * 이미 유효하지 않은 토큰이나 jti가 없는 이전 토큰은 무시한다.
+     * @param token 폐기할 JWT 토큰
      */
-    public Authentication getAuthentication(String token) {
-        Claims claims = getClaims(token);
-        Set<SimpleGrantedAuthority> authorities = Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
+    public void revoke(String token) {
+        TokenClaims claims = verify(token);
+        if (claims != null && claims.getJti() != null) {
+            tokenRevocationList.revoke(claims.getJti(), claims.getExpiresAtMillis());
+        }
+    }
 
-        return new UsernamePasswordAuthenticationToken(new User(claims.getSubject(), "", authorities), token, authorities);
+    /**
+     * 리프레시 토큰 계열을 폐기하는 메서드이다. 이미 발급된 계열의 모든 토큰이 만료 시간까지 검증에 실패한다.
+     * @param familyId 계열 ID
+     * @param expiresAtMillis 계열의 마지막 토큰의 만료 시간 (epoch 밀리초)
+     */
+    public void revokeFamily(String familyId, long expiresAtMillis) {
+        tokenRevocationList.revoke(FAMILY_REVOCATION_PREFIX + familyId, expiresAtMillis);
+    }
+
+    // 폐기된 토큰이거나 폐기된 계열의 토큰이면 null
+    private TokenClaims checkRevoked(TokenClaims claims) {
+        if (tokenRevocationList.isRevoked(claims.getJti())
+                || (claims.getFamilyId() != null && tokenRevocationList.isRevoked(FAMILY_REVOCATION_PREFIX + claims.getFamilyId()))) {
+            rejectedCounter.increment();
+            return null;
+        }
+        return claims;
     }
 
     /**
@@ -98,4 +261,67 @@ public class TokenProvider {
                 .getBody();
     }
 
+    /**
+     * 파싱하지 않고 JWT 형식(base64url 문자열 세 부분)인지 확인하는 메서드이다.
+     */
+    private static boolean isWellFormed(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+
+        int dots = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+
+        // 서명이 없는 토큰(header.claims.)은 허용하지 않는다.
+        return dots == 2 && token.charAt(token.length() - 1) != '.';
+    }
+
+    private long claimsCacheSize() {
+        long size = 0;
+        for (ClaimsCacheStripe stripe : claimsCache) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * 검증된 클레임 캐시의 구획 하나이다. 토큰 다이제스트 -> 검증된 클레임을 저장한다.
+     * 접근 순서로 정렬되어, 용량을 넘으면 가장 오래 사용되지 않은 항목부터 제거된다.
+     */
+    private static class ClaimsCacheStripe {
+
+        private final LinkedHashMap<String, TokenClaims> entries;
+
+        ClaimsCacheStripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenClaims> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized TokenClaims get(String digest) {
+            return entries.get(digest);
+        }
+
+        synchronized void put(String digest, TokenClaims claims) {
+            entries.put(digest, claims);
+        }
+
+        synchronized void remove(String digest) {
+            entries.remove(digest);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
 }
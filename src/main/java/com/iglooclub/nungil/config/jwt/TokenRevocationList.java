@@ -0,0 +1,175 @@
+package com.iglooclub.nungil.config.jwt;
+
+import com.iglooclub.nungil.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * 폐기된 액세스 토큰의 jti 목록이다.
+ *
+ * 폐기된 jti는 Redis의 정렬 집합(auth:revoked-jti)에 토큰 만료 시간을 점수로 저장된다.
+ * 요청마다 Redis를 조회하지 않도록 서버마다 폐기된 jti의 블룸 필터를 두고,
+ * 필터에 없는 jti(거의 모든 요청)는 바로 폐기되지 않은 것으로 판단한다. 필터에 있을 수 있는 jti만 Redis에서 확인한다.
+ *
+ * 폐기된 jti는 Pub/Sub(auth:revoked-jti 채널)으로 다른 서버의 필터에도 추가된다.
+ * 채널은 chat.broker.mode와 관계없이 전용 리스너 컨테이너(tokenRevocationListenerContainer)로 구독한다.
+ * 필터는 시작할 때와 rebuild-interval-millis마다 Redis에서 다시 만들어지므로, 만료된 jti가 빠지고 놓친 메시지가 반영된다.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements MessageListener {
+
+    private static final String REVOKED_KEY = "auth:revoked-jti";
+
+    private static final String REVOKED_CHANNEL = "auth:revoked-jti";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private volatile BloomFilter filter;
+
+    // 다시 만드는 중인 필터 (다시 만드는 동안 폐기된 jti를 새 필터에도 추가하기 위해 사용한다)
+    private BloomFilter rebuildingFilter;
+
+    // 필터 추가와 필터 교체를 함께 잠가, 교체되는 사이에 추가된 jti가 버려지는 필터에만 들어가지 않도록 한다.
+    private final Object filterLock = new Object();
+
+    private final Counter filterHitCounter;
+    private final Counter revokedHitCounter;
+    private final Counter revokedCounter;
+
+    public TokenRevocationList(StringRedisTemplate redisTemplate,
+                               @Qualifier("tokenRevocationListenerContainer") RedisMessageListenerContainer listenerContainer,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.revocation.expected-insertions:100000}") long expectedInsertions,
+                               @Value("${jwt.revocation.fpp:0.001}") double fpp) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+
+        this.filterHitCounter = meterRegistry.counter("jwt.revocation.filter.hits");
+        this.revokedHitCounter = meterRegistry.counter("jwt.revocation.rejected");
+        this.revokedCounter = meterRegistry.counter("jwt.revocation.revoked");
+    }
+
+    /**
+     * 다른 서버의 폐기 메시지를 먼저 구독한 뒤 필터를 만들어, 그 사이에 폐기된 jti를 놓치지 않도록 한다.
+     */
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOKED_CHANNEL));
+        rebuild();
+    }
+
+    /**
+     * 토큰이 폐기되었는지 확인하는 메서드이다.
+     * @param jti 토큰 ID (jti가 없는 이전 토큰이면 null)
+     * @return 폐기 여부
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+
+        filterHitCounter.increment();
+        boolean revoked;
+        try {
+            Double expiresAtMillis = redisTemplate.opsForZSet().score(REVOKED_KEY, jti);
+            revoked = expiresAtMillis != null && expiresAtMillis > System.currentTimeMillis();
+        } catch (Exception e) {
+            // 폐기된 토큰일 수 있으므로 Redis를 확인할 수 없으면 거절한다.
+            log.warn("Failed to check revoked token {}", jti, e);
+            revoked = true;
+        }
+
+        if (revoked) {
+            revokedHitCounter.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * 토큰을 만료 시간까지 폐기하는 메서드이다.
+     * @param jti 토큰 ID
+     * @param expiresAtMillis 토큰의 만료 시간 (epoch 밀리초)
+     */
+    public void revoke(String jti, long expiresAtMillis) {
+        redisTemplate.opsForZSet().add(REVOKED_KEY, jti, expiresAtMillis);
+        // 만료된 jti는 더 이상 확인할 필요가 없으므로 함께 정리한다.
+        redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+
+        addToFilter(jti);
+        redisTemplate.convertAndSend(REVOKED_CHANNEL, jti);
+        revokedCounter.increment();
+    }
+
+    /**
+     * 다른 서버에서 폐기된 jti를 필터에 추가하는 메서드이다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addToFilter(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 만료되지 않은 폐기 jti로 필터를 다시 만들어 교체하는 메서드이다.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-millis:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval-millis:3600000}")
+    public void rebuild() {
+        BloomFilter newFilter = new BloomFilter(expectedInsertions, fpp);
+        synchronized (filterLock) {
+            rebuildingFilter = newFilter;
+        }
+
+        try {
+            Set<String> revokedIds = redisTemplate.opsForZSet()
+                    .rangeByScore(REVOKED_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            if (revokedIds != null) {
+                revokedIds.forEach(newFilter::put);
+            }
+            synchronized (filterLock) {
+                filter = newFilter;
+                rebuildingFilter = null;
+            }
+            log.info("Rebuilt token revocation filter with {} revoked tokens", (revokedIds != null) ? revokedIds.size() : 0);
+        } catch (Exception e) {
+            // 기존 필터를 계속 사용한다. 시작할 때 실패하면 빈 필터로 시작하므로 다음 재생성까지 폐기된 토큰이 허용될 수 있다.
+            log.error("Failed to rebuild token revocation filter", e);
+        } finally {
+            synchronized (filterLock) {
+                rebuildingFilter = null;
+            }
+        }
+    }
+
+    private void addToFilter(String jti) {
+        synchronized (filterLock) {
+            filter.put(jti);
+            if (rebuildingFilter != null) {
+                rebuildingFilter.put(jti);
+            }
+        }
+    }
+}
@@ -1,76 +1,124 @@
 package com.iglooclub.nungil.controller;
 
-import com.iglooclub.nungil.config.jwt.TokenProvider;
+import com.iglooclub.nungil.config.LoginMember;
+import com.iglooclub.nungil.domain.ChatSession;
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.dto.*;
+import com.iglooclub.nungil.exception.ChatRoomErrorResult;
+import com.iglooclub.nungil.exception.GeneralException;
+import com.iglooclub.nungil.service.ChatBroadcaster;
+import com.iglooclub.nungil.service.ChatMessagePipeline;
 import com.iglooclub.nungil.service.ChatMessageService;
-import com.iglooclub.nungil.service.MemberService;
+import com.iglooclub.nungil.service.ChatSessionService;
+import com.iglooclub.nungil.service.ChatTypingCoalescer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.security.core.Authentication;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.Principal;
-
-import static com.iglooclub.nungil.util.TokenUtil.HEADER_AUTHORIZATION;
-import static com.iglooclub.nungil.util.TokenUtil.getAccessToken;
-
 @RestController
 @RequiredArgsConstructor
 public class ChatMessageController {
 
-    private final SimpMessagingTemplate messagingTemplate;
-
     private final ChatMessageService chatMessageService;
 
-    private final MemberService memberService;
+    private final ChatMessagePipeline chatMessagePipeline;
 
-    private final TokenProvider tokenProvider;
+    private final ChatSessionService chatSessionService;
+
+    private final ChatBroadcaster chatBroadcaster;
+
+    private final ChatTypingCoalescer chatTypingCoalescer;
 
     @MessageMapping("/send")
-    public void send(@Payload ChatDTO chatDTO, @Header(HEADER_AUTHORIZATION) String authorizationHeader) {
-        String accessToken = getAccessToken(authorizationHeader);
-        Authentication authentication = tokenProvider.getAuthentication(accessToken);
-        Member member = getMember(authentication);
+    public void send(@Payload ChatDTO chatDTO, SimpMessageHeaderAccessor headerAccessor) {
+        // CONNECT 시 ChatPreHandler에서 저장한 회원 정보 사용
+        ChatSession chatSession = ChatSession.from(headerAccessor.getSessionAttributes());
+
+        if (!chatSessionService.checkRoomMember(chatSession, chatDTO.getChatRoomId())) {
+            throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
+        }
+
+        // 저장이 커밋된 뒤 파이프라인에서 /topic/{채팅방 ID}로 발행
+        chatMessagePipeline.submit(chatDTO, chatSession);
+    }
+
+    @MessageMapping("/read")
+    public void read(@Payload ChatReadDTO chatReadDTO, SimpMessageHeaderAccessor headerAccessor) {
+        ChatSession chatSession = ChatSession.from(headerAccessor.getSessionAttributes());
+
+        if (!chatSessionService.checkRoomMember(chatSession, chatReadDTO.getChatRoomId())) {
+            throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
+        }
+
+        ChatReadDTO receipt = chatMessageService.markRead(chatSession, chatReadDTO);
 
-        ChatDTO mappedChat = chatMessageService.save(chatDTO, member);
+        // 안 읽은 메시지 카운터에 반영하고, 상대방에게 읽음 확인 발행
+        chatBroadcaster.messageRead(receipt);
+        chatBroadcaster.broadcast("/topic/" + receipt.getChatRoomId() + "/read", receipt);
+    }
+
+    @MessageMapping("/typing")
+    public void typing(@Payload ChatTypingDTO chatTypingDTO, SimpMessageHeaderAccessor headerAccessor) {
+        ChatSession chatSession = ChatSession.from(headerAccessor.getSessionAttributes());
+
+        if (!chatSessionService.checkRoomMember(chatSession, chatTypingDTO.getChatRoomId())) {
+            throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
+        }
 
-        messagingTemplate.convertAndSend("/topic/" + chatDTO.getChatRoomId(), mappedChat);
+        // 채팅방별로 모아서 /topic/{채팅방 ID}/typing으로 발행
+        chatTypingCoalescer.typing(chatTypingDTO.getChatRoomId(), chatSession.getMemberId());
     }
 
     @GetMapping("/api/chat/room/{chatRoomId}")
     public ResponseEntity<ChatRoomDetailResponse> getMessageSlice(@PathVariable Long chatRoomId,
                                                                           @RequestParam(defaultValue = "0") int pageNumber,
                                                                           @RequestParam(defaultValue = "12") int pageSize,
-                                                                          Principal principal) {
+                                                                          @RequestParam(required = false) Long before,
+                                                                          @RequestParam(required = false) Long after,
+                                                                          @LoginMember Member member) {
+
+        // before 또는 after가 주어지거나 첫 페이지이면 메시지 ID 기준으로 조회 (첫 페이지는 최근 메시지 캐시에서 조회)
+        if (before != null || after != null || pageNumber == 0) {
+            ChatRoomDetailResponse chatRoomDetail = chatMessageService.getChatRoomDetail(chatRoomId, member, before, after, pageSize);
+            return new ResponseEntity<>(chatRoomDetail, HttpStatus.OK);
+        }
 
-        Member member = getMember(principal);
         // 메시지를 최근에 작성된 순서대로 조회
-        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.desc("createdAt")));
+        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.desc("id")));
 
         ChatRoomDetailResponse chatRoomDetail = chatMessageService.getChatRoomDetail(chatRoomId, member, pageRequest);
 
         return new ResponseEntity<>(chatRoomDetail, HttpStatus.OK);
     }
 
+    @GetMapping("/api/chat/room/{chatRoomId}/sync")
+    public ResponseEntity<ChatSyncResponse> sync(@PathVariable Long chatRoomId,
+                                                 @RequestParam(defaultValue = "0") long since,
+                                                 @RequestParam(defaultValue = "100") int size,
+                                                 @LoginMember Member member) {
+
+        // 마지막으로 받은 순번 이후의 메시지를 순번 순서로 조회
+        ChatSyncResponse syncResponse = chatMessageService.sync(chatRoomId, member, since, size);
+
+        return new ResponseEntity<>(syncResponse, HttpStatus.OK);
+    }
+
     @GetMapping("api/chat/room")
     public ResponseEntity<Slice<ChatRoomListResponse>> getRoomSlice(@RequestParam(defaultValue = "0") int pageNumber,
                                                                     @RequestParam(defaultValue = "12") int pageSize,
-                                                                    Principal principal) {
-
-        Member member = getMember(principal);
-        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+                                                                    @LoginMember Member member) {
+        // 마지막 활동 최근순 정렬은 조회 쿼리에서 처리
+        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize);
 
         Slice<ChatRoomListResponse> roomSlice = chatMessageService.getChatRoomSlice(member, pageRequest);
 
@@ -78,12 +126,7 @@ public class ChatMessageController {
     }
 
     @GetMapping("/api/chat/room/{chatRoomId}/info")
-    public AvailableTimeAndPlaceResponse getAvailableTimeAndPlace(@PathVariable Long chatRoomId, Principal principal){
-        Member member = getMember(principal);
+    public AvailableTimeAndPlaceResponse getAvailableTimeAndPlace(@PathVariable Long chatRoomId, @LoginMember Member member){
         return chatMessageService.getAvailableTimeAndPlace(member, chatRoomId);
     }
-
-    private Member getMember(Principal principal) {
-        return memberService.findById(Long.parseLong(principal.getName()));
-    }
 }
@@ -1,5 +1,6 @@
 package com.iglooclub.nungil.controller;
 
+import com.iglooclub.nungil.config.LoginMember;
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.domain.enums.Location;
 import com.iglooclub.nungil.dto.*;
@@ -10,7 +11,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -20,50 +20,43 @@ public class MemberController {
     private final MemberService memberService;
 
     @PatchMapping("/api/member/consent")
-    public ResponseEntity<?> updateConsentPolicy(@RequestBody ConsentUpdateRequest request, Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> updateConsentPolicy(@RequestBody ConsentUpdateRequest request, @LoginMember Member member) {
         memberService.updateConsentPolicy(request, member);
         return ResponseEntity.ok(null);
     }
 
     @GetMapping("/api/member/consent")
-    public ResponseEntity<?> getConsentPolicy(Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> getConsentPolicy(@LoginMember Member member) {
         ConsentPolicyResponse consentPolicy = memberService.getConsentPolicy(member);
         return ResponseEntity.ok(consentPolicy);
     }
 
     @GetMapping("/api/member")
-    public ResponseEntity<MemberDetailResponse> getMemberDetail(Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<MemberDetailResponse> getMemberDetail(@LoginMember Member member) {
         MemberDetailResponse memberDetail = memberService.getMemberDetail(member);
         return ResponseEntity.ok(memberDetail);
     }
 
     @PatchMapping("/api/member")
-    public ResponseEntity<?> updateProfile(@RequestBody @Valid ProfileUpdateRequest request, Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> updateProfile(@RequestBody @Valid ProfileUpdateRequest request, @LoginMember Member member) {
         memberService.updateProfile(member, request);
         return ResponseEntity.ok(null);
     }
 
     @PatchMapping("/api/member/schedule")
-    public ResponseEntity<?> updateSchedule(@RequestBody ScheduleUpdateRequest request, Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> updateSchedule(@RequestBody ScheduleUpdateRequest request, @LoginMember Member member) {
         memberService.updateSchedule(member, request);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     @PostMapping("/api/member/phone/authentication")
-    public ResponseEntity<?> sendAuthMessage(@RequestBody MessageAuthenticationRequest request, Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> sendAuthMessage(@RequestBody MessageAuthenticationRequest request, @LoginMember Member member) {
         memberService.sendAuthMessage(request, member);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     @PostMapping("/api/member/phone/verification")
-    public ResponseEntity<?> verifyAuthMessage(@RequestBody MessageVerificationRequest request, Principal principal) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> verifyAuthMessage(@RequestBody MessageVerificationRequest request, @LoginMember Member member) {
         memberService.verifyAuthMessage(request, member);
         return new ResponseEntity<>(HttpStatus.OK);
     }
@@ -72,8 +65,4 @@ public class MemberController {
     public List<AvailableMarker> getAllMarkers(){
         return memberService.getAllMarkers();
     }
-
-    private Member getMember(Principal principal) {
-        return memberService.findById(Long.parseLong(principal.getName()));
-    }
 }
@@ -1,9 +1,10 @@
 package com.iglooclub.nungil.controller;
 
+import com.iglooclub.nungil.config.LoginMember;
 import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.MemberRef;
 import com.iglooclub.nungil.domain.enums.NungilStatus;
 import com.iglooclub.nungil.dto.*;
-import com.iglooclub.nungil.service.MemberService;
 import com.iglooclub.nungil.service.NungilService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Slice;
@@ -11,33 +12,33 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-
 @RestController
 @RequestMapping("/api/nungil")
 @RequiredArgsConstructor
 public class NungilController {
     private final NungilService nungilService;
-    private final MemberService memberService;
 
     @PostMapping("/addRecommendNungil")
-    public ResponseEntity<NungilResponse> addRecommendMember(Principal principal){
-        Member member = getMember(principal);
+    public ResponseEntity<NungilResponse> addRecommendMember(@LoginMember Member member){
         NungilResponse nungilResponse = nungilService.addRecommendMember(member);
 
         return ResponseEntity.ok(nungilResponse);
     }
 
+    /**
+     * 눈길 목록을 조회한다. cursor 파라미터가 주어지면(첫 페이지는 빈 값) 키셋 방식으로 조회하고 다음 커서를 반환한다.
+     */
     @GetMapping("/nungils")
-    public ResponseEntity<Slice<NungilSliceResponse>> getNungilsByMemberAndStatus(Principal principal, @RequestParam NungilStatus status, @RequestParam int page, @RequestParam int size){
-        Member member = null;
-
-        try {
-            member = getMember(principal);
-        } catch (Exception e) {
-            if (!NungilStatus.RECOMMENDED.equals(status)) {
-                throw e;
-            }
+    public ResponseEntity<?> getNungilsByMemberAndStatus(@LoginMember(required = false) Member member,
+                                                         @RequestParam NungilStatus status,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam int size,
+                                                         @RequestParam(required = false) String cursor){
+        if (cursor != null) {
+            NungilCursorSliceResponse cursorResponse = NungilStatus.RECOMMENDED.equals(status)
+                    ? nungilService.getRecommendedNungilCursorSlice(member, cursor, size)
+                    : nungilService.getNungilCursorSliceByMemberAndStatus(member, status, cursor, size);
+            return ResponseEntity.ok(cursorResponse);
         }
 
         Slice<NungilSliceResponse> nungilPageResponses = null;
@@ -52,36 +53,27 @@ public class NungilController {
 
 
     @GetMapping("/detail")
-    public ResponseEntity<NungilResponse> getNungilDetail(Principal principal, @RequestParam Long nungilId){
+    public ResponseEntity<NungilResponse> getNungilDetail(@RequestParam Long nungilId){
         NungilResponse nungilResponse = nungilService.getNungilDetail(nungilId);
         return ResponseEntity.ok(nungilResponse);
     }
 
     @PostMapping("/send")
-    public ResponseEntity<?> sendNungil(Principal principal, @RequestParam Long nungilId){
-        Member member = getMember(principal);
+    public ResponseEntity<?> sendNungil(@LoginMember Member member, @RequestParam Long nungilId){
         nungilService.sendNungil(member, nungilId);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     @PatchMapping("/match")
-    public ResponseEntity<?> matchNungil(@RequestParam Long nungilId){
-        nungilService.matchNungil(nungilId);
+    public ResponseEntity<?> matchNungil(@RequestParam Long nungilId, @LoginMember MemberRef memberRef){
+        // 소유자 확인에는 회원 ID만 필요하므로 회원을 조회하지 않는다.
+        nungilService.matchNungil(nungilId, memberRef);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     @GetMapping("/match")
-    public ResponseEntity<NungilMatchResponse> getMatchedNungil(@RequestParam Long nungilId, Principal principal){
-        Member member = getMember(principal);
-
+    public ResponseEntity<NungilMatchResponse> getMatchedNungil(@RequestParam Long nungilId, @LoginMember Member member){
         NungilMatchResponse response = nungilService.getMatchedNungil(nungilId, member);
         return ResponseEntity.ok(response);
     }
-
-
-
-    private Member getMember(Principal principal) {
-        return memberService.findById(Long.parseLong(principal.getName()));
-    }
-
 }
@@ -1,11 +1,11 @@
 package com.iglooclub.nungil.controller;
 
+import com.iglooclub.nungil.config.LoginMember;
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.dto.LoginResponse;
 import com.iglooclub.nungil.dto.OauthLoginRequest;
 import com.iglooclub.nungil.exception.GeneralException;
 import com.iglooclub.nungil.exception.TokenErrorResult;
-import com.iglooclub.nungil.service.MemberService;
 import com.iglooclub.nungil.service.OauthService;
 import com.iglooclub.nungil.service.TokenService;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +18,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.security.Principal;
 
 @RestController
 @RequiredArgsConstructor
@@ -27,8 +26,6 @@ public class OauthController {
 
     private final TokenService tokenService;
 
-    private final MemberService memberService;
-
     @PostMapping("/api/auth/kakao")
     public ResponseEntity<LoginResponse> kakaoLogin(@RequestBody OauthLoginRequest loginRequest, HttpServletRequest request, HttpServletResponse response) {
         LoginResponse loginResponse = oauthService.kakaoLogin(loginRequest.getCode(), request, response);
@@ -36,26 +33,22 @@ public class OauthController {
     }
 
     @PostMapping("/api/auth/refresh")
-    public ResponseEntity<LoginResponse> createNewAccessToken(@CookieValue(value = "refresh_token", required = false) String refreshToken) {
+    public ResponseEntity<LoginResponse> createNewAccessToken(@CookieValue(value = "refresh_token", required = false) String refreshToken,
+                                                              HttpServletRequest request, HttpServletResponse response) {
         if (refreshToken == null) {
             throw new GeneralException(TokenErrorResult.REFRESH_TOKEN_NOT_FOUND);
         }
 
-        LoginResponse newLoginResponse = tokenService.createNewAccessToken(refreshToken);
+        LoginResponse newLoginResponse = tokenService.createNewAccessToken(refreshToken, request, response);
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(newLoginResponse);
     }
 
     @PostMapping("/api/logout/kakao")
-    public ResponseEntity<?> kakaoLogout(Principal principal, HttpServletRequest request, HttpServletResponse response) {
-        Member member = getMember(principal);
+    public ResponseEntity<?> kakaoLogout(@LoginMember Member member, HttpServletRequest request, HttpServletResponse response) {
         oauthService.kakaoLogout(member, request, response);
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
-
-    private Member getMember(Principal principal) {
-        return memberService.findById(Long.parseLong(principal.getName()));
-    }
 }
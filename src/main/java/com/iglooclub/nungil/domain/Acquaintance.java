@@ -11,6 +11,9 @@ import javax.persistence.*;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        @Index(name = "idx_acquaintance_member_acquaintance", columnList = "member_id, acquaintance_member_id")
+})
 public class Acquaintance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,32 @@
+package com.iglooclub.nungil.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 보관된 채팅방의 메시지 블록이다. 채팅방마다 한 행이며, 다시 보관되면 새 블록으로 대체된다.
+ * 블록 형식은 ChatArchiveStore.encodeBlock을 따르며, 행은 JdbcTemplate으로 기록한다.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+public class ChatArchive {
+
+    @Id
+    @Column(name = "chatroom_id")
+    private Long chatRoomId;
+
+    // 블록에 담긴 마지막 메시지 ID (서버별 사본이 최신인지 확인하는 데 사용)
+    @Column(nullable = false)
+    private Long lastMessageId;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "longblob")
+    private byte[] block;
+
+    private LocalDateTime archivedAt;
+}
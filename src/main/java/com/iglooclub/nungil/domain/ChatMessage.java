@@ -8,10 +8,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @Getter
+@Table(indexes = {
+        @Index(name = "idx_chat_message_chatroom_id_id", columnList = "chatroom_id, id"),
+        @Index(name = "uk_chat_message_chatroom_id_seq", columnList = "chatroom_id, seq", unique = true),
+        @Index(name = "uk_chat_message_client_message_id", columnList = "chatroom_id, member_id, client_message_id", unique = true)
+})
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class ChatMessage {
 
+    public static final int MAX_CONTENT_LENGTH = 400;
+
+    public static final int MAX_CLIENT_MESSAGE_ID_LENGTH = 64;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,16 +33,23 @@ public class ChatMessage {
     @JoinColumn(name = "member_id")
     private Member member;
 
-    @Column(length = 400)
+    @Column(length = MAX_CONTENT_LENGTH)
     private String content;
 
-    // 개발의 편의를 위해 일단 기본값을 READ로 설정. 추후 읽지 않은 메시지 개발 시 UNREAD로 변경
+    // 안 읽은 메시지는 ChatRoom의 회원별 마지막으로 읽은 메시지 ID로 계산하므로, 메시지마다 상태를 바꾸지 않는다.
     @Column(name = "status")
     @Enumerated(EnumType.STRING)
     private ChatMessageStatus status = ChatMessageStatus.READ;
 
     private LocalDateTime createdAt;
 
+    // 채팅방 안에서 저장 순서대로 증가하는 순번
+    private Long seq;
+
+    // 클라이언트가 재전송한 메시지를 구분하기 위한 ID
+    @Column(length = MAX_CLIENT_MESSAGE_ID_LENGTH)
+    private String clientMessageId;
+
     public static ChatMessage create(ChatRoom chatRoom, Member member, String content) {
         ChatMessage chatMessage = new ChatMessage();
         chatMessage.chatRoom = chatRoom;
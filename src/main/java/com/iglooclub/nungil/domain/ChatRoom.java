@@ -9,6 +9,9 @@ import java.util.List;
 
 @Entity
 @Getter
+@Table(indexes = {
+        @Index(name = "idx_chat_room_expired_at", columnList = "expired_at")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -34,6 +37,25 @@ public class ChatRoom {
 
     private LocalDateTime expiredAt;
 
+    // 채팅방 목록 조회 시 메시지 컬렉션을 로딩하지 않도록 마지막 메시지 정보를 함께 저장한다.
+    @Column(length = 400)
+    private String lastMessageContent;
+
+    private LocalDateTime lastMessageAt;
+
+    private Long lastSenderId;
+
+    // 회원별로 마지막으로 읽은 메시지 ID (안 읽은 메시지 수 계산에 사용)
+    private Long senderLastReadMessageId;
+
+    private Long receiverLastReadMessageId;
+
+    // 마지막으로 저장된 메시지의 순번 (서버 재시작 시 순번 할당을 이어가는 데 사용)
+    private Long lastSeq;
+
+    // 메시지가 보관 파일로 옮겨진 시간 (null이면 메시지가 chat_message 테이블에 있다)
+    private LocalDateTime archivedAt;
+
     // == 생성 메서드 == //
     public static ChatRoom create(Member receiver, Member sender) {
         return ChatRoom.builder()
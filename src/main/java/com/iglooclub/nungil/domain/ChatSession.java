@@ -0,0 +1,54 @@
+package com.iglooclub.nungil.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STOMP 세션 속성에 저장되는 인증된 회원 정보이다.
+ * CONNECT 시 한 번 생성되며, 이후 메시지 전송 시 JWT 파싱이나 회원, 채팅방 조회 없이 발행자와 채팅방 참여 여부를 확인한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ChatSession {
+
+    // STOMP 세션 속성의 키
+    public static final String ATTRIBUTE_NAME = "chatSession";
+
+    private final Long memberId;
+
+    // CONNECT 시점의 닉네임 (세션 도중 닉네임을 바꾸면 재연결 후 반영된다)
+    private final String nickname;
+
+    // 회원이 참여 중인 것으로 확인된 채팅방 ID (세션마다 여러 스레드에서 접근할 수 있다)
+    @Getter(AccessLevel.NONE)
+    private final Set<Long> chatRoomIds = ConcurrentHashMap.newKeySet();
+
+    public static ChatSession create(Member member, Collection<Long> chatRoomIds) {
+        ChatSession chatSession = new ChatSession(member.getId(), member.getNickname());
+        chatSession.chatRoomIds.addAll(chatRoomIds);
+        return chatSession;
+    }
+
+    /**
+     * STOMP 세션 속성에서 채팅 세션을 꺼내는 메서드이다.
+     * @param sessionAttributes STOMP 세션 속성
+     * @return 채팅 세션 (인증되지 않은 세션이면 null)
+     */
+    public static ChatSession from(Map<String, Object> sessionAttributes) {
+        return (sessionAttributes != null) ? (ChatSession) sessionAttributes.get(ATTRIBUTE_NAME) : null;
+    }
+
+    public boolean isRoomMember(Long chatRoomId) {
+        return chatRoomId != null && chatRoomIds.contains(chatRoomId);
+    }
+
+    public void addRoom(Long chatRoomId) {
+        chatRoomIds.add(chatRoomId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.iglooclub.nungil.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 회원의 시간, 장소, 취미, 외모/성격 묘사를 enum ordinal 위치의 비트로 표현한 불변 값 객체이다.
+ * 각 enum의 상수 개수는 64개 이하이므로 long 하나에 담긴다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CompatibilityProfile {
+
+    public static final CompatibilityProfile EMPTY = new CompatibilityProfile(0L, 0L, 0L, 0L, 0L);
+
+    private final long availableTimeMask;
+
+    private final long markerMask;
+
+    private final long hobbyMask;
+
+    private final long faceDepictionMask;
+
+    private final long personalityDepictionMask;
+
+    public static CompatibilityProfile of(long availableTimeMask, long markerMask, long hobbyMask,
+                                          long faceDepictionMask, long personalityDepictionMask) {
+        return new CompatibilityProfile(availableTimeMask, markerMask, hobbyMask, faceDepictionMask, personalityDepictionMask);
+    }
+
+    /**
+     * 회원 엔티티의 할당 목록을 비트마스크로 변환하는 메서드이다.
+     * @param member 변환할 회원 엔티티
+     * @return 회원의 비트마스크 프로필
+     */
+    public static CompatibilityProfile of(Member member) {
+        CompatibilityProfile schedule = ofSchedule(member);
+
+        long hobbyMask = 0L;
+        for (HobbyAllocation allocation : member.getHobbyAllocationList()) {
+            hobbyMask |= bit(allocation.getHobby());
+        }
+
+        long faceDepictionMask = 0L;
+        for (FaceDepictionAllocation allocation : member.getFaceDepictionAllocationList()) {
+            faceDepictionMask |= bit(allocation.getFaceDepiction());
+        }
+
+        long personalityDepictionMask = 0L;
+        for (PersonalityDepictionAllocation allocation : member.getPersonalityDepictionAllocationList()) {
+            personalityDepictionMask |= bit(allocation.getPersonalityDepiction());
+        }
+
+        return new CompatibilityProfile(schedule.availableTimeMask, schedule.markerMask,
+                hobbyMask, faceDepictionMask, personalityDepictionMask);
+    }
+
+    /**
+     * 회원의 시간, 장소만 비트마스크로 변환하는 메서드이다.
+     * 매칭처럼 일정 정보만 필요한 경우 취미, 묘사 컬렉션을 불필요하게 로딩하지 않는다.
+     * @param member 변환할 회원 엔티티
+     * @return 시간, 장소 비트만 채워진 프로필
+     */
+    public static CompatibilityProfile ofSchedule(Member member) {
+        long availableTimeMask = 0L;
+        for (AvailableTimeAllocation allocation : member.getAvailableTimeAllocationList()) {
+            availableTimeMask |= bit(allocation.getAvailableTime());
+        }
+
+        long markerMask = 0L;
+        for (MarkerAllocation allocation : member.getMarkerAllocationList()) {
+            markerMask |= bit(allocation.getMarker());
+        }
+
+        return new CompatibilityProfile(availableTimeMask, markerMask, 0L, 0L, 0L);
+    }
+
+    /**
+     * 주어진 enum 상수에 대응되는 비트를 반환하는 메서드이다. null이면 0을 반환한다.
+     */
+    public static long bit(Enum<?> value) {
+        return (value != null) ? 1L << value.ordinal() : 0L;
+    }
+}
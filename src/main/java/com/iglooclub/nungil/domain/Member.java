@@ -80,10 +80,13 @@ public class Member {
 
     private Integer preferredAgeEnd;
 
-    // 인연 프로필 뽑기 횟수
+    // 인연 프로필 뽑기 횟수. drawCountDate 당일의 횟수이며, 날짜가 바뀌면 0으로 간주한다.
     @Builder.Default
     private Long drawCount = 0L;
 
+    // 마지막으로 인연 프로필을 뽑은 날짜
+    private LocalDate drawCountDate;
+
     @Builder.Default
     @OneToMany(mappedBy = "member", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<HobbyAllocation> hobbyAllocationList = new ArrayList<>();
@@ -235,7 +238,6 @@ public class Member {
         this.phoneNumber = phoneNumber;
     }
 
-    public void plusDrawCount() {this.drawCount += 1L;}
 
 
     // List를 String으로 변환하는 메서드
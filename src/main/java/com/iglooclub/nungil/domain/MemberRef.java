@@ -0,0 +1,30 @@
+package com.iglooclub.nungil.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 인증된 회원의 ID만 담은 참조이다.
+ * 회원 ID만 필요한 요청에서 회원 엔티티를 조회하지 않고 사용한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberRef {
+
+    private final Long id;
+
+    public static MemberRef of(Long id) {
+        return new MemberRef(id);
+    }
+
+    /**
+     * 주어진 회원이 이 참조가 가리키는 회원인지 확인하는 메서드이다.
+     * 지연 로딩 프록시의 ID만 사용하므로 회원을 조회하지 않는다.
+     * @param member 확인할 회원
+     * @return 같은 회원인지 여부
+     */
+    public boolean refersTo(Member member) {
+        return member != null && id.equals(member.getId());
+    }
+}
@@ -17,6 +17,10 @@ import java.util.List;
 @Builder
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        @Index(name = "idx_nungil_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_nungil_member_status_created_at", columnList = "member_id, status, created_at, id")
+})
 public class Nungil {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,56 @@
+package com.iglooclub.nungil.domain;
+
+import com.iglooclub.nungil.domain.enums.Location;
+import com.iglooclub.nungil.domain.enums.Sex;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 추천 후보 인덱스에 저장되는 회원 정보의 불변 스냅샷이다.
+ * 인덱스 조회 시 엔티티나 지연 로딩 컬렉션에 접근하지 않도록 필요한 값만 복사해 둔다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RecommendationCandidate {
+
+    private final Long memberId;
+
+    private final Location location;
+
+    private final Sex sex;
+
+    // 생년월일이 없으면 null
+    private final Integer birthYear;
+
+    private final Integer preferredAgeStart;
+
+    private final Integer preferredAgeEnd;
+
+    private final CompatibilityProfile profile;
+
+    public static RecommendationCandidate of(Member member, CompatibilityProfile profile) {
+        Integer birthYear = (member.getBirthdate() != null) ? member.getBirthdate().getYear() : null;
+
+        return new RecommendationCandidate(member.getId(), member.getLocation(), member.getSex(), birthYear,
+                member.getPreferredAgeStart(), member.getPreferredAgeEnd(), profile);
+    }
+
+    /**
+     * 다른 회원에게 추천될 수 있는 상태인지 확인하는 메서드이다.
+     * 성별, 생년월일을 입력하고 장소 선택까지 마친(가입 완료) 회원만 추천 대상이 된다.
+     */
+    public boolean isEligible() {
+        return sex != null && birthYear != null && profile.getMarkerMask() != 0L;
+    }
+
+    /**
+     * 주어진 출생연도의 회원이 이 회원의 선호 나이 범위에 속하는지 확인하는 메서드이다.
+     * 나이는 (올해 - 출생연도)로 계산하며, 선호 나이가 없으면 제한하지 않는다.
+     */
+    public boolean prefersBirthYear(int birthYear, int currentYear) {
+        int age = currentYear - birthYear;
+        return (preferredAgeStart == null || age >= preferredAgeStart)
+                && (preferredAgeEnd == null || age <= preferredAgeEnd);
+    }
+}
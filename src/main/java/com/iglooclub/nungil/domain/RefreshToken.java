@@ -9,6 +9,7 @@ import javax.persistence.*;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@Table(indexes = @Index(name = "idx_refresh_token_refresh_token", columnList = "refresh_token"))
 public class RefreshToken {
 
     @Id
@@ -0,0 +1,21 @@
+package com.iglooclub.nungil.domain.events;
+
+import com.iglooclub.nungil.domain.RecommendationCandidate;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Validated
+@RequiredArgsConstructor
+public class MemberProfileUpdatedEvent {
+
+    @NotNull
+    private final RecommendationCandidate candidate;
+
+    public Long getMemberId() {
+        return candidate.getMemberId();
+    }
+}
@@ -1,6 +1,7 @@
 package com.iglooclub.nungil.dto;
 
 import com.iglooclub.nungil.domain.ChatMessage;
+import com.iglooclub.nungil.domain.ChatSession;
 import com.iglooclub.nungil.domain.Member;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,17 +14,45 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class ChatDTO {
 
+    // 저장된 뒤에 부여되는 메시지 ID (클라이언트가 보낸 값은 사용하지 않는다)
+    private Long messageId;
     private Long chatRoomId;
     private String sender;
     private String content;
     private LocalDateTime createdAt;
     private Long senderId;
+    // 채팅방 안에서 저장 순서대로 증가하는 순번 (저장된 뒤에 부여된다)
+    private Long seq;
+    // 클라이언트가 메시지를 재전송할 때 중복 저장을 막기 위해 보내는 ID
+    private String clientMessageId;
 
     public static ChatDTO of(Long chatRoomId, Member member, ChatMessage chatMessage) {
-        return new ChatDTO(chatRoomId,
+        return new ChatDTO(chatMessage.getId(),
+                chatRoomId,
                 member.getNickname(),
                 chatMessage.getContent(),
                 chatMessage.getCreatedAt(),
-                member.getId());
+                member.getId(),
+                chatMessage.getSeq(),
+                chatMessage.getClientMessageId());
+    }
+
+    public static ChatDTO create(Long chatRoomId, ChatSession chatSession, String content, String clientMessageId) {
+        return new ChatDTO(null,
+                chatRoomId,
+                chatSession.getNickname(),
+                content,
+                LocalDateTime.now(),
+                chatSession.getMemberId(),
+                null,
+                clientMessageId);
+    }
+
+    public ChatDTO withSeq(Long seq) {
+        return new ChatDTO(messageId, chatRoomId, sender, content, createdAt, senderId, seq, clientMessageId);
+    }
+
+    public ChatDTO withMessageId(Long messageId) {
+        return new ChatDTO(messageId, chatRoomId, sender, content, createdAt, senderId, seq, clientMessageId);
     }
 }
@@ -0,0 +1,22 @@
+package com.iglooclub.nungil.dto;
+
+import com.iglooclub.nungil.exception.ErrorResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatErrorDTO {
+
+    private Long chatRoomId;
+    // 처리에 실패한 메시지의 클라이언트 메시지 ID (보내지 않았으면 null)
+    private String clientMessageId;
+    private String code;
+    private String message;
+
+    public static ChatErrorDTO of(ChatDTO chatDTO, ErrorResult errorResult) {
+        return new ChatErrorDTO(chatDTO.getChatRoomId(), chatDTO.getClientMessageId(), errorResult.name(), errorResult.getMessage());
+    }
+}
@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class ChatMessageListResponse {
 
+    private Long messageId;
+
     private String animalFace;
 
     private String sender;
@@ -24,8 +26,15 @@ public class ChatMessageListResponse {
 
     private Boolean isSender;
 
+    private Long seq;
+
     public static ChatMessageListResponse create(Member member, ChatMessage chatMessage, Boolean isSender) {
-        return new ChatMessageListResponse(member.getAnimalFace().getTitle(), member.getNickname(), chatMessage.getContent(),
-                chatMessage.getCreatedAt(), isSender);
+        return new ChatMessageListResponse(chatMessage.getId(), member.getAnimalFace().getTitle(), member.getNickname(), chatMessage.getContent(),
+                chatMessage.getCreatedAt(), isSender, chatMessage.getSeq());
+    }
+
+    public static ChatMessageListResponse create(Member member, ChatDTO chatDTO, Boolean isSender) {
+        return new ChatMessageListResponse(chatDTO.getMessageId(), member.getAnimalFace().getTitle(), member.getNickname(), chatDTO.getContent(),
+                chatDTO.getCreatedAt(), isSender, chatDTO.getSeq());
     }
 }
@@ -0,0 +1,24 @@
+package com.iglooclub.nungil.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 저장이 커밋된 메시지를 다른 서버에 알리기 위한 정보이다. 메시지 내용은 포함하지 않는다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatPersistedDTO {
+
+    private Long chatRoomId;
+    private Long messageId;
+    private Long senderId;
+    // 메시지를 저장한 서버의 ID (저장한 서버는 이미 반영했으므로 건너뛴다)
+    private String nodeId;
+
+    public static ChatPersistedDTO of(ChatDTO message, String nodeId) {
+        return new ChatPersistedDTO(message.getChatRoomId(), message.getMessageId(), message.getSenderId(), nodeId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.iglooclub.nungil.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatReadDTO {
+
+    private Long chatRoomId;
+    // 마지막으로 읽은 메시지 ID
+    private Long messageId;
+    // 메시지를 읽은 회원 ID (클라이언트가 보낸 값은 사용하지 않는다)
+    private Long memberId;
+
+    public static ChatReadDTO of(Long chatRoomId, Long messageId, Long memberId) {
+        return new ChatReadDTO(chatRoomId, messageId, memberId);
+    }
+}
@@ -2,6 +2,7 @@ package com.iglooclub.nungil.dto;
 
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.domain.enums.AnimalFace;
+import com.querydsl.core.annotations.QueryProjection;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,4 +22,49 @@ public class ChatRoomListResponse {
     private LocalDateTime createdAt;
 
     private Long chatRoomId;
+
+    // 조회한 회원이 마지막으로 읽은 메시지 ID
+    private Long lastReadMessageId;
+
+    // 안 읽은 메시지 수 (ChatUnreadCounter.UNREAD_COUNT_LIMIT에서 멈춘다)
+    private int unreadCount;
+
+    // 화면에 표시할 안 읽은 메시지 수 (99개를 넘으면 "99+")
+    private String unreadCountLabel;
+
+    // 상대방 회원 ID
+    private Long opponentId;
+
+    // 상대방이 접속 중인지 여부
+    private boolean online;
+
+    private static final String DEFAULT_CONTENT = "지금 연락을 시작하세요!";
+
+    private static final int MAX_UNREAD_COUNT_LABEL = 99;
+
+    /**
+     * QueryDSL 프로젝션으로 채팅방 목록 응답을 생성하는 생성자이다.
+     * 아직 메시지가 없는 채팅방은 기본 문구와 채팅방 생성 시간을 사용한다.
+     */
+    @QueryProjection
+    public ChatRoomListResponse(AnimalFace animalFace, String senderNickName, String lastMessageContent,
+                                LocalDateTime lastMessageAt, LocalDateTime roomCreatedAt, Long chatRoomId,
+                                Long lastReadMessageId, Long opponentId) {
+        this.animalFace = (animalFace != null) ? animalFace.getTitle() : null;
+        this.senderNickName = senderNickName;
+        this.content = (lastMessageAt != null) ? lastMessageContent : DEFAULT_CONTENT;
+        this.createdAt = (lastMessageAt != null) ? lastMessageAt : roomCreatedAt;
+        this.chatRoomId = chatRoomId;
+        this.lastReadMessageId = lastReadMessageId;
+        this.opponentId = opponentId;
+    }
+
+    public void updateUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+        this.unreadCountLabel = (unreadCount > MAX_UNREAD_COUNT_LABEL) ? MAX_UNREAD_COUNT_LABEL + "+" : String.valueOf(unreadCount);
+    }
+
+    public void updateOnline(boolean online) {
+        this.online = online;
+    }
 }
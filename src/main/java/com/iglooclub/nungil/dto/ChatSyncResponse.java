@@ -0,0 +1,29 @@
+package com.iglooclub.nungil.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ChatSyncResponse {
+
+    // 요청한 순번 이후의 메시지 (순번 오름차순)
+    private List<ChatDTO> messages;
+
+    // 응답에 포함된 마지막 순번 (다음 동기화 요청의 since 값)
+    private Long lastSeq;
+
+    // 한 번에 보내지 못한 메시지가 더 있는지 여부
+    private Boolean hasNext;
+
+    public static ChatSyncResponse create(List<ChatDTO> messages, Long sinceSeq, boolean hasNext) {
+        ChatSyncResponse response = new ChatSyncResponse();
+        response.messages = messages;
+        response.lastSeq = messages.isEmpty() ? sinceSeq : messages.get(messages.size() - 1).getSeq();
+        response.hasNext = hasNext;
+        return response;
+    }
+}
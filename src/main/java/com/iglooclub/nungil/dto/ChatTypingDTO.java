@@ -0,0 +1,21 @@
+package com.iglooclub.nungil.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatTypingDTO {
+
+    private Long chatRoomId;
+    // 직전 구간 동안 입력 중이었던 회원 ID (클라이언트가 보낸 값은 사용하지 않는다)
+    private Set<Long> memberIds;
+
+    public static ChatTypingDTO of(Long chatRoomId, Set<Long> memberIds) {
+        return new ChatTypingDTO(chatRoomId, memberIds);
+    }
+}
@@ -0,0 +1,55 @@
+package com.iglooclub.nungil.dto;
+
+import com.iglooclub.nungil.exception.GeneralException;
+import com.iglooclub.nungil.exception.NungilErrorResult;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 눈길 목록의 키셋 페이지네이션 위치를 나타내는 커서이다.
+ * 클라이언트에는 (createdAt, id)를 Base64로 인코딩한 불투명한 문자열로 전달된다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class NungilCursor {
+
+    private static final String DELIMITER = ",";
+
+    private final LocalDateTime createdAt;
+
+    private final Long id;
+
+    public static NungilCursor of(LocalDateTime createdAt, Long id) {
+        return new NungilCursor(createdAt, id);
+    }
+
+    /**
+     * 커서 문자열을 해석하는 메서드이다. 빈 문자열이면 첫 페이지를 의미하는 null을 반환한다.
+     * @param cursor 이전 응답에서 받은 커서 문자열
+     * @return 해석된 커서
+     */
+    public static NungilCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(DELIMITER, 2);
+            return new NungilCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new GeneralException(NungilErrorResult.INVALID_CURSOR, e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + DELIMITER + id;
+        // 패딩 문자(=)는 쿼리 파라미터에서 문제가 될 수 있으므로 제외
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package com.iglooclub.nungil.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 커서 기반으로 조회된 눈길 목록과 다음 페이지 커서를 담는 DTO
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class NungilCursorSliceResponse {
+
+    private List<NungilSliceResponse> content;
+
+    private String nextCursor;
+
+    private Boolean hasNext;
+
+    /**
+     * 요청 크기보다 하나 더 조회된 목록으로 응답을 생성하는 메서드이다.
+     * @param fetched 최대 size + 1개까지 조회된 눈길 목록
+     * @param size 요청한 페이지 크기
+     */
+    public static NungilCursorSliceResponse create(List<NungilSliceResponse> fetched, int size) {
+        NungilCursorSliceResponse response = new NungilCursorSliceResponse();
+
+        response.hasNext = fetched.size() > size;
+        response.content = response.hasNext ? fetched.subList(0, size) : fetched;
+
+        if (response.hasNext) {
+            NungilSliceResponse last = response.content.get(size - 1);
+            response.nextCursor = NungilCursor.of(last.getCreatedAt(), last.getNungilId()).encode();
+        }
+
+        return response;
+    }
+}
@@ -4,6 +4,8 @@ import com.iglooclub.nungil.domain.Company;
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.domain.Nungil;
 import com.iglooclub.nungil.domain.enums.AnimalFace;
+import com.iglooclub.nungil.domain.enums.Sex;
+import com.querydsl.core.annotations.QueryProjection;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -27,6 +29,22 @@ public class NungilSliceResponse {
 
     private String sex;
 
+    /**
+     * QueryDSL 프로젝션으로 엔티티 로딩 없이 응답 DTO를 생성하는 생성자이다.
+     */
+    @QueryProjection
+    public NungilSliceResponse(Long nungilId, AnimalFace animalFace, String job, String description,
+                               LocalDateTime createdAt, LocalDateTime expiredAt, String nickname, Sex sex) {
+        this.nungilId = nungilId;
+        this.animalFace = (animalFace != null) ? animalFace.getTitle() : null;
+        this.job = job;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.expiredAt = expiredAt;
+        this.nickname = nickname;
+        this.sex = (sex != null) ? sex.getTitle() : null;
+    }
+
     public static NungilSliceResponse create(Nungil nungil, Member member) {
         NungilSliceResponse response = new NungilSliceResponse();
         AnimalFace animalFace = member.getAnimalFace();
@@ -0,0 +1,20 @@
+package com.iglooclub.nungil.eventListener;
+
+import com.iglooclub.nungil.domain.events.MemberProfileUpdatedEvent;
+import com.iglooclub.nungil.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AuthEventListener {
+    private final RefreshTokenService refreshTokenService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void memberProfileUpdatedListen(MemberProfileUpdatedEvent memberProfileUpdatedEvent){
+        // 이전에 발급된 리프레시 토큰의 가입 절차를 무효로 만든다.
+        refreshTokenService.invalidateProgress(memberProfileUpdatedEvent.getMemberId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.iglooclub.nungil.eventListener;
+
+import com.iglooclub.nungil.domain.events.MemberProfileUpdatedEvent;
+import com.iglooclub.nungil.service.RecommendationIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class RecommendationEventListener {
+    private final RecommendationIndex recommendationIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void memberProfileUpdatedListen(MemberProfileUpdatedEvent memberProfileUpdatedEvent){
+        // 커밋된 프로필, 일정으로 추천 후보 인덱스 갱신
+        recommendationIndex.upsert(memberProfileUpdatedEvent.getCandidate());
+    }
+}
@@ -1,5 +1,6 @@
 package com.iglooclub.nungil.exception;
 
+import com.iglooclub.nungil.config.jwt.ChatPreHandler;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
@@ -15,10 +16,14 @@ public class ChatErrorHandler extends StompSubProtocolErrorHandler {
     @Override
     public Message<byte[]> handleClientMessageProcessingError(Message<byte[]> clientMessage, Throwable ex) {
 
-        if ("UNAUTHORIZED".equals(ex.getMessage())) {
+        if (ChatPreHandler.UNAUTHORIZED.equals(ex.getMessage())) {
             return makeErrorMessage(TokenErrorResult.UNEXPECTED_TOKEN);
         }
 
+        if (ChatPreHandler.NOT_MEMBER.equals(ex.getMessage())) {
+            return makeErrorMessage(ChatRoomErrorResult.NOT_MEMBER);
+        }
+
         return super.handleClientMessageProcessingError(clientMessage, ex);
     }
 
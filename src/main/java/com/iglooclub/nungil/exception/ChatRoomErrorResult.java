@@ -10,6 +10,11 @@ public enum ChatRoomErrorResult implements ErrorResult {
     CHAT_ROOM_MORE_THAN_ONE(HttpStatus.CONFLICT, "More than one chat room"),
     CHAT_ROOM_NOT_FOUND(HttpStatus.NOT_FOUND, "Failed to find the chat room"),
     NOT_MEMBER(HttpStatus.FORBIDDEN, "Only available for the member of the chat room"),
+    INVALID_MESSAGE(HttpStatus.BAD_REQUEST, "Chat message is empty or too long"),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Only one of before and after can be given"),
+    INVALID_PAGE_SIZE(HttpStatus.BAD_REQUEST, "Page size must not be less than one"),
+    CHAT_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Too many chat messages are waiting to be saved"),
+    MESSAGE_NOT_SAVED(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save the chat message"),
     ;
 
     private final HttpStatus httpStatus;
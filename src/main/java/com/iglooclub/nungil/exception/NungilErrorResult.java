@@ -11,7 +11,9 @@ public enum NungilErrorResult implements ErrorResult{
     NUNGIL_WRONG_STATUS(HttpStatus.BAD_REQUEST, "Nungil's status is not correct"),
     NUNGIL_MORE_THAN_ONE(HttpStatus.INTERNAL_SERVER_ERROR, "More than one Nungil from same Sender"),
     NUNGIL_NO_RECOMMEND(HttpStatus.NOT_FOUND,"Have no recommendation"),
-    LIMIT_EXCEEDED(HttpStatus.FORBIDDEN, "You have exceeded the limit")
+    LIMIT_EXCEEDED(HttpStatus.FORBIDDEN, "You have exceeded the limit"),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Given cursor is not valid"),
+    INVALID_PAGE_SIZE(HttpStatus.BAD_REQUEST, "Page size must not be less than one")
     ;
 
     private final HttpStatus httpStatus;
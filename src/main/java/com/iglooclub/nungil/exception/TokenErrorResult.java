@@ -10,6 +10,7 @@ public enum TokenErrorResult implements ErrorResult {
 
     REFRESH_TOKEN_NOT_FOUND(HttpStatus.BAD_REQUEST, "Failed to find the refresh token in cookie"),
     UNEXPECTED_TOKEN(HttpStatus.BAD_REQUEST, "Given token is not valid"),
+    REUSED_TOKEN(HttpStatus.UNAUTHORIZED, "Given refresh token has already been used. Please log in again"),
     INVALID_AUTHENTICATION(HttpStatus.UNAUTHORIZED, "Authentication failed for some reason. " +
             "(e.g. expired or wrong access token, access token not found, etc.)")
     ;
@@ -12,9 +12,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface AcquaintanceRepository extends JpaRepository<Acquaintance, Long> {
+public interface AcquaintanceRepository extends JpaRepository<Acquaintance, Long>, AcquaintanceRepositoryCustom {
     List<Acquaintance> findByMember(Member member);
 
     Optional<Acquaintance> findByMemberAndAcquaintanceMember(Member member, Member acquaintanceMember);
 
+    @Query("select a.acquaintanceMember.id from Acquaintance a where a.member = :member")
+    List<Long> findAcquaintanceMemberIdsByMember(@Param("member") Member member);
+
 }
\ No newline at end of file
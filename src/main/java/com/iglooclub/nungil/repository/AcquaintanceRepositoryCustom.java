@@ -0,0 +1,9 @@
+package com.iglooclub.nungil.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface AcquaintanceRepositoryCustom {
+    Map<Long, Set<Long>> findAcquaintanceMemberIdsByMemberIds(Collection<Long> memberIds);
+}
@@ -0,0 +1,36 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.QAcquaintance;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+
+import java.util.*;
+
+@RequiredArgsConstructor
+public class AcquaintanceRepositoryImpl implements AcquaintanceRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    private static final QAcquaintance acquaintance = QAcquaintance.acquaintance;
+
+    /**
+     * 여러 회원의 지인 회원 ID를 한 번의 쿼리로 조회하는 메서드이다.
+     * @param memberIds 조회할 회원 ID 목록
+     * @return 회원 ID별 지인 회원 ID 집합
+     */
+    @Override
+    public Map<Long, Set<Long>> findAcquaintanceMemberIdsByMemberIds(Collection<Long> memberIds) {
+        Map<Long, Set<Long>> result = new HashMap<>();
+
+        for (Tuple tuple : queryFactory.select(acquaintance.member.id, acquaintance.acquaintanceMember.id)
+                .from(acquaintance)
+                .where(acquaintance.member.id.in(memberIds))
+                .fetch()) {
+            result.computeIfAbsent(tuple.get(acquaintance.member.id), id -> new HashSet<>())
+                    .add(tuple.get(acquaintance.acquaintanceMember.id));
+        }
+
+        return result;
+    }
+}
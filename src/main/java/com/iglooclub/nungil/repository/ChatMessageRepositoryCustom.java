@@ -0,0 +1,18 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.ChatMessage;
+import com.iglooclub.nungil.domain.ChatRoom;
+
+import java.util.List;
+
+public interface ChatMessageRepositoryCustom {
+    List<ChatMessage> findBefore(ChatRoom chatRoom, Long beforeMessageId, int limit);
+
+    List<ChatMessage> findAfter(ChatRoom chatRoom, Long afterMessageId, int limit);
+
+    List<Long> findUnreadMessageIds(Long chatRoomId, Long memberId, Long lastReadMessageId, int limit);
+
+    Long findLastMessageId(Long chatRoomId);
+
+    List<ChatMessage> findSinceSeq(ChatRoom chatRoom, long sinceSeq, int limit);
+}
@@ -0,0 +1,107 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.ChatMessage;
+import com.iglooclub.nungil.domain.ChatRoom;
+import com.iglooclub.nungil.domain.QChatMessage;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChatMessageRepositoryImpl implements ChatMessageRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    private static final QChatMessage chatMessage = QChatMessage.chatMessage;
+
+    /**
+     * 주어진 메시지보다 먼저 작성된 메시지를 최근순으로 조회하는 메서드이다.
+     * (chatroom_id, id) 인덱스를 따라 읽으므로 대화가 길어져도 조회 비용이 일정하다.
+     * @param chatRoom 채팅방
+     * @param beforeMessageId 기준 메시지 ID (null이면 가장 최근 메시지부터 조회)
+     * @param limit 조회할 최대 메시지 수
+     * @return 메시지 ID 내림차순으로 정렬된 메시지 목록
+     */
+    @Override
+    public List<ChatMessage> findBefore(ChatRoom chatRoom, Long beforeMessageId, int limit) {
+        BooleanExpression cursorCondition = (beforeMessageId != null) ? chatMessage.id.lt(beforeMessageId) : null;
+
+        return queryFactory.selectFrom(chatMessage)
+                .join(chatMessage.member).fetchJoin()
+                .where(chatMessage.chatRoom.eq(chatRoom), cursorCondition)
+                .orderBy(chatMessage.id.desc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 주어진 메시지 이후에 작성된 메시지를 작성순으로 조회하는 메서드이다.
+     * 재연결 시 마지막으로 받은 메시지 이후의 메시지를 빠짐없이 가져오는 데 사용한다.
+     * @param chatRoom 채팅방
+     * @param afterMessageId 기준 메시지 ID
+     * @param limit 조회할 최대 메시지 수
+     * @return 메시지 ID 오름차순으로 정렬된 메시지 목록
+     */
+    @Override
+    public List<ChatMessage> findAfter(ChatRoom chatRoom, Long afterMessageId, int limit) {
+        return queryFactory.selectFrom(chatMessage)
+                .join(chatMessage.member).fetchJoin()
+                .where(chatMessage.chatRoom.eq(chatRoom), chatMessage.id.gt(afterMessageId))
+                .orderBy(chatMessage.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 회원이 읽지 않은 상대방의 메시지 ID를 최근 메시지부터 limit개까지 조회하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param memberId 조회할 회원 ID
+     * @param lastReadMessageId 회원이 마지막으로 읽은 메시지 ID (null이면 채팅방의 모든 메시지가 대상)
+     * @param limit 조회할 최대 메시지 수
+     * @return 메시지 ID 내림차순으로 정렬된 안 읽은 메시지 ID 목록
+     */
+    @Override
+    public List<Long> findUnreadMessageIds(Long chatRoomId, Long memberId, Long lastReadMessageId, int limit) {
+        BooleanExpression cursorCondition = (lastReadMessageId != null) ? chatMessage.id.gt(lastReadMessageId) : null;
+
+        return queryFactory.select(chatMessage.id)
+                .from(chatMessage)
+                .where(chatMessage.chatRoom.id.eq(chatRoomId), cursorCondition, chatMessage.member.id.ne(memberId))
+                .orderBy(chatMessage.id.desc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 채팅방에 저장된 마지막 메시지의 ID를 조회하는 메서드이다. (chatroom_id, id) 인덱스의 끝만 읽는다.
+     * @param chatRoomId 채팅방 ID
+     * @return 마지막 메시지 ID (chat_message 테이블에 메시지가 없으면 null)
+     */
+    @Override
+    public Long findLastMessageId(Long chatRoomId) {
+        return queryFactory.select(chatMessage.id.max())
+                .from(chatMessage)
+                .where(chatMessage.chatRoom.id.eq(chatRoomId))
+                .fetchOne();
+    }
+
+    /**
+     * 주어진 순번 이후에 저장된 메시지를 순번 순서로 조회하는 메서드이다.
+     * 재연결한 클라이언트가 마지막으로 받은 순번 이후의 메시지만 가져오는 데 사용한다.
+     * @param chatRoom 채팅방
+     * @param sinceSeq 기준 순번 (이 순번보다 큰 메시지를 조회)
+     * @param limit 조회할 최대 메시지 수
+     * @return 순번 오름차순으로 정렬된 메시지 목록
+     */
+    @Override
+    public List<ChatMessage> findSinceSeq(ChatRoom chatRoom, long sinceSeq, int limit) {
+        return queryFactory.selectFrom(chatMessage)
+                .join(chatMessage.member).fetchJoin()
+                .where(chatMessage.chatRoom.eq(chatRoom), chatMessage.seq.gt(sinceSeq))
+                .orderBy(chatMessage.seq.asc())
+                .limit(limit)
+                .fetch();
+    }
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long>, PagingAndSortingRepository<ChatRoom, Long> {
+public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long>, PagingAndSortingRepository<ChatRoom, Long>, ChatRoomRepositoryCustom {
 
     List<ChatRoom> findByExpiredAtBefore(LocalDateTime dateTime);
     Slice<ChatRoom> findBySenderOrReceiver(Member sender, Member receiver, Pageable pageable);
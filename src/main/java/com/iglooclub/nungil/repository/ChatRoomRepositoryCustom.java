@@ -0,0 +1,28 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.dto.ChatRoomListResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ChatRoomRepositoryCustom {
+    Slice<ChatRoomListResponse> findRoomSlice(Member member, Pageable pageable);
+
+    Map<Long, Set<Long>> findMemberIdsByIds(Collection<Long> chatRoomIds);
+
+    List<Long> findIdsByMemberId(Long memberId);
+
+    long updateLastReadMessageId(Long chatRoomId, Long memberId, Long messageId);
+
+    List<Long> findArchivableIds(LocalDateTime dateTime, int limit);
+
+    long updateArchivedAt(Long chatRoomId, LocalDateTime archivedAt);
+
+    long findLastSeqById(Long chatRoomId);
+}
@@ -0,0 +1,182 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.QChatMessage;
+import com.iglooclub.nungil.domain.QChatRoom;
+import com.iglooclub.nungil.domain.QMember;
+import com.iglooclub.nungil.dto.ChatRoomListResponse;
+import com.iglooclub.nungil.dto.QChatRoomListResponse;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class ChatRoomRepositoryImpl implements ChatRoomRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    private static final QChatRoom chatRoom = QChatRoom.chatRoom;
+
+    private static final QMember sender = new QMember("sender");
+
+    private static final QMember receiver = new QMember("receiver");
+
+    private static final QChatMessage chatMessage = QChatMessage.chatMessage;
+
+    /**
+     * 회원의 채팅방 목록을 상대방 정보, 마지막 메시지와 함께 한 번의 쿼리로 조회하는 메서드이다.
+     * 마지막 활동 시간(마지막 메시지가 없으면 채팅방 생성 시간) 최근순으로 정렬한다.
+     * @param member 조회를 요청한 회원
+     * @param pageable 페이지 정보
+     * @return Slice 형식의 채팅방 목록
+     */
+    @Override
+    public Slice<ChatRoomListResponse> findRoomSlice(Member member, Pageable pageable) {
+        BooleanExpression isSender = chatRoom.sender.id.eq(member.getId());
+
+        // 요청한 회원이 sender이면 receiver가, 아니면 sender가 상대방이다.
+        List<ChatRoomListResponse> content = queryFactory
+                .select(new QChatRoomListResponse(
+                        new CaseBuilder().when(isSender).then(receiver.animalFace).otherwise(sender.animalFace),
+                        new CaseBuilder().when(isSender).then(receiver.nickname).otherwise(sender.nickname),
+                        chatRoom.lastMessageContent,
+                        chatRoom.lastMessageAt,
+                        chatRoom.createdAt,
+                        chatRoom.id,
+                        new CaseBuilder().when(isSender).then(chatRoom.senderLastReadMessageId).otherwise(chatRoom.receiverLastReadMessageId),
+                        new CaseBuilder().when(isSender).then(receiver.id).otherwise(sender.id)))
+                .from(chatRoom)
+                .join(chatRoom.sender, sender)
+                .join(chatRoom.receiver, receiver)
+                .where(isSender.or(chatRoom.receiver.id.eq(member.getId())))
+                .orderBy(Expressions.dateTimeTemplate(LocalDateTime.class, "coalesce({0}, {1})",
+                                chatRoom.lastMessageAt, chatRoom.createdAt).desc(),
+                        chatRoom.id.desc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(content.size() - 1);
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 여러 채팅방의 참여 회원 ID를 한 번의 쿼리로 조회하는 메서드이다.
+     * @param chatRoomIds 조회할 채팅방 ID 목록
+     * @return 채팅방 ID별 참여 회원 ID 집합 (존재하지 않는 채팅방은 포함되지 않는다)
+     */
+    @Override
+    public Map<Long, Set<Long>> findMemberIdsByIds(Collection<Long> chatRoomIds) {
+        Map<Long, Set<Long>> result = new HashMap<>();
+
+        for (Tuple tuple : queryFactory.select(chatRoom.id, chatRoom.sender.id, chatRoom.receiver.id)
+                .from(chatRoom)
+                .where(chatRoom.id.in(chatRoomIds))
+                .fetch()) {
+            Set<Long> memberIds = new HashSet<>();
+            memberIds.add(tuple.get(chatRoom.sender.id));
+            memberIds.add(tuple.get(chatRoom.receiver.id));
+            result.put(tuple.get(chatRoom.id), memberIds);
+        }
+
+        return result;
+    }
+
+    /**
+     * 회원이 참여 중인 채팅방 ID 목록을 조회하는 메서드이다.
+     * @param memberId 회원 ID
+     * @return 채팅방 ID 목록
+     */
+    @Override
+    public List<Long> findIdsByMemberId(Long memberId) {
+        return queryFactory.select(chatRoom.id)
+                .from(chatRoom)
+                .where(chatRoom.sender.id.eq(memberId).or(chatRoom.receiver.id.eq(memberId)))
+                .fetch();
+    }
+
+    /**
+     * 회원이 채팅방에서 마지막으로 읽은 메시지 ID를 갱신하는 메서드이다. 기존 값보다 작은 ID로는 갱신하지 않는다.
+     * @param chatRoomId 채팅방 ID
+     * @param memberId 메시지를 읽은 회원 ID
+     * @param messageId 마지막으로 읽은 메시지 ID
+     * @return 갱신된 행의 수
+     */
+    @Override
+    public long updateLastReadMessageId(Long chatRoomId, Long memberId, Long messageId) {
+        return queryFactory.update(chatRoom)
+                .set(chatRoom.senderLastReadMessageId, new CaseBuilder()
+                        .when(chatRoom.sender.id.eq(memberId).and(chatRoom.senderLastReadMessageId.isNull().or(chatRoom.senderLastReadMessageId.lt(messageId))))
+                        .then(messageId)
+                        .otherwise(chatRoom.senderLastReadMessageId))
+                .set(chatRoom.receiverLastReadMessageId, new CaseBuilder()
+                        .when(chatRoom.receiver.id.eq(memberId).and(chatRoom.receiverLastReadMessageId.isNull().or(chatRoom.receiverLastReadMessageId.lt(messageId))))
+                        .then(messageId)
+                        .otherwise(chatRoom.receiverLastReadMessageId))
+                .where(chatRoom.id.eq(chatRoomId))
+                .execute();
+    }
+
+    /**
+     * 만료되었지만 chat_message 테이블에 메시지가 남아 있는 채팅방 ID를 조회하는 메서드이다.
+     * 보관된 뒤에 저장된 메시지가 있는 채팅방도 포함된다.
+     * @param dateTime 기준 시간 (이 시간 이전에 만료된 채팅방이 대상)
+     * @param limit 조회할 최대 채팅방 수
+     * @return 채팅방 ID 오름차순으로 정렬된 채팅방 ID 목록
+     */
+    @Override
+    public List<Long> findArchivableIds(LocalDateTime dateTime, int limit) {
+        return queryFactory.select(chatRoom.id)
+                .from(chatRoom)
+                .where(chatRoom.expiredAt.lt(dateTime),
+                        JPAExpressions.selectOne()
+                                .from(chatMessage)
+                                .where(chatMessage.chatRoom.id.eq(chatRoom.id))
+                                .exists())
+                .orderBy(chatRoom.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 채팅방의 메시지가 보관된 시간을 저장하는 메서드이다. 이미 보관된 채팅방은 갱신하지 않는다.
+     * @param chatRoomId 채팅방 ID
+     * @param archivedAt 보관된 시간
+     * @return 갱신된 행의 수
+     */
+    @Override
+    public long updateArchivedAt(Long chatRoomId, LocalDateTime archivedAt) {
+        return queryFactory.update(chatRoom)
+                .set(chatRoom.archivedAt, archivedAt)
+                .where(chatRoom.id.eq(chatRoomId), chatRoom.archivedAt.isNull())
+                .execute();
+    }
+
+    /**
+     * 채팅방에 마지막으로 저장된 메시지의 순번을 조회하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @return 마지막 순번 (저장된 메시지가 없거나 존재하지 않는 채팅방이면 0)
+     */
+    @Override
+    public long findLastSeqById(Long chatRoomId) {
+        Long lastSeq = queryFactory.select(chatRoom.lastSeq)
+                .from(chatRoom)
+                .where(chatRoom.id.eq(chatRoomId))
+                .fetchOne();
+        return (lastSeq != null) ? lastSeq : 0L;
+    }
+}
@@ -5,17 +5,36 @@ import com.iglooclub.nungil.domain.OauthInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface MemberRepository extends JpaRepository<Member, Long> {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
     Optional<Member> findByOauthInfo(OauthInfo oauthInfo);
 
     Optional<Member> findByEmail(String email);
 
     Optional<Member> findByPhoneNumber(String phoneNumber);
 
-    @Modifying
-    @Query("update Member a set a.drawCount =0 where a.drawCount > 0")
-    void initDrawCount();
+    /**
+     * 주어진 회원 ID 중 존재하는 회원의 ID만 조회한다.
+     */
+    @Query("select a.id from Member a where a.id in :memberIds")
+    List<Long> findExistingIds(@Param("memberIds") Collection<Long> memberIds);
+
+    /**
+     * 오늘의 뽑기 횟수를 원자적으로 1 증가시킨다. 마지막으로 뽑은 날짜가 오늘이 아니면 1부터 다시 센다.
+     * 오늘 이미 limit번 뽑았다면 갱신되지 않는다.
+     * 영속성 컨텍스트의 회원 엔티티가 이전 횟수를 유지하지 않도록, 실행 전에 플러시하고 실행 후에 영속성 컨텍스트를 비운다.
+     * @return 갱신된 행의 수 (0이면 한도 초과)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Member a set " +
+            "a.drawCount = case when a.drawCountDate = :today then a.drawCount + 1L else 1L end, " +
+            "a.drawCountDate = :today " +
+            "where a.id = :memberId and (a.drawCountDate is null or a.drawCountDate <> :today or a.drawCount < :limit)")
+    int increaseDrawCount(@Param("memberId") Long memberId, @Param("today") LocalDate today, @Param("limit") Long limit);
 }
@@ -0,0 +1,10 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.CompatibilityProfile;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface MemberRepositoryCustom {
+    Map<Long, CompatibilityProfile> findCompatibilityProfiles(Collection<Long> memberIds);
+}
@@ -0,0 +1,66 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.*;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.dsl.EnumPath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class MemberRepositoryImpl implements MemberRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    private static final int AVAILABLE_TIME = 0;
+    private static final int MARKER = 1;
+    private static final int HOBBY = 2;
+    private static final int FACE_DEPICTION = 3;
+    private static final int PERSONALITY_DEPICTION = 4;
+
+    /**
+     * 여러 회원의 CompatibilityProfile을 할당 테이블별 한 번의 쿼리로 조회하는 메서드이다.
+     * 회원 엔티티의 지연 로딩 컬렉션을 초기화하지 않으므로, 회원 수와 무관하게 다섯 번의 쿼리만 실행된다.
+     * @param memberIds 조회할 회원 ID 목록
+     * @return 회원 ID별 CompatibilityProfile (할당 정보가 하나도 없는 회원은 포함되지 않는다)
+     */
+    @Override
+    public Map<Long, CompatibilityProfile> findCompatibilityProfiles(Collection<Long> memberIds) {
+        Map<Long, long[]> masks = new HashMap<>();
+
+        QAvailableTimeAllocation availableTime = QAvailableTimeAllocation.availableTimeAllocation;
+        accumulate(masks, AVAILABLE_TIME, availableTime, availableTime.member.id, availableTime.availableTime, memberIds);
+
+        QMarkerAllocation marker = QMarkerAllocation.markerAllocation;
+        accumulate(masks, MARKER, marker, marker.member.id, marker.marker, memberIds);
+
+        QHobbyAllocation hobby = QHobbyAllocation.hobbyAllocation;
+        accumulate(masks, HOBBY, hobby, hobby.member.id, hobby.hobby, memberIds);
+
+        QFaceDepictionAllocation faceDepiction = QFaceDepictionAllocation.faceDepictionAllocation;
+        accumulate(masks, FACE_DEPICTION, faceDepiction, faceDepiction.member.id, faceDepiction.faceDepiction, memberIds);
+
+        QPersonalityDepictionAllocation personalityDepiction = QPersonalityDepictionAllocation.personalityDepictionAllocation;
+        accumulate(masks, PERSONALITY_DEPICTION, personalityDepiction, personalityDepiction.member.id, personalityDepiction.personalityDepiction, memberIds);
+
+        Map<Long, CompatibilityProfile> profiles = new HashMap<>(masks.size() * 2);
+        masks.forEach((memberId, mask) -> profiles.put(memberId, CompatibilityProfile.of(
+                mask[AVAILABLE_TIME], mask[MARKER], mask[HOBBY], mask[FACE_DEPICTION], mask[PERSONALITY_DEPICTION])));
+        return profiles;
+    }
+
+    private <E extends Enum<E>> void accumulate(Map<Long, long[]> masks, int slot, EntityPath<?> allocation,
+                                                NumberPath<Long> memberId, EnumPath<E> value, Collection<Long> memberIds) {
+        for (Tuple tuple : queryFactory.select(memberId, value)
+                .from(allocation)
+                .where(memberId.in(memberIds))
+                .fetch()) {
+            masks.computeIfAbsent(tuple.get(memberId), id -> new long[5])[slot] |= CompatibilityProfile.bit(tuple.get(value));
+        }
+    }
+}
@@ -14,12 +14,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface NungilRepository extends JpaRepository<Nungil, Long> {
+public interface NungilRepository extends JpaRepository<Nungil, Long>, NungilRepositoryCustom {
     Slice<Nungil> findAllByStatus(PageRequest request, NungilStatus status);
     Slice<Nungil> findAllByMemberAndStatus(PageRequest request, Member member, NungilStatus status);
     Optional<Nungil> findById(Long nungilId);
     Optional<Nungil> findFirstByMemberAndReceiver(Member member, Member receiver);
     List<Nungil> findAllByMemberAndReceiverAndStatus(Member member,Member receiver,NungilStatus status);
+    boolean existsByMemberAndStatusAndCreatedAtAfter(Member member, NungilStatus status, LocalDateTime dateTime);
+
+    @Query("select n.receiver.id from Nungil n where n.member = :member and n.status = :status")
+    List<Long> findReceiverIdsByMemberAndStatus(@Param("member") Member member, @Param("status") NungilStatus status);
 
     @Modifying
     @Query("delete from Nungil n where n.status = :status")
@@ -0,0 +1,26 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.enums.NungilStatus;
+import com.iglooclub.nungil.dto.NungilCursor;
+import com.iglooclub.nungil.dto.NungilSliceResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface NungilRepositoryCustom {
+    Slice<NungilSliceResponse> findRecommendedSlice(Member member, Pageable pageable);
+
+    List<NungilSliceResponse> findRecommendedAfter(Member member, NungilCursor cursor, int limit);
+
+    List<NungilSliceResponse> findByMemberAndStatusAfter(Member member, NungilStatus status, NungilCursor cursor, int limit);
+
+    Set<Long> findMemberIdsByStatusSince(Collection<Long> memberIds, NungilStatus status, LocalDateTime dateTime);
+
+    Map<Long, Set<Long>> findReceiverIdsByMemberIds(Collection<Long> memberIds, NungilStatus status);
+}
@@ -0,0 +1,177 @@
+package com.iglooclub.nungil.repository;
+
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.QAcquaintance;
+import com.iglooclub.nungil.domain.QMember;
+import com.iglooclub.nungil.domain.QNungil;
+import com.iglooclub.nungil.domain.enums.NungilStatus;
+import com.iglooclub.nungil.dto.NungilCursor;
+import com.iglooclub.nungil.dto.NungilSliceResponse;
+import com.iglooclub.nungil.dto.QNungilSliceResponse;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class NungilRepositoryImpl implements NungilRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    private static final QNungil nungil = QNungil.nungil;
+
+    private static final QMember receiver = new QMember("receiver");
+
+    private static final QAcquaintance acquaintance = QAcquaintance.acquaintance;
+
+    /**
+     * 추천 눈길 목록을 한 번의 쿼리로 조회하는 메서드이다.
+     * 회원이면 자신에게 추천된 눈길만, 비회원이면 전체 추천 눈길을 조회한다.
+     * 자기 자신과 지인 관계인 회원의 눈길은 NOT EXISTS 조건으로 데이터베이스에서 제외하므로, 항상 요청한 크기만큼 조회된다.
+     * @param member 조회를 요청한 회원 (비회원이면 null)
+     * @param pageable 페이지 정보
+     * @return Slice 형식의 추천 눈길 목록
+     */
+    @Override
+    public Slice<NungilSliceResponse> findRecommendedSlice(Member member, Pageable pageable) {
+        // 다음 페이지 존재 여부를 확인하기 위해 하나 더 조회
+        List<NungilSliceResponse> content = selectSliceResponse()
+                .where(recommendedCondition(member))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(content.size() - 1);
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 주어진 커서 이후의 추천 눈길 목록을 키셋 방식으로 조회하는 메서드이다.
+     * @param member 조회를 요청한 회원 (비회원이면 null)
+     * @param cursor 마지막으로 조회한 눈길의 위치 (첫 페이지이면 null)
+     * @param limit 조회할 최대 개수
+     * @return 최근순으로 정렬된 추천 눈길 목록
+     */
+    @Override
+    public List<NungilSliceResponse> findRecommendedAfter(Member member, NungilCursor cursor, int limit) {
+        return selectSliceResponse()
+                .where(recommendedCondition(member), cursorCondition(cursor))
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 주어진 커서 이후의 회원의 눈길 목록을 (member_id, status, created_at, id) 인덱스를 타는 키셋 방식으로 조회하는 메서드이다.
+     * @param member 조회를 요청한 회원
+     * @param status 조회할 눈길 상태
+     * @param cursor 마지막으로 조회한 눈길의 위치 (첫 페이지이면 null)
+     * @param limit 조회할 최대 개수
+     * @return 최근순으로 정렬된 눈길 목록
+     */
+    @Override
+    public List<NungilSliceResponse> findByMemberAndStatusAfter(Member member, NungilStatus status, NungilCursor cursor, int limit) {
+        return selectSliceResponse()
+                .where(nungil.member.eq(member),
+                        nungil.status.eq(status),
+                        cursorCondition(cursor))
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 주어진 회원들 중 특정 시각 이후에 주어진 상태의 눈길을 받은 회원 ID를 조회하는 메서드이다.
+     * @param memberIds 확인할 회원 ID 목록
+     * @param status 눈길 상태
+     * @param dateTime 기준 시각
+     * @return 해당하는 회원 ID 집합
+     */
+    @Override
+    public Set<Long> findMemberIdsByStatusSince(Collection<Long> memberIds, NungilStatus status, LocalDateTime dateTime) {
+        return new HashSet<>(queryFactory
+                .select(nungil.member.id)
+                .distinct()
+                .from(nungil)
+                .where(nungil.member.id.in(memberIds),
+                        nungil.status.eq(status),
+                        nungil.createdAt.goe(dateTime))
+                .fetch());
+    }
+
+    /**
+     * 여러 회원의 주어진 상태의 눈길 상대 회원 ID를 한 번의 쿼리로 조회하는 메서드이다.
+     * @param memberIds 조회할 회원 ID 목록
+     * @param status 눈길 상태
+     * @return 회원 ID별 상대 회원 ID 집합
+     */
+    @Override
+    public Map<Long, Set<Long>> findReceiverIdsByMemberIds(Collection<Long> memberIds, NungilStatus status) {
+        Map<Long, Set<Long>> result = new HashMap<>();
+
+        for (Tuple tuple : queryFactory.select(nungil.member.id, nungil.receiver.id)
+                .from(nungil)
+                .where(nungil.member.id.in(memberIds),
+                        nungil.status.eq(status))
+                .fetch()) {
+            result.computeIfAbsent(tuple.get(nungil.member.id), id -> new HashSet<>())
+                    .add(tuple.get(nungil.receiver.id));
+        }
+
+        return result;
+    }
+
+    private JPAQuery<NungilSliceResponse> selectSliceResponse() {
+        return queryFactory
+                .select(new QNungilSliceResponse(
+                        nungil.id,
+                        receiver.animalFace,
+                        receiver.job,
+                        receiver.description,
+                        nungil.createdAt,
+                        nungil.expiredAt,
+                        receiver.nickname,
+                        receiver.sex))
+                .from(nungil)
+                .join(nungil.receiver, receiver)
+                .orderBy(nungil.createdAt.desc(), nungil.id.desc());
+    }
+
+    private Predicate recommendedCondition(Member member) {
+        BooleanBuilder condition = new BooleanBuilder(nungil.status.eq(NungilStatus.RECOMMENDED));
+
+        // 회원에게는 자신에게 추천된 눈길만 보여준다.
+        if (member != null) {
+            condition.and(nungil.member.eq(member));
+            condition.and(receiver.ne(member));
+            condition.and(JPAExpressions.selectOne()
+                    .from(acquaintance)
+                    .where(acquaintance.member.eq(member),
+                            acquaintance.acquaintanceMember.eq(receiver))
+                    .notExists());
+        }
+
+        return condition;
+    }
+
+    // (createdAt, id) < (cursor.createdAt, cursor.id)
+    private Predicate cursorCondition(NungilCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        return nungil.createdAt.lt(cursor.getCreatedAt())
+                .or(nungil.createdAt.eq(cursor.getCreatedAt()).and(nungil.id.lt(cursor.getId())));
+    }
+}
@@ -0,0 +1,394 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.repository.ChatRoomRepository;
+import com.iglooclub.nungil.util.StringRedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 만료된 채팅방의 메시지를 압축된 블록으로 옮기는 보관 서비스이다.
+ *
+ * 채팅방마다 기존에 보관된 메시지와 테이블에 남은 메시지를 합쳐 새 블록을 만들고,
+ * 블록을 chat_archive 테이블에 저장하면서 채팅방을 보관됨으로 표시한 뒤 chat_message 테이블의 메시지를 작은 청크 단위로 삭제한다.
+ * 블록이 커밋된 뒤에만 메시지를 삭제하므로, 어느 서버가 보관했는지와 관계없이 모든 서버가 보관된 메시지를 조회할 수 있다.
+ * 청크마다 따로 커밋하므로 삭제가 다른 쓰기를 오래 막지 않으며, 중간에 중단되더라도 다음 실행에서 남은 메시지부터 이어서 처리된다.
+ *
+ * 보관 작업은 Redis 잠금(SET NX)을 잡은 한 서버에서만 실행된다.
+ * 블록은 서버별 로컬 사본(ChatArchiveStore)과 압축을 푼 메시지 캐시에도 보관되며,
+ * 조회할 때 chat_archive 테이블의 마지막 메시지 ID와 비교하여 다른 서버가 다시 보관한 채팅방은 테이블에서 다시 읽는다.
+ */
+@Slf4j
+@Service
+public class ChatArchiveService {
+
+    private static final String SELECT_SQL = "select id, member_id, content, created_at, seq from chat_message where chatroom_id = ? order by id";
+
+    private static final String DELETE_SQL = "delete from chat_message where chatroom_id = ? and id <= ? order by id limit ?";
+
+    private static final String UPSERT_ARCHIVE_SQL = "insert into chat_archive (chatroom_id, last_message_id, block, archived_at) values (?, ?, ?, ?) " +
+            "on duplicate key update last_message_id = values(last_message_id), block = values(block), archived_at = values(archived_at)";
+
+    private static final String INSERT_ARCHIVE_IF_ABSENT_SQL = "insert ignore into chat_archive (chatroom_id, last_message_id, block, archived_at) values (?, ?, ?, ?)";
+
+    private static final String SELECT_LAST_MESSAGE_ID_SQL = "select last_message_id from chat_archive where chatroom_id = ?";
+
+    private static final String SELECT_BLOCK_SQL = "select block from chat_archive where chatroom_id = ?";
+
+    private static final String LOCK_KEY = "chat:archive:lock";
+
+    private final ChatRoomRepository chatRoomRepository;
+
+    private final ChatArchiveStore chatArchiveStore;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final StringRedisUtil redisUtil;
+
+    private final int roomBatchSize;
+
+    private final int deleteChunkSize;
+
+    private final Duration lockTtl;
+
+    private final DecodedCache decodedCache;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter archivedRoomCounter;
+    private final Counter archivedMessageCounter;
+    private final Counter failedRoomCounter;
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
+    private final Timer archiveTimer;
+
+    public ChatArchiveService(ChatRoomRepository chatRoomRepository,
+                              ChatArchiveStore chatArchiveStore,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              StringRedisUtil redisUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.archive.room-batch-size:100}") int roomBatchSize,
+                              @Value("${chat.archive.delete-chunk-size:500}") int deleteChunkSize,
+                              @Value("${chat.archive.lock-ttl-millis:3600000}") long lockTtlMillis,
+                              @Value("${chat.archive.cache.max-bytes:33554432}") long cacheMaxBytes) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatArchiveStore = chatArchiveStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisUtil = redisUtil;
+        this.roomBatchSize = roomBatchSize;
+        this.deleteChunkSize = deleteChunkSize;
+        this.lockTtl = Duration.ofMillis(lockTtlMillis);
+        this.decodedCache = new DecodedCache(cacheMaxBytes);
+
+        this.archivedRoomCounter = meterRegistry.counter("chat.archive.rooms");
+        this.archivedMessageCounter = meterRegistry.counter("chat.archive.messages");
+        this.failedRoomCounter = meterRegistry.counter("chat.archive.rooms.failed");
+        this.cacheHitCounter = meterRegistry.counter("chat.archive.cache.requests", "result", "hit");
+        this.cacheMissCounter = meterRegistry.counter("chat.archive.cache.requests", "result", "miss");
+        this.archiveTimer = meterRegistry.timer("chat.archive.duration");
+        meterRegistry.gauge("chat.archive.cache.bytes", decodedCache, DecodedCache::bytes);
+    }
+
+    /**
+     * 매일 새벽에 만료된 채팅방의 메시지를 보관
+     * 모든 서버에서 실행되지만, Redis 잠금을 잡은 한 서버만 보관한다. 잠금은 lock-ttl이 지나면 풀린다.
+     */
+    @Scheduled(cron = "${chat.archive.cron:0 30 4 * * *}")
+    public void archiveExpiredRooms() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Chat archive job is already running");
+            return;
+        }
+
+        String lockToken = UUID.randomUUID().toString();
+        try {
+            if (!redisUtil.setIfAbsent(LOCK_KEY, lockToken, lockTtl)) {
+                log.info("Chat archive job is running on another server");
+                return;
+            }
+
+            try {
+                archiveTimer.record(this::archiveRooms);
+            } finally {
+                redisUtil.deleteIfEquals(LOCK_KEY, lockToken);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void archiveRooms() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> failedIds = new HashSet<>();
+
+        List<Long> chatRoomIds;
+        do {
+            chatRoomIds = chatRoomRepository.findArchivableIds(now, roomBatchSize + failedIds.size());
+            chatRoomIds.removeAll(failedIds);
+
+            for (Long chatRoomId : chatRoomIds) {
+                try {
+                    archiveRoom(chatRoomId, now);
+                } catch (Exception e) {
+                    failedIds.add(chatRoomId);
+                    failedRoomCounter.increment();
+                    log.error("Failed to archive chat room {}", chatRoomId, e);
+                }
+            }
+        } while (!chatRoomIds.isEmpty());
+    }
+
+    /**
+     * 채팅방 하나의 메시지를 보관하고 테이블에서 삭제하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param archivedAt 보관 시간
+     */
+    public void archiveRoom(Long chatRoomId, LocalDateTime archivedAt) {
+        List<ChatDTO> liveMessages = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return new ChatDTO(rs.getLong("id"),
+                    chatRoomId,
+                    null,
+                    rs.getString("content"),
+                    (createdAt != null) ? createdAt.toLocalDateTime() : null,
+                    rs.getLong("member_id"),
+                    rs.getObject("seq", Long.class),
+                    null);
+        }, chatRoomId);
+        if (liveMessages.isEmpty()) {
+            return;
+        }
+
+        // 이전에 보관된 뒤 저장된 메시지가 있으면 기존 블록과 합친다.
+        TreeMap<Long, ChatDTO> merged = new TreeMap<>();
+        loadArchivedMessages(chatRoomId, findArchivedLastMessageId(chatRoomId)).getMessages()
+                .forEach(message -> merged.put(message.getMessageId(), message));
+        liveMessages.forEach(message -> merged.put(message.getMessageId(), message));
+
+        long lastMessageId = merged.lastKey();
+        byte[] block = ChatArchiveStore.encodeBlock(chatRoomId, new ArrayList<>(merged.values()));
+
+        // 메시지를 삭제하기 전에 블록을 먼저 커밋한다.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(UPSERT_ARCHIVE_SQL, chatRoomId, lastMessageId, block, Timestamp.valueOf(archivedAt));
+            chatRoomRepository.updateArchivedAt(chatRoomId, archivedAt);
+        });
+        writeLocalCopy(chatRoomId, block);
+        decodedCache.remove(chatRoomId);
+
+        // 보관된 메시지만 청크 단위로 삭제한다. 보관 도중 저장된 메시지는 다음 실행에서 보관된다.
+        int deleted;
+        do {
+            deleted = Objects.requireNonNull(transactionTemplate.execute(status ->
+                    jdbcTemplate.update(DELETE_SQL, chatRoomId, lastMessageId, deleteChunkSize)));
+        } while (deleted >= deleteChunkSize);
+
+        archivedRoomCounter.increment();
+        archivedMessageCounter.increment(liveMessages.size());
+    }
+
+    /**
+     * 보관된 채팅방의 메시지를 조회하는 메서드이다.
+     * 압축을 푼 메시지는 캐시에 보관되며, chat_archive 테이블의 마지막 메시지 ID가 바뀌지 않았으면 캐시에서 반환한다.
+     * @param chatRoomId 채팅방 ID
+     * @return 보관된 메시지 (보관된 메시지가 없으면 빈 값)
+     */
+    public ArchivedMessages findArchivedMessages(Long chatRoomId) {
+        Long lastMessageId = findArchivedLastMessageId(chatRoomId);
+
+        ArchivedMessages cached = decodedCache.get(chatRoomId, lastMessageId);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return cached;
+        }
+
+        cacheMissCounter.increment();
+        ArchivedMessages loaded = loadArchivedMessages(chatRoomId, lastMessageId);
+        if (!loaded.getMessages().isEmpty()) {
+            decodedCache.put(chatRoomId, loaded);
+        }
+        return loaded;
+    }
+
+    private Long findArchivedLastMessageId(Long chatRoomId) {
+        List<Long> lastMessageIds = jdbcTemplate.queryForList(SELECT_LAST_MESSAGE_ID_SQL, Long.class, chatRoomId);
+        return lastMessageIds.isEmpty() ? null : lastMessageIds.get(0);
+    }
+
+    /**
+     * 보관된 메시지를 로컬 사본에서 읽고, 사본이 없거나 오래되었으면 chat_archive 테이블에서 읽는 메서드이다.
+     * @param lastMessageId chat_archive 테이블에 저장된 마지막 메시지 ID (행이 없으면 null)
+     */
+    private ArchivedMessages loadArchivedMessages(Long chatRoomId, Long lastMessageId) {
+        if (lastMessageId == null) {
+            return migrateLocalCopy(chatRoomId);
+        }
+
+        List<ChatDTO> messages = readLocalCopy(chatRoomId)
+                .filter(local -> !local.isEmpty() && lastMessageId.equals(local.get(local.size() - 1).getMessageId()))
+                .orElse(null);
+
+        if (messages == null) {
+            byte[] block = jdbcTemplate.queryForObject(SELECT_BLOCK_SQL, byte[].class, chatRoomId);
+            messages = ChatArchiveStore.decodeBlock(chatRoomId, ByteBuffer.wrap(Objects.requireNonNull(block)));
+            writeLocalCopy(chatRoomId, block);
+        }
+
+        return ArchivedMessages.of(messages);
+    }
+
+    /**
+     * chat_archive 테이블이 생기기 전에 보관되어 이 서버의 로컬 사본에만 있는 블록을 테이블로 옮기는 메서드이다.
+     */
+    private ArchivedMessages migrateLocalCopy(Long chatRoomId) {
+        List<ChatDTO> messages = readLocalCopy(chatRoomId).orElse(Collections.emptyList());
+        if (messages.isEmpty()) {
+            return ArchivedMessages.EMPTY;
+        }
+
+        Long lastMessageId = messages.get(messages.size() - 1).getMessageId();
+        jdbcTemplate.update(INSERT_ARCHIVE_IF_ABSENT_SQL, chatRoomId, lastMessageId, ChatArchiveStore.encodeBlock(chatRoomId, messages), null);
+        log.info("Copied the local chat archive of room {} to the chat_archive table", chatRoomId);
+
+        return ArchivedMessages.of(messages);
+    }
+
+    // 로컬 사본은 테이블의 사본일 뿐이므로, 읽거나 쓰지 못하면 테이블을 사용한다.
+    private Optional<List<ChatDTO>> readLocalCopy(Long chatRoomId) {
+        try {
+            return chatArchiveStore.read(chatRoomId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read the local chat archive of room {}", chatRoomId, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeLocalCopy(Long chatRoomId, byte[] block) {
+        try {
+            chatArchiveStore.write(chatRoomId, block);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write the local chat archive of room {}", chatRoomId, e);
+        }
+    }
+
+    /**
+     * 압축을 푼 보관 메시지이다. 변경되지 않으므로 여러 요청이 함께 사용한다.
+     */
+    @Getter
+    public static class ArchivedMessages {
+
+        public static final ArchivedMessages EMPTY = new ArchivedMessages(Collections.emptyList(), Collections.emptyList(), 0L);
+
+        // 메시지 ID 오름차순으로 정렬된 메시지 목록
+        private final List<ChatDTO> messages;
+
+        // 순번이 있는 메시지를 순번 오름차순으로 정렬한 목록
+        private final List<ChatDTO> messagesBySeq;
+
+        // 메시지와 목록의 추정 크기
+        private final long bytes;
+
+        private ArchivedMessages(List<ChatDTO> messages, List<ChatDTO> messagesBySeq, long bytes) {
+            this.messages = messages;
+            this.messagesBySeq = messagesBySeq;
+            this.bytes = bytes;
+        }
+
+        static ArchivedMessages of(List<ChatDTO> messages) {
+            List<ChatDTO> messagesBySeq = messages.stream()
+                    .filter(message -> message.getSeq() != null)
+                    .sorted(Comparator.comparing(ChatDTO::getSeq))
+                    .collect(Collectors.toList());
+
+            long bytes = 16L * (messages.size() + messagesBySeq.size());
+            for (ChatDTO message : messages) {
+                bytes += ChatMessageTailCache.estimateBytes(message);
+            }
+
+            return new ArchivedMessages(Collections.unmodifiableList(messages), Collections.unmodifiableList(messagesBySeq), bytes);
+        }
+
+        /**
+         * 보관된 마지막 메시지 ID를 반환한다. (보관된 메시지가 없으면 0)
+         */
+        public long getLastMessageId() {
+            return messages.isEmpty() ? 0L : messages.get(messages.size() - 1).getMessageId();
+        }
+
+        /**
+         * 보관된 메시지 중 가장 큰 순번을 반환한다. (순번이 있는 메시지가 없으면 0)
+         */
+        public long getLastSeq() {
+            return messagesBySeq.isEmpty() ? 0L : messagesBySeq.get(messagesBySeq.size() - 1).getSeq();
+        }
+    }
+
+    /**
+     * 채팅방 ID -> 압축을 푼 보관 메시지 캐시이다. 추정 크기가 상한을 넘으면 가장 오래 사용되지 않은 채팅방부터 제거한다.
+     * 보관된 채팅방은 자주 조회되지 않으므로 하나의 잠금을 사용하며, 압축 해제는 잠금 밖에서 한다.
+     */
+    private static class DecodedCache {
+
+        private final long maxBytes;
+
+        private final LinkedHashMap<Long, ArchivedMessages> rooms = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long bytes = 0;
+
+        DecodedCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized ArchivedMessages get(Long chatRoomId, Long lastMessageId) {
+            ArchivedMessages cached = rooms.get(chatRoomId);
+            return (cached != null && lastMessageId != null && cached.getLastMessageId() == lastMessageId) ? cached : null;
+        }
+
+        synchronized void put(Long chatRoomId, ArchivedMessages archived) {
+            if (archived.getBytes() > maxBytes) {
+                return;
+            }
+
+            ArchivedMessages previous = rooms.put(chatRoomId, archived);
+            bytes += archived.getBytes() - ((previous != null) ? previous.getBytes() : 0L);
+
+            Iterator<ArchivedMessages> iterator = rooms.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().getBytes();
+                iterator.remove();
+            }
+        }
+
+        synchronized void remove(Long chatRoomId) {
+            ArchivedMessages removed = rooms.remove(chatRoomId);
+            if (removed != null) {
+                bytes -= removed.getBytes();
+            }
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
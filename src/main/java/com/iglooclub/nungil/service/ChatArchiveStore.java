@@ -0,0 +1,468 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 보관된 채팅방의 메시지 블록을 서버의 로컬 디스크에 두는 추가 전용(append-only) 세그먼트 파일 저장소이다.
+ * 보관된 메시지의 원본은 chat_archive 테이블에 있으며, 이 저장소는 테이블에서 블록을 다시 읽지 않도록 하는 서버별 사본이다.
+ * 디스크를 잃어도 다음 조회 때 테이블에서 다시 채워진다.
+ *
+ * 채팅방 하나의 메시지는 압축된 블록 하나로 세그먼트 데이터 파일(segment-N.dat) 끝에 기록되고,
+ * 블록 위치는 세그먼트 인덱스 파일(segment-N.idx)에 채팅방마다 한 항목씩 기록된다.
+ * 같은 채팅방의 블록이 다시 기록되면 나중에 기록된 블록이 사용된다. 이미 기록된 블록과 같은 블록은 다시 기록하지 않는다.
+ * 인덱스는 시작 시 메모리로 읽어 들인다. 기록이 끝난 세그먼트는 한 번만 메모리 매핑하여 읽고,
+ * 기록 중인 세그먼트는 파일이 계속 커지므로 매핑하지 않고 파일에서 블록만 읽는다.
+ *
+ * 블록을 기록하고 fsync한 뒤에 인덱스 항목을 기록하므로, 기록 도중 중단되면 인덱스에 없는 블록은 무시된다.
+ * 기록이 끝난 세그먼트에서 사용되는 블록의 비율이 compaction-ratio보다 낮아지면,
+ * 사용되는 블록만 기록 중인 세그먼트로 옮기고 그 세그먼트를 삭제한다(compaction).
+ */
+@Slf4j
+@Component
+public class ChatArchiveStore {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String DATA_SUFFIX = ".dat";
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    // 채팅방 ID, 메시지 수, 원본 길이, 압축 길이, CRC
+    private static final int BLOCK_HEADER_SIZE = Long.BYTES + Integer.BYTES * 4;
+
+    // 채팅방 ID, 블록 위치, 블록 길이
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final double compactionRatio;
+
+    // 채팅방 ID -> 가장 최근에 기록된 블록 위치
+    private final Map<Long, BlockLocation> index = new ConcurrentHashMap<>();
+
+    // 기록이 끝난 세그먼트 번호 -> 읽기 전용 매핑
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    // 세그먼트 번호 -> 인덱스가 가리키는 블록의 크기 합 (저장소의 잠금을 잡은 상태에서만 접근한다)
+    private final Map<Integer, Long> liveBytes = new HashMap<>();
+
+    private int activeSegment;
+
+    private FileChannel activeData;
+
+    private FileChannel activeIndex;
+
+    public ChatArchiveStore(@Value("${chat.archive.directory:chat-archive}") String directory,
+                            @Value("${chat.archive.segment-size:67108864}") long segmentSize,
+                            @Value("${chat.archive.compaction-ratio:0.5}") double compactionRatio) {
+        this.directory = Paths.get(directory);
+        // 세그먼트는 하나의 MappedByteBuffer로 매핑되므로 2GB를 넘을 수 없다.
+        this.segmentSize = Math.min(segmentSize, Integer.MAX_VALUE);
+        this.compactionRatio = compactionRatio;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+
+        List<Integer> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(INDEX_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - INDEX_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        for (Integer segment : segments) {
+            loadIndex(segment);
+            liveBytes.put(segment, 0L);
+        }
+        index.values().forEach(location -> liveBytes.merge(location.segment, (long) location.length, Long::sum));
+
+        activeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        openActiveSegment();
+        log.info("Chat archive opened with {} segments and {} rooms", segments.size(), index.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        activeData.close();
+        activeIndex.close();
+    }
+
+    public boolean contains(Long chatRoomId) {
+        return index.containsKey(chatRoomId);
+    }
+
+    /**
+     * 채팅방의 메시지를 하나의 블록으로 기록하는 메서드이다. 기존 블록은 새 블록으로 대체된다.
+     * @param chatRoomId 채팅방 ID
+     * @param messages 메시지 ID 오름차순으로 정렬된 메시지 목록
+     */
+    public void append(Long chatRoomId, List<ChatDTO> messages) throws IOException {
+        write(chatRoomId, encodeBlock(chatRoomId, messages));
+    }
+
+    /**
+     * {@link #encodeBlock}으로 만든 블록을 기록하는 메서드이다. 기존 블록은 새 블록으로 대체된다.
+     * 기존 블록과 같은 블록이면 기록하지 않는다.
+     * @param chatRoomId 채팅방 ID
+     * @param block 블록
+     */
+    public synchronized void write(Long chatRoomId, byte[] block) throws IOException {
+        BlockLocation previous = index.get(chatRoomId);
+        if (previous != null && previous.length == block.length && readBlock(previous).equals(ByteBuffer.wrap(block))) {
+            return;
+        }
+
+        writeBlock(chatRoomId, block);
+    }
+
+    /**
+     * 사용되는 블록의 비율이 compaction-ratio보다 낮은, 기록이 끝난 세그먼트를 정리하는 메서드이다.
+     * 사용되는 블록은 기록 중인 세그먼트 끝에 다시 기록되고, 정리된 세그먼트의 파일은 삭제된다.
+     */
+    @Scheduled(fixedDelayString = "${chat.archive.compaction-interval-millis:600000}")
+    public synchronized void compact() throws IOException {
+        List<Integer> sealedSegments = liveBytes.keySet().stream()
+                .filter(segment -> segment != activeSegment)
+                .sorted()
+                .collect(Collectors.toList());
+
+        for (Integer segment : sealedSegments) {
+            long live = liveBytes.get(segment);
+            long size = Files.exists(dataPath(segment)) ? Files.size(dataPath(segment)) : 0;
+            if (live == 0 || live < size * compactionRatio) {
+                compactSegment(segment);
+            }
+        }
+    }
+
+    private void compactSegment(int segment) throws IOException {
+        List<Map.Entry<Long, BlockLocation>> liveBlocks = index.entrySet().stream()
+                .filter(entry -> entry.getValue().segment == segment)
+                .collect(Collectors.toList());
+
+        for (Map.Entry<Long, BlockLocation> entry : liveBlocks) {
+            byte[] block = new byte[entry.getValue().length];
+            readBlock(entry.getValue()).get(block);
+            writeBlock(entry.getKey(), block);
+        }
+
+        // 데이터 파일을 먼저 삭제한다. 그 사이에 중단되면 남은 인덱스 항목은 시작 시 무시되고, 다음 정리 때 삭제된다.
+        // 이미 매핑을 가져간 읽기는 파일이 삭제되어도 매핑에서 계속 읽을 수 있다.
+        liveBytes.remove(segment);
+        Files.deleteIfExists(dataPath(segment));
+        Files.deleteIfExists(indexPath(segment));
+        mappings.remove(segment);
+        log.info("Compacted chat archive segment {}, moved {} blocks", segment, liveBlocks.size());
+    }
+
+    private void writeBlock(Long chatRoomId, byte[] block) throws IOException {
+        int blockLength = block.length;
+        if (activeData.size() > 0 && activeData.size() + blockLength > segmentSize) {
+            roll();
+        }
+
+        long offset = activeData.size();
+        writeFully(activeData, ByteBuffer.wrap(block), offset);
+        activeData.force(false);
+
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE)
+                .putLong(chatRoomId)
+                .putLong(offset)
+                .putInt(blockLength);
+        writeFully(activeIndex, entry.flip(), activeIndex.size());
+        activeIndex.force(false);
+
+        BlockLocation previous = index.put(chatRoomId, new BlockLocation(activeSegment, offset, blockLength));
+        liveBytes.merge(activeSegment, (long) blockLength, Long::sum);
+        if (previous != null) {
+            liveBytes.computeIfPresent(previous.segment, (segment, live) -> live - previous.length);
+        }
+    }
+
+    /**
+     * 보관된 채팅방의 메시지를 읽는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @return 메시지 ID 오름차순으로 정렬된 메시지 목록 (보관되지 않은 채팅방이면 빈 값). 보낸 사람의 닉네임은 포함되지 않는다.
+     */
+    public Optional<List<ChatDTO>> read(Long chatRoomId) {
+        BlockLocation location = index.get(chatRoomId);
+        if (location == null) {
+            return Optional.empty();
+        }
+
+        ByteBuffer block;
+        try {
+            block = readBlock(location);
+        } catch (UncheckedIOException e) {
+            // 읽는 도중 세그먼트가 정리되었으면 옮겨진 블록을 읽는다.
+            BlockLocation moved = index.get(chatRoomId);
+            if (moved == null || moved == location) {
+                throw e;
+            }
+            block = readBlock(moved);
+        }
+        return Optional.of(decodeBlock(chatRoomId, block));
+    }
+
+    /**
+     * 채팅방의 메시지를 압축된 블록([채팅방 ID][메시지 수][원본 길이][압축 길이][CRC][압축된 메시지])으로 만드는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param messages 메시지 ID 오름차순으로 정렬된 메시지 목록
+     * @return 블록
+     */
+    public static byte[] encodeBlock(Long chatRoomId, List<ChatDTO> messages) {
+        byte[] raw = encode(messages);
+        byte[] compressed = deflate(raw);
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+
+        return ByteBuffer.allocate(BLOCK_HEADER_SIZE + compressed.length)
+                .putLong(chatRoomId)
+                .putInt(messages.size())
+                .putInt(raw.length)
+                .putInt(compressed.length)
+                .putInt((int) crc.getValue())
+                .put(compressed)
+                .array();
+    }
+
+    /**
+     * 블록을 메시지 목록으로 되돌리는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param block 현재 위치가 블록의 시작인 버퍼
+     * @return 메시지 ID 오름차순으로 정렬된 메시지 목록. 보낸 사람의 닉네임은 포함되지 않는다.
+     */
+    public static List<ChatDTO> decodeBlock(Long chatRoomId, ByteBuffer block) {
+        if (block.getLong() != chatRoomId) {
+            throw new IllegalStateException("Chat archive block does not belong to room " + chatRoomId);
+        }
+        int count = block.getInt();
+        int rawLength = block.getInt();
+        byte[] compressed = new byte[block.getInt()];
+        int checksum = block.getInt();
+        block.get(compressed);
+
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != checksum) {
+            throw new IllegalStateException("Corrupted chat archive block for room " + chatRoomId);
+        }
+
+        return decode(chatRoomId, ByteBuffer.wrap(inflate(compressed, rawLength)), count);
+    }
+
+    /**
+     * 블록을 읽는 메서드이다. 반환된 버퍼의 현재 위치는 블록의 시작이고, 남은 길이는 블록의 길이이다.
+     */
+    private ByteBuffer readBlock(BlockLocation location) {
+        synchronized (this) {
+            if (location.segment == activeSegment) {
+                ByteBuffer block = ByteBuffer.allocate(location.length);
+                try {
+                    readFully(activeData, block, location.offset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return block.flip();
+            }
+        }
+
+        ByteBuffer block = mapping(location.segment).duplicate();
+        block.limit((int) (location.offset + location.length));
+        block.position((int) location.offset);
+        return block;
+    }
+
+    // 기록이 끝난 세그먼트는 바뀌지 않으므로 한 번만 매핑한다.
+    private MappedByteBuffer mapping(int segment) {
+        return mappings.computeIfAbsent(segment, id -> {
+            try (FileChannel channel = FileChannel.open(dataPath(id), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void loadIndex(int segment) throws IOException {
+        long dataSize = Files.exists(dataPath(segment)) ? Files.size(dataPath(segment)) : 0;
+        ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexPath(segment)));
+
+        // 마지막 항목이 기록 도중 중단되었으면 완전한 항목까지만 읽는다.
+        while (entries.remaining() >= INDEX_ENTRY_SIZE) {
+            long chatRoomId = entries.getLong();
+            long offset = entries.getLong();
+            int length = entries.getInt();
+            if (offset + length <= dataSize) {
+                index.put(chatRoomId, new BlockLocation(segment, offset, length));
+            }
+        }
+    }
+
+    private void openActiveSegment() throws IOException {
+        activeData = FileChannel.open(dataPath(activeSegment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeIndex = FileChannel.open(indexPath(activeSegment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // 기록 도중 중단된 인덱스 항목은 잘라낸다.
+        activeIndex.truncate(activeIndex.size() - activeIndex.size() % INDEX_ENTRY_SIZE);
+    }
+
+    private void roll() throws IOException {
+        close();
+        activeSegment++;
+        openActiveSegment();
+        liveBytes.put(activeSegment, 0L);
+    }
+
+    private Path dataPath(int segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment + DATA_SUFFIX);
+    }
+
+    private Path indexPath(int segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment + INDEX_SUFFIX);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of chat archive segment");
+            }
+            position += read;
+        }
+    }
+
+    // 메시지 ID, 순번(없으면 -1), 보낸 회원 ID, 작성 시간(UTC 기준 초, 나노초), 내용 길이, 내용(UTF-8)
+    private static byte[] encode(List<ChatDTO> messages) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(messages.size() * 64);
+        for (ChatDTO message : messages) {
+            byte[] content = (message.getContent() != null) ? message.getContent().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            LocalDateTime createdAt = message.getCreatedAt();
+
+            ByteBuffer record = ByteBuffer.allocate(Long.BYTES * 4 + Integer.BYTES * 2 + content.length)
+                    .putLong(message.getMessageId())
+                    .putLong((message.getSeq() != null) ? message.getSeq() : -1)
+                    .putLong(message.getSenderId())
+                    .putLong((createdAt != null) ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0)
+                    .putInt((createdAt != null) ? createdAt.getNano() : -1)
+                    .putInt(content.length)
+                    .put(content);
+            out.write(record.array(), 0, record.capacity());
+        }
+        return out.toByteArray();
+    }
+
+    private static List<ChatDTO> decode(Long chatRoomId, ByteBuffer raw, int count) {
+        List<ChatDTO> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long messageId = raw.getLong();
+            long seq = raw.getLong();
+            long senderId = raw.getLong();
+            long epochSecond = raw.getLong();
+            int nano = raw.getInt();
+            byte[] content = new byte[raw.getInt()];
+            raw.get(content);
+
+            LocalDateTime createdAt = (nano >= 0) ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+            messages.add(new ChatDTO(messageId, chatRoomId, null, new String(content, StandardCharsets.UTF_8), createdAt, senderId,
+                    (seq >= 0) ? seq : null, null));
+        }
+        return messages;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IllegalStateException("Truncated chat archive block");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted chat archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static class BlockLocation {
+
+        private final int segment;
+
+        private final long offset;
+
+        private final int length;
+
+        BlockLocation(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.dto.ChatReadDTO;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 채팅 메시지와 채팅 상태 변경을 서버에 전파하는 인터페이스이다.
+ * chat.broker.mode 설정에 따라 현재 서버에만 반영하거나(simple), Redis를 거쳐 모든 서버에 반영한다(redis).
+ */
+public interface ChatBroadcaster {
+
+    /**
+     * 주어진 토픽의 구독자에게 메시지를 발행하는 메서드이다.
+     * @param destination 발행할 토픽 (예: /topic/{채팅방 ID})
+     * @param payload 발행할 메시지
+     */
+    void broadcast(String destination, Object payload);
+
+    /**
+     * 저장이 커밋된 메시지를 각 서버의 최근 메시지 캐시와 안 읽은 메시지 카운터에 반영하는 메서드이다.
+     * @param message 메시지 ID가 부여된 채팅 메시지
+     */
+    void messagePersisted(ChatDTO message);
+
+    /**
+     * 읽음 처리를 각 서버의 안 읽은 메시지 카운터에 반영하는 메서드이다.
+     * @param receipt 읽음 확인 정보
+     */
+    void messageRead(ChatReadDTO receipt);
+
+    /**
+     * 구간 동안 모인 입력 중 회원을 채팅방별로 /topic/{채팅방 ID}/typing에 발행하는 메서드이다. ChatTypingCoalescer가 구간마다 호출한다.
+     * @param window 구간 번호 (현재 시각을 구간 길이로 나눈 값)
+     * @param typingMembers 채팅방 ID -> 이번 구간 동안 현재 서버에서 입력 중이었던 회원 ID (비어 있을 수 있다)
+     * @return 현재 서버가 발행한 채팅방 수
+     */
+    int typing(long window, Map<Long, Set<Long>> typingMembers);
+}
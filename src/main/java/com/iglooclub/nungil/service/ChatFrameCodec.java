@@ -0,0 +1,238 @@
+package com.iglooclub.nungil.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.iglooclub.nungil.dto.ChatDTO;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 토픽으로 발행하는 메시지를 세션별 형식(JSON 또는 CBOR)으로 변환하는 클래스이다.
+ *
+ * 발행할 메시지는 {@link #encode}로 한 번만 직렬화되어 브로커로 전달되고,
+ * 클라이언트 송신 채널에서 세션이 협상한 형식의 바이트로 바뀐다. CBOR는 CBOR 세션이 있을 때 처음 한 번만 직렬화된다.
+ * 다른 서버로 전달할 때는 JSON만 보내므로, 받은 서버도 CBOR 세션에 보낼 때 처음 한 번만 JSON에서 CBOR로 변환한다.
+ *
+ * 클라이언트는 CONNECT 프레임의 accept 헤더에 application/cbor를 보내 CBOR를 요청할 수 있다. 기본 형식은 JSON이다.
+ * CBOR는 바이너리 프레임으로만 보낼 수 있으므로 SockJS가 아닌 WebSocket 세션(/ws)에서만 사용된다.
+ * CBOR 프레임의 content-type은 STOMP 바이너리 프레임으로 보내기 위해 application/octet-stream으로 설정된다.
+ *
+ * CBOR로 보내는 ChatDTO는 [messageId, chatRoomId, senderId, content, createdAt, seq, clientMessageId] 배열이며,
+ * 보낸 사람의 닉네임은 채팅방 정보로 알 수 있으므로 포함하지 않는다.
+ */
+@Component
+public class ChatFrameCodec implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    // CONNECT 프레임에서 형식을 협상하는 헤더
+    public static final String ACCEPT_HEADER = "accept";
+
+    private static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    // 다른 서버에서 받을 수 있는 메시지 타입의 패키지
+    private static final String PAYLOAD_PACKAGE = "com.iglooclub.nungil.dto.";
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper cborMapper;
+
+    // 세션 ID -> CBOR 사용 여부 (바이너리 프레임을 보낼 수 있는 세션만 저장한다)
+    private final Map<String, Boolean> binarySessions = new ConcurrentHashMap<>();
+
+    public ChatFrameCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = CBORMapper.builder()
+                .findAndAddModules()
+                .addMixIn(ChatDTO.class, CompactChatDTO.class)
+                .build();
+    }
+
+    /**
+     * 발행할 메시지를 직렬화하는 메서드이다.
+     * @param payload 발행할 메시지
+     * @return 직렬화된 메시지
+     */
+    public EncodedFrame encode(Object payload) {
+        return new EncodedFrame(payload, payload.getClass(), writeValueAsBytes(jsonMapper, payload));
+    }
+
+    /**
+     * 직렬화된 메시지를 브로커로 보낼 메시지로 만드는 메서드이다.
+     */
+    public Message<EncodedFrame> toMessage(EncodedFrame frame) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(frame, accessor.getMessageHeaders());
+    }
+
+    /**
+     * 다른 서버로 전달하기 위해 메시지 타입과 JSON을 하나의 바이트 배열([타입 이름 길이][타입 이름][JSON])로 합치는 메서드이다.
+     * CBOR는 받는 서버에서 필요할 때 JSON으로부터 만들므로 포함하지 않는다.
+     */
+    public byte[] toEnvelope(EncodedFrame frame) {
+        byte[] type = frame.payloadType.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] json = frame.getJson();
+        return ByteBuffer.allocate(Integer.BYTES + type.length + json.length)
+                .putInt(type.length)
+                .put(type)
+                .put(json)
+                .array();
+    }
+
+    /**
+     * {@link #toEnvelope}로 합친 바이트 배열을 직렬화된 메시지로 되돌리는 메서드이다.
+     * 메시지 타입은 DTO 패키지의 클래스만 허용한다.
+     */
+    public EncodedFrame fromEnvelope(byte[] envelope) {
+        int typeLength = ByteBuffer.wrap(envelope).getInt();
+        int jsonOffset = Integer.BYTES + typeLength;
+        String typeName = new String(envelope, Integer.BYTES, typeLength, StandardCharsets.UTF_8);
+        if (!typeName.startsWith(PAYLOAD_PACKAGE)) {
+            throw new IllegalArgumentException("Unexpected chat payload type " + typeName);
+        }
+
+        try {
+            Class<?> payloadType = ClassUtils.forName(typeName, getClass().getClassLoader());
+            return new EncodedFrame(null, payloadType, Arrays.copyOfRange(envelope, jsonOffset, envelope.length));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown chat payload type " + typeName, e);
+        }
+    }
+
+    /**
+     * CONNECT 프레임의 accept 헤더로 세션의 형식을 정하는 메서드이다.
+     * @param sessionId 세션 ID
+     * @param accept accept 헤더 값 (없으면 null)
+     */
+    public void negotiate(String sessionId, String accept) {
+        if (sessionId == null || accept == null) {
+            return;
+        }
+
+        try {
+            if (MimeTypeUtils.parseMimeTypes(accept).stream().anyMatch(APPLICATION_CBOR::equalsTypeAndSubtype)) {
+                binarySessions.replace(sessionId, true);
+            }
+        } catch (InvalidMimeTypeException e) {
+            // 형식을 알 수 없으면 JSON을 사용한다.
+        }
+    }
+
+    /**
+     * 직렬화된 메시지를 세션의 형식에 맞는 바이트로 바꾸는 메서드이다.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!(message.getPayload() instanceof EncodedFrame)) {
+            return message;
+        }
+
+        EncodedFrame frame = (EncodedFrame) message.getPayload();
+        boolean cbor = Boolean.TRUE.equals(binarySessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())));
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(cbor ? MimeTypeUtils.APPLICATION_OCTET_STREAM : MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(cbor ? frame.getCbor() : frame.getJson(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                if (!(session instanceof SockJsSession)) {
+                    binarySessions.put(session.getId(), false);
+                }
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                binarySessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private static byte[] writeValueAsBytes(ObjectMapper mapper, Object payload) {
+        try {
+            return mapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize chat payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * 형식별로 한 번만 직렬화된 메시지이다. CBOR는 처음 필요할 때 직렬화한다.
+     * 다른 서버에서 받은 메시지는 원본 객체가 없으므로, CBOR가 필요할 때 JSON을 읽어 직렬화한다.
+     */
+    public class EncodedFrame {
+
+        // 다른 서버에서 받은 메시지이면 null
+        private final Object payload;
+
+        private final Class<?> payloadType;
+
+        private final byte[] json;
+
+        private volatile byte[] cbor;
+
+        private EncodedFrame(Object payload, Class<?> payloadType, byte[] json) {
+            this.payload = payload;
+            this.payloadType = payloadType;
+            this.json = json;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getCbor() {
+            byte[] result = cbor;
+            if (result == null) {
+                result = writeValueAsBytes(cborMapper, (payload != null) ? payload : readJson());
+                cbor = result;
+            }
+            return result;
+        }
+
+        private Object readJson() {
+            try {
+                return jsonMapper.readValue(json, payloadType);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read chat payload " + payloadType.getSimpleName(), e);
+            }
+        }
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"messageId", "chatRoomId", "senderId", "content", "createdAt", "seq", "clientMessageId"})
+    @JsonIgnoreProperties({"sender"})
+    private abstract static class CompactChatDTO {
+    }
+}
@@ -0,0 +1,468 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.domain.ChatMessage;
+import com.iglooclub.nungil.domain.ChatSession;
+import com.iglooclub.nungil.domain.enums.ChatMessageStatus;
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.dto.ChatErrorDTO;
+import com.iglooclub.nungil.exception.ChatRoomErrorResult;
+import com.iglooclub.nungil.exception.GeneralException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지를 모아서 저장하고 발행하는 파이프라인이다.
+ * 채팅방 ID를 기준으로 메시지를 작업자에 나누어 배정하므로, 한 채팅방의 메시지는 항상 같은 작업자가 순서대로 처리한다.
+ * 작업자는 메시지를 배치로 모아 JDBC 배치 insert 후 커밋하고, 커밋이 끝난 메시지만 최근 메시지 캐시에 추가하고 /topic/{채팅방 ID}로 발행한다.
+ * 저장할 때 채팅방별 순번을 부여하며, 클라이언트 메시지 ID가 이미 저장된 메시지는 다시 저장하지 않는다.
+ * 작업자의 대기열이 가득 차면 일정 시간 기다린 뒤 메시지를 거절하여, 데이터베이스가 밀릴 때 수신 스레드가 무한정 쌓이지 않도록 한다.
+ *
+ * 배치 저장에 실패하면 한 번 다시 시도하고, 다시 실패하면 배치를 반씩 나누어 저장하여 실패한 메시지만 골라낸다.
+ * 끝내 저장하지 못한 메시지는 보낸 회원에게 /user/queue/errors로 알린다.
+ *
+ * MySQL 드라이버는 JDBC 배치를 기본적으로 한 행씩 실행하므로, 배치 insert가 여러 행 insert 하나로 실행되려면
+ * 데이터소스 URL에 rewriteBatchedStatements=true를 설정해야 한다. 설정되지 않았으면 시작할 때 경고를 남긴다.
+ */
+@Slf4j
+@Component
+public class ChatMessagePipeline {
+
+    private static final String INSERT_MESSAGE_SQL = "insert into chat_message (chatroom_id, member_id, content, status, created_at, seq, client_message_id) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_LAST_MESSAGE_SQL = "update chat_room set last_message_content = ?, last_message_at = ?, last_sender_id = ?, last_seq = greatest(coalesce(last_seq, 0), ?) where id = ?";
+
+    private static final String SELECT_CLIENT_MESSAGE_IDS_SQL = "select chatroom_id, member_id, client_message_id from chat_message where (chatroom_id, member_id, client_message_id) in ";
+
+    // 종료 요청을 확인하기 위해 대기열을 기다리는 최대 시간
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    // 저장에 실패한 메시지를 보낸 회원에게 알리는 목적지 (/user/queue/errors로 구독한다)
+    private static final String ERROR_DESTINATION = "/queue/errors";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ChatBroadcaster chatBroadcaster;
+
+    private final ChatSequenceAllocator chatSequenceAllocator;
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final int batchSize;
+
+    private final long lingerNanos;
+
+    private final long offerTimeoutMillis;
+
+    private final List<BlockingQueue<ChatDTO>> queues;
+
+    private final List<Thread> workers;
+
+    private volatile boolean running = true;
+
+    // 처리 현황 지표
+    private final Counter persistedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter duplicateCounter;
+    private final Timer flushTimer;
+
+    public ChatMessagePipeline(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               ChatBroadcaster chatBroadcaster,
+                               ChatSequenceAllocator chatSequenceAllocator,
+                               SimpMessagingTemplate messagingTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${chat.pipeline.worker-count:4}") int workerCount,
+                               @Value("${chat.pipeline.batch-size:100}") int batchSize,
+                               @Value("${chat.pipeline.linger-millis:10}") long lingerMillis,
+                               @Value("${chat.pipeline.queue-capacity:1000}") int queueCapacity,
+                               @Value("${chat.pipeline.offer-timeout-millis:200}") long offerTimeoutMillis,
+                               @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chatBroadcaster = chatBroadcaster;
+        this.chatSequenceAllocator = chatSequenceAllocator;
+        this.messagingTemplate = messagingTemplate;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        this.queues = new ArrayList<>(workerCount);
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<ChatDTO> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            workers.add(new Thread(() -> runWorker(queue), "chat-writer-" + i));
+        }
+
+        meterRegistry.gauge("chat.pipeline.queue.size", queues, qs -> qs.stream().mapToInt(BlockingQueue::size).sum());
+        this.persistedCounter = meterRegistry.counter("chat.pipeline.messages.persisted");
+        this.rejectedCounter = meterRegistry.counter("chat.pipeline.messages.rejected");
+        this.failedCounter = meterRegistry.counter("chat.pipeline.messages.failed");
+        this.retriedCounter = meterRegistry.counter("chat.pipeline.batches.retried");
+        this.duplicateCounter = meterRegistry.counter("chat.pipeline.messages.duplicate");
+        this.flushTimer = meterRegistry.timer("chat.pipeline.flush");
+
+        if (datasourceUrl.startsWith("jdbc:mysql:") && !datasourceUrl.contains("rewriteBatchedStatements=true")) {
+            log.warn("rewriteBatchedStatements=true is not set on the datasource URL, so chat messages are inserted one row at a time");
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * 애플리케이션 종료 시 대기열에 남은 메시지를 모두 저장한 뒤 작업자를 종료한다.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * 채팅 메시지를 저장 대기열에 추가하는 메서드이다.
+     * 메시지는 비동기로 저장되며, 저장이 커밋된 뒤 채팅방 구독자에게 발행된다.
+     * 같은 클라이언트 메시지 ID로 다시 보낸 메시지는 저장되지 않는다.
+     * 발행자가 채팅방의 일원인지는 호출하는 쪽에서 미리 확인해야 한다.
+     * @param chatDTO 발행된 채팅 메시지 DTO
+     * @param chatSession 메시지 발행자의 채팅 세션
+     */
+    public void submit(ChatDTO chatDTO, ChatSession chatSession) {
+        String content = chatDTO.getContent();
+        if (chatDTO.getChatRoomId() == null || content == null || content.isBlank() || content.length() > ChatMessage.MAX_CONTENT_LENGTH) {
+            throw new GeneralException(ChatRoomErrorResult.INVALID_MESSAGE);
+        }
+
+        String clientMessageId = chatDTO.getClientMessageId();
+        if (clientMessageId != null && (clientMessageId.isBlank() || clientMessageId.length() > ChatMessage.MAX_CLIENT_MESSAGE_ID_LENGTH)) {
+            throw new GeneralException(ChatRoomErrorResult.INVALID_MESSAGE);
+        }
+
+        ChatDTO message = ChatDTO.create(chatDTO.getChatRoomId(), chatSession, content, clientMessageId);
+        BlockingQueue<ChatDTO> queue = queues.get(Math.floorMod(Long.hashCode(message.getChatRoomId()), queues.size()));
+
+        boolean offered;
+        try {
+            offered = queue.offer(message, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+
+        if (!offered) {
+            rejectedCounter.increment();
+            throw new GeneralException(ChatRoomErrorResult.CHAT_BUSY);
+        }
+    }
+
+    private void runWorker(BlockingQueue<ChatDTO> queue) {
+        List<ChatDTO> batch = new ArrayList<>(batchSize);
+
+        // 종료 요청 후에도 대기열이 빌 때까지 처리한다.
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatDTO first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                fillBatch(queue, batch);
+                flushTimer.record(() -> flush(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Chat pipeline worker failed to process a batch", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 배치 크기가 찰 때까지, 최대 linger 시간 동안 대기열의 메시지를 배치에 추가한다.
+     */
+    private void fillBatch(BlockingQueue<ChatDTO> queue, List<ChatDTO> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        queue.drainTo(batch, batchSize - batch.size());
+
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+
+            ChatDTO next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * 배치를 저장하고, 커밋된 메시지를 순서대로 발행하는 메서드이다.
+     * @param batch 같은 작업자에 배정된 메시지 목록 (수신 순서)
+     */
+    private void flush(List<ChatDTO> batch) {
+        List<ChatDTO> failed = new ArrayList<>();
+        List<ChatDTO> persisted = save(batch, failed);
+
+        persistedCounter.increment(persisted.size());
+        duplicateCounter.increment(batch.size() - persisted.size() - failed.size());
+        for (ChatDTO message : persisted) {
+            // 이미 저장된 메시지이므로, 발행에 실패해도 나머지 메시지는 계속 발행한다. (클라이언트는 after 조회로 따라잡는다)
+            try {
+                chatBroadcaster.messagePersisted(message);
+                chatBroadcaster.broadcast("/topic/" + message.getChatRoomId(), message);
+            } catch (RuntimeException e) {
+                log.error("Failed to broadcast chat message {} to chat room {}", message.getMessageId(), message.getChatRoomId(), e);
+            }
+        }
+
+        for (ChatDTO message : failed) {
+            notifyFailed(message);
+        }
+    }
+
+    /**
+     * 배치를 한 트랜잭션으로 저장하는 메서드이다. 실패하면 한 번 다시 시도하고, 다시 실패하면 나누어 저장한다.
+     * @param batch 저장할 메시지 목록 (수신 순서)
+     * @param failed 끝내 저장하지 못한 메시지를 담을 목록
+     * @return 저장된 메시지 목록 (수신 순서)
+     */
+    private List<ChatDTO> save(List<ChatDTO> batch, List<ChatDTO> failed) {
+        try {
+            return transactionTemplate.execute(status -> persist(batch));
+        } catch (RuntimeException e) {
+            retriedCounter.increment();
+            log.warn("Failed to save {} chat messages, retrying", batch.size(), e);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> persist(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                reject(batch.get(0), e, failed);
+                return Collections.emptyList();
+            }
+            log.error("Failed to save {} chat messages again, saving them in smaller batches", batch.size(), e);
+        }
+
+        return saveSplit(batch, failed);
+    }
+
+    /**
+     * 배치를 반씩 나누어 저장하여, 저장할 수 없는 메시지만 골라내는 메서드이다.
+     * 앞쪽 절반을 먼저 저장하므로 채팅방 안의 메시지 순서는 유지된다.
+     */
+    private List<ChatDTO> saveSplit(List<ChatDTO> batch, List<ChatDTO> failed) {
+        int middle = batch.size() / 2;
+        List<ChatDTO> persisted = new ArrayList<>(batch.size());
+        for (List<ChatDTO> half : List.of(batch.subList(0, middle), batch.subList(middle, batch.size()))) {
+            try {
+                persisted.addAll(transactionTemplate.execute(status -> persist(half)));
+            } catch (RuntimeException e) {
+                if (half.size() == 1) {
+                    reject(half.get(0), e, failed);
+                } else {
+                    persisted.addAll(saveSplit(half, failed));
+                }
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * 따로 저장해도 실패한 메시지를 처리하는 메서드이다.
+     * 클라이언트 메시지 ID의 고유 인덱스에 걸린 메시지는 이미 저장된 메시지이므로 중복으로 보고, 그 외에는 실패 목록에 담는다.
+     */
+    private void reject(ChatDTO message, RuntimeException e, List<ChatDTO> failed) {
+        if (e instanceof DuplicateKeyException && message.getClientMessageId() != null) {
+            log.info("Chat message {} of member {} was already saved", message.getClientMessageId(), message.getSenderId());
+            return;
+        }
+
+        log.error("Failed to save chat message of member {} to chat room {}", message.getSenderId(), message.getChatRoomId(), e);
+        failed.add(message);
+        failedCounter.increment();
+    }
+
+    /**
+     * 저장하지 못한 메시지를 보낸 회원에게 알리는 메서드이다.
+     * 메시지를 받은 서버에서 저장하므로, 보낸 회원의 세션은 현재 서버에 있다.
+     */
+    private void notifyFailed(ChatDTO message) {
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(message.getSenderId()), ERROR_DESTINATION,
+                    ChatErrorDTO.of(message, ChatRoomErrorResult.MESSAGE_NOT_SAVED));
+        } catch (RuntimeException e) {
+            log.error("Failed to notify member {} of an unsaved chat message", message.getSenderId(), e);
+        }
+    }
+
+    /**
+     * 배치의 메시지에 순번을 부여하여 저장하고, 생성된 메시지 ID가 부여된 메시지 목록을 반환하는 메서드이다.
+     * 이미 저장된 클라이언트 메시지 ID의 메시지는 제외된다.
+     * 채팅방의 순번 할당을 먼저 잠근 뒤 중복을 확인하므로, 다른 서버가 같은 메시지를 먼저 커밋했으면 여기서 걸러진다.
+     */
+    private List<ChatDTO> persist(List<ChatDTO> batch) {
+        SortedSet<Long> chatRoomIds = new TreeSet<>();
+        batch.forEach(message -> chatRoomIds.add(message.getChatRoomId()));
+        chatSequenceAllocator.lock(chatRoomIds);
+
+        List<ChatDTO> messages = assignSeqs(removeDuplicates(batch));
+        if (messages.isEmpty()) {
+            return messages;
+        }
+
+        List<Long> messageIds = insertMessages(messages);
+        if (messageIds.size() != messages.size()) {
+            throw new IllegalStateException("Expected " + messages.size() + " generated keys but got " + messageIds.size());
+        }
+
+        List<ChatDTO> persisted = new ArrayList<>(messages.size());
+
+        // 채팅방별 마지막 메시지 (수신 순서상 가장 뒤의 메시지)
+        Map<Long, ChatDTO> lastMessages = new LinkedHashMap<>();
+
+        for (int i = 0; i < messages.size(); i++) {
+            ChatDTO message = messages.get(i).withMessageId(messageIds.get(i));
+            persisted.add(message);
+            lastMessages.put(message.getChatRoomId(), message);
+        }
+
+        List<Object[]> lastMessageRows = new ArrayList<>(lastMessages.size());
+        for (ChatDTO message : lastMessages.values()) {
+            lastMessageRows.add(new Object[]{message.getContent(), Timestamp.valueOf(message.getCreatedAt()),
+                    message.getSenderId(), message.getSeq(), message.getChatRoomId()});
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE_SQL, lastMessageRows);
+
+        return persisted;
+    }
+
+    /**
+     * 클라이언트 메시지 ID가 배치 안에서 중복되거나 이미 저장된 메시지를 제외하는 메서드이다.
+     */
+    private List<ChatDTO> removeDuplicates(List<ChatDTO> batch) {
+        Map<List<Object>, ChatDTO> keyed = new LinkedHashMap<>();
+        for (ChatDTO message : batch) {
+            if (message.getClientMessageId() != null) {
+                keyed.putIfAbsent(clientMessageKey(message.getChatRoomId(), message.getSenderId(), message.getClientMessageId()), message);
+            }
+        }
+        if (keyed.isEmpty()) {
+            return batch;
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_CLIENT_MESSAGE_IDS_SQL).append('(');
+        List<Object> args = new ArrayList<>(keyed.size() * 3);
+        for (List<Object> key : keyed.keySet()) {
+            sql.append(args.isEmpty() ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args.addAll(key);
+        }
+        sql.append(')');
+
+        Set<List<Object>> saved = new HashSet<>(jdbcTemplate.query(sql.toString(), (rs, rowNum) ->
+                clientMessageKey(rs.getLong("chatroom_id"), rs.getLong("member_id"), rs.getString("client_message_id")), args.toArray()));
+
+        List<ChatDTO> result = new ArrayList<>(batch.size());
+        for (ChatDTO message : batch) {
+            if (message.getClientMessageId() == null) {
+                result.add(message);
+                continue;
+            }
+
+            List<Object> key = clientMessageKey(message.getChatRoomId(), message.getSenderId(), message.getClientMessageId());
+            // 배치 안에서 처음 나온 메시지만 저장한다.
+            if (!saved.contains(key) && keyed.get(key) == message) {
+                result.add(message);
+            }
+        }
+        return result;
+    }
+
+    private static List<Object> clientMessageKey(Long chatRoomId, Long memberId, String clientMessageId) {
+        return List.of(chatRoomId, memberId, clientMessageId);
+    }
+
+    /**
+     * 채팅방별로 연속된 순번을 한 번에 할당하여, 수신 순서대로 메시지에 부여하는 메서드이다.
+     * 순번은 채팅방 ID 오름차순으로 할당한다. (잠금 순서를 맞춘다)
+     */
+    private List<ChatDTO> assignSeqs(List<ChatDTO> messages) {
+        Map<Long, Integer> counts = new TreeMap<>();
+        messages.forEach(message -> counts.merge(message.getChatRoomId(), 1, Integer::sum));
+
+        Map<Long, Long> nextSeqs = new HashMap<>();
+        counts.forEach((chatRoomId, count) -> nextSeqs.put(chatRoomId, chatSequenceAllocator.allocate(chatRoomId, count)));
+
+        List<ChatDTO> result = new ArrayList<>(messages.size());
+        for (ChatDTO message : messages) {
+            Long seq = nextSeqs.merge(message.getChatRoomId(), 1L, Long::sum) - 1;
+            result.add(message.withSeq(seq));
+        }
+        return result;
+    }
+
+    /**
+     * 메시지를 JDBC 배치로 저장하고, 생성된 메시지 ID를 저장 순서대로 반환하는 메서드이다.
+     */
+    private List<Long> insertMessages(List<ChatDTO> batch) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_MESSAGE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (ChatDTO message : batch) {
+                    statement.setLong(1, message.getChatRoomId());
+                    statement.setLong(2, message.getSenderId());
+                    statement.setString(3, message.getContent());
+                    statement.setString(4, ChatMessageStatus.READ.name());
+                    statement.setTimestamp(5, Timestamp.valueOf(message.getCreatedAt()));
+                    statement.setLong(6, message.getSeq());
+                    statement.setString(7, message.getClientMessageId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> messageIds = new ArrayList<>(batch.size());
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        messageIds.add(generatedKeys.getLong(1));
+                    }
+                }
+                return messageIds;
+            }
+        });
+    }
+}
@@ -9,18 +9,24 @@ import com.iglooclub.nungil.exception.NungilErrorResult;
 import com.iglooclub.nungil.repository.ChatMessageRepository;
 import com.iglooclub.nungil.repository.ChatRoomRepository;
 import com.iglooclub.nungil.repository.NungilRepository;
+import com.iglooclub.nungil.service.ChatArchiveService.ArchivedMessages;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,28 +40,15 @@ public class ChatMessageService {
 
     private final NungilRepository nungilRepository;
 
-    /**
-     * 채팅 메시지를 데이터베이스에 저장하는 메서드입니다.
-     * @param chatDTO 발행된 채팅 메시지 DTO
-     * @param member 메시지 발행자 정보
-     * @return 기존의 발행된 메시지에서 데이터가 추가된 DTO
-     */
-    @Transactional
-    public ChatDTO save(ChatDTO chatDTO, Member member) {
+    private final ChatMessageTailCache chatMessageTailCache;
 
-        ChatRoom chatRoom = getChatRoom(chatDTO.getChatRoomId());
+    private final ChatUnreadCounter chatUnreadCounter;
 
-        // 메시지 발행자(member)가 해당 채팅방의 일원이 아니면 예외 발생
-        if (!checkChatRoomMember(chatRoom, member)) {
-            throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
-        }
+    private final ChatArchiveService chatArchiveService;
 
-        // 데이터베이스에 채팅 메시지 저장
-        ChatMessage chatMessage = ChatMessage.create(chatRoom, member, chatDTO.getContent());
-        chatMessageRepository.save(chatMessage);
+    private final ChatPresenceService chatPresenceService;
 
-        return ChatDTO.of(chatDTO.getChatRoomId(), member, chatMessage);
-    }
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * 채팅방의 메시지 목록과 상대방 정보를 반환하는 메서드이다.
@@ -85,6 +78,27 @@ public class ChatMessageService {
         return ChatRoomDetailResponse.create(member, opponent, reversedMessageSlice);
     }
 
+    /**
+     * 채팅방의 메시지 목록을 메시지 ID 기준으로 조회하여 상대방 정보와 함께 반환하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param member 조회를 요청한 회원 엔티티
+     * @param before 이 메시지보다 이전 메시지를 조회 (before, after 모두 null이면 가장 최근 메시지부터 조회)
+     * @param after 이 메시지보다 이후 메시지를 조회
+     * @param size 조회할 메시지 수
+     * @return 채팅방 상세 정보
+     */
+    public ChatRoomDetailResponse getChatRoomDetail(Long chatRoomId, Member member, Long before, Long after, int size) {
+        checkPageSize(size);
+
+        ChatRoom chatRoom = getChatRoom(chatRoomId);
+
+        Slice<ChatMessageListResponse> messageSlice = getMessageSlice(chatRoom, member, before, after, size);
+
+        Member opponent = getOpponent(chatRoom, member);
+
+        return ChatRoomDetailResponse.create(member, opponent, messageSlice);
+    }
+
     private Member getOpponent(ChatRoom chatRoom, Member member) {
         return chatRoom.getSender().equals(member) ? chatRoom.getReceiver() : chatRoom.getSender();
     }
@@ -103,20 +117,270 @@ public class ChatMessageService {
             throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
         }
 
+        // 보관된 채팅방은 보관된 메시지에서 조회
+        if (chatRoom.getArchivedAt() != null) {
+            ArchivedMessages archived = chatArchiveService.findArchivedMessages(chatRoom.getId());
+            int limit = (int) Math.min(pageRequest.getOffset() + pageRequest.getPageSize() + 1, Integer.MAX_VALUE);
+            List<ChatDTO> latestFirst = findArchivedLatestFirst(chatRoom, archived, null, limit);
+
+            int from = (int) Math.min(pageRequest.getOffset(), latestFirst.size());
+            int to = Math.min(from + pageRequest.getPageSize(), latestFirst.size());
+            return new SliceImpl<>(toMessageResponses(chatRoom, latestFirst.subList(from, to), member), pageRequest, to < latestFirst.size());
+        }
+
         // 주어진 채팅방의 메시지들을 pageRequest에 맞추어 조회
         Slice<ChatMessage> messageSlice = chatMessageRepository.findByChatRoom(pageRequest, chatRoom);
 
         // 메시지들을 DTO 리스트로 변환
-        List<ChatMessageListResponse> responseList = messageSlice.getContent().stream()
+        List<ChatMessageListResponse> responseList = toMessageResponses(messageSlice.getContent(), member);
+
+        // 변환된 DTO 리스트와 함께 새로운 Slice 객체를 생성하여 반환
+        return new SliceImpl<>(responseList, pageRequest, messageSlice.hasNext());
+    }
+
+    /**
+     * 주어진 채팅방의 메시지 목록을 메시지 ID 기준으로 조회하는 메서드이다.
+     * OFFSET 없이 (chatroom_id, id) 인덱스를 따라 읽으므로, 스크롤 중 새 메시지가 도착해도 누락이나 중복이 없다.
+     * @param chatRoom 채팅방 엔티티
+     * @param member 조회를 요청한 회원의 엔티티
+     * @param before 이 메시지보다 이전 메시지를 조회 (before, after 모두 null이면 가장 최근 메시지부터 조회)
+     * @param after 이 메시지보다 이후 메시지를 조회
+     * @param size 조회할 메시지 수
+     * @return 작성순으로 정렬된 메시지 목록. before 조회이면 더 이전 메시지가, after 조회이면 더 이후 메시지가 있는지를 hasNext로 나타낸다.
+     */
+    public Slice<ChatMessageListResponse> getMessageSlice(ChatRoom chatRoom, Member member, Long before, Long after, int size) {
+
+        // 메시지 발행자(member)가 해당 채팅방의 일원이 아니면 예외 발생
+        if (!checkChatRoomMember(chatRoom, member)) {
+            throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
+        }
+
+        if (before != null && after != null) {
+            throw new GeneralException(ChatRoomErrorResult.INVALID_CURSOR);
+        }
+
+        // 보관된 채팅방은 보관된 메시지에서 조회
+        if (chatRoom.getArchivedAt() != null) {
+            return getArchivedMessageSlice(chatRoom, member, before, after, size);
+        }
+
+        // 가장 최근 페이지는 최근 메시지 캐시에서 조회
+        if (before == null && after == null && size <= chatMessageTailCache.getRoomCapacity()) {
+            return getLatestMessageSlice(chatRoom, member, size);
+        }
+
+        // 다음 페이지 존재 여부를 확인하기 위해 하나 더 조회
+        List<ChatMessage> messages = (after != null)
+                ? chatMessageRepository.findAfter(chatRoom, after, size + 1)
+                : chatMessageRepository.findBefore(chatRoom, before, size + 1);
+
+        boolean hasNext = messages.size() > size;
+        if (hasNext) {
+            messages = messages.subList(0, size);
+        }
+
+        List<ChatMessageListResponse> responseList = toMessageResponses(messages, member);
+
+        // 이전 메시지는 최근순으로 조회되므로, 가장 최근 채팅이 가장 뒤로 가도록 뒤집음
+        if (after == null) {
+            Collections.reverse(responseList);
+        }
+
+        return new SliceImpl<>(responseList, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * 주어진 순번 이후의 메시지를 순번 순서로 조회하는 메서드이다.
+     * 재연결한 클라이언트는 마지막으로 받은 순번을 보내 놓친 메시지만 받는다. 순번이 없는 이전 메시지는 조회되지 않는다.
+     * 순번은 채팅방마다 커밋 순서대로 할당되므로(ChatSequenceAllocator), 조회된 순번보다 작은 순번의 메시지가 나중에 커밋되는 일은 없다.
+     * @param chatRoomId 채팅방 ID
+     * @param member 조회를 요청한 회원의 엔티티
+     * @param since 클라이언트가 마지막으로 받은 순번 (처음이면 0)
+     * @param size 조회할 최대 메시지 수
+     * @return 순번 오름차순으로 정렬된 메시지 목록과 다음 요청에 사용할 순번
+     */
+    public ChatSyncResponse sync(Long chatRoomId, Member member, long since, int size) {
+        checkPageSize(size);
+
+        ChatRoom chatRoom = getChatRoom(chatRoomId);
+
+        if (!checkChatRoomMember(chatRoom, member)) {
+            throw new GeneralException(ChatRoomErrorResult.NOT_MEMBER);
+        }
+
+        List<ChatDTO> messages;
+        if (chatRoom.getArchivedAt() != null) {
+            messages = findArchivedSinceSeq(chatRoom, since, size + 1);
+        } else {
+            // 다음 페이지 존재 여부를 확인하기 위해 하나 더 조회
+            messages = chatMessageRepository.findSinceSeq(chatRoom, since, size + 1).stream()
+                    .map(chatMessage -> ChatDTO.of(chatRoom.getId(), chatMessage.getMember(), chatMessage))
+                    .collect(Collectors.toList());
+        }
+
+        boolean hasNext = messages.size() > size;
+        if (hasNext) {
+            messages = messages.subList(0, size);
+        }
+
+        return ChatSyncResponse.create(messages, since, hasNext);
+    }
+
+    /**
+     * 채팅방의 가장 최근 메시지를 캐시에서 조회하는 메서드이다.
+     * 캐시에 없으면 데이터베이스에서 캐시 크기만큼 읽어 캐시를 채운 뒤 반환한다.
+     */
+    private Slice<ChatMessageListResponse> getLatestMessageSlice(ChatRoom chatRoom, Member member, int size) {
+        Slice<ChatDTO> cached = chatMessageTailCache.findLatest(chatRoom.getId(), size).orElse(null);
+
+        if (cached == null) {
+            // 현재 트랜잭션의 스냅숏은 버퍼가 만들어지기 전에 시작되었으므로, 그 사이에 커밋된 메시지를 놓치지 않도록 새 트랜잭션에서 읽는다.
+            List<ChatDTO> latestFirst = newReadOnlyTransaction().execute(status ->
+                    chatMessageRepository.findBefore(chatRoom, null, chatMessageTailCache.getRoomCapacity() + 1).stream()
+                            .map(chatMessage -> ChatDTO.of(chatRoom.getId(), chatMessage.getMember(), chatMessage))
+                            .collect(Collectors.toList()));
+            chatMessageTailCache.seed(chatRoom.getId(), latestFirst);
+
+            List<ChatDTO> content = new ArrayList<>(latestFirst.subList(0, Math.min(size, latestFirst.size())));
+            Collections.reverse(content);
+            cached = new SliceImpl<>(content, PageRequest.of(0, size), latestFirst.size() > size);
+        }
+
+        return new SliceImpl<>(toMessageResponses(chatRoom, cached.getContent(), member), PageRequest.of(0, size), cached.hasNext());
+    }
+
+    private TransactionTemplate newReadOnlyTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    /**
+     * 보관된 채팅방의 메시지 목록을 메시지 ID 기준으로 조회하는 메서드이다.
+     * 보관된 메시지는 캐시된 목록에서 자르고, 보관된 뒤 테이블에 저장된 메시지는 필요한 만큼만 테이블에서 읽는다.
+     */
+    private Slice<ChatMessageListResponse> getArchivedMessageSlice(ChatRoom chatRoom, Member member, Long before, Long after, int size) {
+        ArchivedMessages archived = chatArchiveService.findArchivedMessages(chatRoom.getId());
+
+        // 다음 페이지 존재 여부를 확인하기 위해 하나 더 조회
+        List<ChatDTO> messages;
+        if (after != null) {
+            List<ChatDTO> archivedMessages = archived.getMessages();
+            int from = cursorIndex(archivedMessages, after + 1, ChatDTO::getMessageId);
+            messages = new ArrayList<>(archivedMessages.subList(from, Math.min(from + size + 1, archivedMessages.size())));
+
+            if (messages.size() <= size) {
+                for (ChatMessage chatMessage : chatMessageRepository.findAfter(chatRoom, Math.max(after, archived.getLastMessageId()), size + 1 - messages.size())) {
+                    messages.add(ChatDTO.of(chatRoom.getId(), chatMessage.getMember(), chatMessage));
+                }
+            }
+        } else {
+            messages = findArchivedLatestFirst(chatRoom, archived, before, size + 1);
+        }
+
+        boolean hasNext = messages.size() > size;
+        if (hasNext) {
+            messages = messages.subList(0, size);
+        }
+
+        // 이전 메시지는 최근순으로 조회되므로, 가장 최근 채팅이 가장 뒤로 가도록 뒤집음
+        if (after == null) {
+            messages = new ArrayList<>(messages);
+            Collections.reverse(messages);
+        }
+
+        return new SliceImpl<>(toMessageResponses(chatRoom, messages, member), PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * 보관된 채팅방에서 기준 메시지 이전의 메시지를 최근순으로 최대 limit개 조회하는 메서드이다.
+     * 보관된 뒤 테이블에 저장된 메시지를 먼저 읽고, 모자라면 보관된 메시지에서 채운다.
+     * @param before 이 메시지보다 이전 메시지를 조회 (null이면 가장 최근 메시지부터 조회)
+     */
+    private List<ChatDTO> findArchivedLatestFirst(ChatRoom chatRoom, ArchivedMessages archived, Long before, int limit) {
+        long lastArchivedId = archived.getLastMessageId();
+        List<ChatDTO> latestFirst = new ArrayList<>(Math.min(limit, 1024));
+
+        // 삭제 도중 중단되어 테이블에 남은 보관된 메시지는 제외한다.
+        if (before == null || before > lastArchivedId + 1) {
+            for (ChatMessage chatMessage : chatMessageRepository.findBefore(chatRoom, before, limit)) {
+                if (chatMessage.getId() > lastArchivedId) {
+                    latestFirst.add(ChatDTO.of(chatRoom.getId(), chatMessage.getMember(), chatMessage));
+                }
+            }
+        }
+
+        List<ChatDTO> messages = archived.getMessages();
+        int to = (before != null) ? cursorIndex(messages, before, ChatDTO::getMessageId) : messages.size();
+        for (int i = to - 1; i >= 0 && latestFirst.size() < limit; i--) {
+            latestFirst.add(messages.get(i));
+        }
+        return latestFirst;
+    }
+
+    /**
+     * 보관된 채팅방에서 주어진 순번 이후의 메시지를 순번 순서로 최대 limit개 조회하는 메서드이다.
+     * 보관된 메시지는 순번으로 정렬된 목록에서 자르고, 모자라면 보관된 뒤 테이블에 저장된 메시지에서 채운다.
+     */
+    private List<ChatDTO> findArchivedSinceSeq(ChatRoom chatRoom, long since, int limit) {
+        ArchivedMessages archived = chatArchiveService.findArchivedMessages(chatRoom.getId());
+
+        List<ChatDTO> messagesBySeq = archived.getMessagesBySeq();
+        int from = cursorIndex(messagesBySeq, since + 1, ChatDTO::getSeq);
+        List<ChatDTO> messages = new ArrayList<>(messagesBySeq.subList(from, Math.min(from + limit, messagesBySeq.size())));
+
+        if (messages.size() < limit) {
+            long lastArchivedId = archived.getLastMessageId();
+            for (ChatMessage chatMessage : chatMessageRepository.findSinceSeq(chatRoom, Math.max(since, archived.getLastSeq()), limit - messages.size())) {
+                if (chatMessage.getId() > lastArchivedId) {
+                    messages.add(ChatDTO.of(chatRoom.getId(), chatMessage.getMember(), chatMessage));
+                }
+            }
+        }
+        return messages;
+    }
+
+    // key가 value 이상인 첫 메시지의 위치 (messages는 key 오름차순으로 정렬되어 있어야 한다)
+    private static int cursorIndex(List<ChatDTO> messages, long value, ToLongFunction<ChatDTO> key) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key.applyAsLong(messages.get(mid)) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 캐시와 보관 파일에는 발행자 ID만 있으므로, 채팅방의 두 회원 중에서 발행자를 찾는다.
+    private List<ChatMessageListResponse> toMessageResponses(ChatRoom chatRoom, List<ChatDTO> messages, Member member) {
+        return messages.stream()
+                .map(chatDTO -> {
+                    Member sender = chatRoom.getSender().getId().equals(chatDTO.getSenderId()) ? chatRoom.getSender() : chatRoom.getReceiver();
+                    Boolean isSender = member.getId().equals(sender.getId());
+
+                    return ChatMessageListResponse.create(sender, chatDTO, isSender);
+                }).collect(Collectors.toList());
+    }
+
+    private List<ChatMessageListResponse> toMessageResponses(List<ChatMessage> messages, Member member) {
+        return messages.stream()
                 .map(chatMessage -> {
                     Member sender = chatMessage.getMember();
                     Boolean isSender = member.getId().equals(sender.getId());
 
                     return ChatMessageListResponse.create(sender, chatMessage, isSender);
                 }).collect(Collectors.toList());
+    }
 
-        // 변환된 DTO 리스트와 함께 새로운 Slice 객체를 생성하여 반환
-        return new SliceImpl<>(responseList, pageRequest, messageSlice.hasNext());
+    private void checkPageSize(int size) {
+        if (size < 1) {
+            throw new GeneralException(ChatRoomErrorResult.INVALID_PAGE_SIZE);
+        }
     }
 
     private ChatRoom getChatRoom(Long chatRoomId) {
@@ -141,26 +405,53 @@ public class ChatMessageService {
     /**
      * 사용자의 채팅방 목록을 Slice 형식으로 조회하는 메서드입니다.
      * @param member 조회를 요청한 회원의 엔티티
-     * @param pageRequest 조회되는 페이지 번호, 갯수, 정렬 방식(최근순)
+     * @param pageRequest 조회되는 페이지 번호, 갯수 (마지막 활동 최근순으로 정렬)
      * @return Slice 형식의 채팅 메시지 목록
      */
     public Slice<ChatRoomListResponse> getChatRoomSlice(Member member,PageRequest pageRequest){
-        Slice<ChatRoom> chatRoomSlice = chatRoomRepository.findBySenderOrReceiver(member, member, pageRequest);
-
-        return chatRoomSlice.map(chatRoom -> {
-            Member opponent = getOpponent(chatRoom, member);
-            AnimalFace animalFace = opponent.getAnimalFace();
-            ChatMessage lastMessage = chatRoom.getChatMessageList().isEmpty() ? null : chatRoom.getChatMessageList().get(chatRoom.getChatMessageList().size() - 1);
-            String content = lastMessage != null ? lastMessage.getContent() : "지금 연락을 시작하세요!";
-            LocalDateTime createdAt = lastMessage != null ? lastMessage.getCreatedAt() : chatRoom.getCreatedAt();
-            return new ChatRoomListResponse(
-                    (animalFace != null) ? animalFace.getTitle(): null, // 상대방의 AnimalFace
-                    opponent.getNickname(), // 상대방 닉네임
-                    content, // 마지막 메시지 내용
-                    createdAt, // 마지막 메시지 생성 시간
-                    chatRoom.getId() // 채팅방 ID
-            );
-        });
+        // 상대방 정보와 마지막 메시지를 채팅방 테이블에서 한 번에 조회
+        Slice<ChatRoomListResponse> roomSlice = chatRoomRepository.findRoomSlice(member, pageRequest);
+
+        // 안 읽은 메시지 수는 메모리의 카운터에서 조회
+        roomSlice.forEach(room -> room.updateUnreadCount(
+                chatUnreadCounter.getUnreadCount(room.getChatRoomId(), member.getId(), room.getLastReadMessageId())));
+
+        // 상대방의 접속 상태는 접속 정보에서 한 번에 조회
+        Set<Long> onlineMemberIds = chatPresenceService.findOnlineMembers(roomSlice.stream()
+                .map(ChatRoomListResponse::getOpponentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        roomSlice.forEach(room -> room.updateOnline(onlineMemberIds.contains(room.getOpponentId())));
+
+        return roomSlice;
+    }
+
+    /**
+     * 회원이 채팅방의 메시지를 주어진 메시지까지 읽었음을 저장하는 메서드이다.
+     * 채팅방에 회원별로 마지막으로 읽은 메시지 ID만 저장하므로, 읽은 메시지 수와 관계없이 한 번만 갱신한다.
+     * 마지막으로 읽은 메시지 ID는 앞으로만 움직이므로, 채팅방에 저장된 마지막 메시지 ID보다 큰 값은 마지막 메시지 ID로 낮춘다.
+     * @param chatSession 메시지를 읽은 회원의 채팅 세션 (채팅방의 일원인지는 호출하는 쪽에서 확인해야 한다)
+     * @param chatReadDTO 읽음 처리 요청
+     * @return 채팅방 회원에게 발행하고 안 읽은 메시지 카운터에 반영할 읽음 확인 정보
+     */
+    @Transactional
+    public ChatReadDTO markRead(ChatSession chatSession, ChatReadDTO chatReadDTO) {
+        Long chatRoomId = chatReadDTO.getChatRoomId();
+        Long messageId = chatReadDTO.getMessageId();
+        if (messageId == null) {
+            throw new GeneralException(ChatRoomErrorResult.INVALID_MESSAGE);
+        }
+
+        // 아직 저장되지 않은 메시지까지 읽은 것으로 처리되지 않도록 한다.
+        Long lastMessageId = chatMessageRepository.findLastMessageId(chatRoomId);
+        if (lastMessageId == null) {
+            throw new GeneralException(ChatRoomErrorResult.INVALID_MESSAGE);
+        }
+        Long readMessageId = Math.min(messageId, lastMessageId);
+
+        chatRoomRepository.updateLastReadMessageId(chatRoomId, chatSession.getMemberId(), readMessageId);
+
+        return ChatReadDTO.of(chatRoomId, readMessageId, chatSession.getMemberId());
     }
     /**
      * 사용자의 채팅방 목록을 Slice 형식으로 조회하는 메서드입니다.
@@ -0,0 +1,355 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 채팅방별 최근 메시지를 메모리에 보관하는 캐시이다.
+ * 채팅방마다 크기가 고정된 링 버퍼에 최근 메시지를 저장하고, 저장이 커밋된 메시지를 버퍼 끝에 추가한다.
+ *
+ * 채팅방은 채팅방 ID로 나눈 여러 구획에 저장되며, 구획마다 잠금이 따로 있어 서로 다른 구획의 조회와 추가는 서로 막지 않는다.
+ * 메모리 상한(max-bytes)은 메시지와 버퍼의 추정 크기로 계산하며, 구획마다 상한을 똑같이 나누어
+ * 구획의 추정 크기가 상한을 넘으면 그 구획에서 가장 오래 사용되지 않은 채팅방부터 제거한다.
+ *
+ * 채팅방 버퍼는 처음 조회될 때 생성되며, 생성된 뒤 데이터베이스에서 읽은 메시지로 채워진다(seed).
+ * 버퍼를 만든 뒤 시작된 읽기로 채워야 하므로, 호출하는 쪽은 버퍼를 만들기 전에 시작된 트랜잭션의 스냅숏이 아니라 새 트랜잭션에서 읽어야 한다.
+ * 그러면 버퍼가 만들어진 뒤 커밋된 메시지는 추가되고, 그 전에 커밋된 메시지는 읽기에 포함된다.
+ * 두 곳에 모두 포함된 메시지는 채우기 전에는 ID로 병합되고, 채운 뒤에는 추가할 때 ID로 걸러진다.
+ * 채운 뒤 버퍼의 마지막 메시지보다 이전인데 버퍼에 없는 메시지가 추가되면, 순서를 맞출 수 없으므로 버퍼를 제거하고 다음 조회 때 다시 채운다.
+ */
+@Component
+public class ChatMessageTailCache {
+
+    private static final int STRIPE_COUNT = 32;
+
+    // 객체 헤더, 필드, LocalDateTime, Long 객체를 포함한 ChatDTO 하나의 추정 크기 (문자열 제외)
+    private static final long MESSAGE_OVERHEAD_BYTES = 160;
+
+    // 문자열 하나의 추정 크기 (문자 배열 제외)
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    // 맵 항목과 RoomTail 객체의 추정 크기 (링 버퍼 배열 제외)
+    private static final long ROOM_OVERHEAD_BYTES = 96;
+
+    @Getter
+    private final int roomCapacity;
+
+    // 빈 채팅방 버퍼 하나의 추정 크기
+    private final long roomBytes;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ChatMessageTailCache(MeterRegistry meterRegistry,
+                                @Value("${chat.tail-cache.room-capacity:50}") int roomCapacity,
+                                @Value("${chat.tail-cache.max-bytes:67108864}") long maxBytes) {
+        this.roomCapacity = roomCapacity;
+        this.roomBytes = ROOM_OVERHEAD_BYTES + 8L * roomCapacity;
+
+        long stripeMaxBytes = Math.max(1, maxBytes / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(stripeMaxBytes);
+        }
+
+        meterRegistry.gauge("chat.tail-cache.rooms", this, ChatMessageTailCache::size);
+        meterRegistry.gauge("chat.tail-cache.entries", this, ChatMessageTailCache::totalEntries);
+        meterRegistry.gauge("chat.tail-cache.bytes", this, ChatMessageTailCache::totalBytes);
+        this.hitCounter = meterRegistry.counter("chat.tail-cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("chat.tail-cache.requests", "result", "miss");
+    }
+
+    /**
+     * 채팅방의 최근 메시지를 캐시에서 조회하는 메서드이다.
+     * 캐시에 없으면 빈 값을 반환하고, 이후 커밋되는 메시지를 받기 위해 빈 버퍼를 만들어 둔다.
+     * 이 경우 호출한 쪽은 데이터베이스에서 최근 메시지를 읽어 {@link #seed}로 버퍼를 채워야 한다.
+     * @param chatRoomId 채팅방 ID
+     * @param size 조회할 메시지 수 (roomCapacity 이하)
+     * @return 작성순으로 정렬된 최근 메시지 목록. hasNext는 더 이전 메시지가 있는지를 나타낸다.
+     */
+    public Optional<Slice<ChatDTO>> findLatest(Long chatRoomId, int size) {
+        Stripe stripe = stripeOf(chatRoomId);
+        List<ChatDTO> content;
+        boolean hasNext;
+
+        synchronized (stripe) {
+            RoomTail tail = stripe.rooms.get(chatRoomId);
+
+            if (tail == null || !tail.seeded || size > roomCapacity) {
+                if (tail == null) {
+                    stripe.put(chatRoomId, new RoomTail(roomCapacity, roomBytes));
+                }
+                content = null;
+                hasNext = false;
+            } else {
+                content = tail.latest(size);
+                hasNext = tail.size > size || tail.hasOlder;
+            }
+        }
+
+        if (content == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+
+        hitCounter.increment();
+        return Optional.of(new SliceImpl<>(content, PageRequest.of(0, size), hasNext));
+    }
+
+    /**
+     * 데이터베이스에서 읽은 최근 메시지로 채팅방 버퍼를 채우는 메서드이다.
+     * 버퍼가 만들어진 뒤 추가된 메시지와 ID 기준으로 병합한다.
+     * @param chatRoomId 채팅방 ID
+     * @param latestFirst 최근순으로 정렬된 메시지 목록 (roomCapacity + 1개까지 조회한 결과)
+     */
+    public void seed(Long chatRoomId, List<ChatDTO> latestFirst) {
+        Stripe stripe = stripeOf(chatRoomId);
+
+        synchronized (stripe) {
+            RoomTail tail = stripe.rooms.get(chatRoomId);
+            if (tail == null || tail.seeded) {
+                return;
+            }
+
+            TreeMap<Long, ChatDTO> merged = new TreeMap<>();
+            latestFirst.forEach(message -> merged.put(message.getMessageId(), message));
+            tail.latest(tail.size).forEach(message -> merged.put(message.getMessageId(), message));
+
+            long before = tail.bytes;
+            tail.clear();
+
+            int skip = Math.max(0, merged.size() - roomCapacity);
+            Iterator<ChatDTO> iterator = merged.values().iterator();
+            for (int i = 0; i < skip; i++) {
+                iterator.next();
+            }
+            while (iterator.hasNext()) {
+                tail.add(iterator.next());
+            }
+
+            tail.hasOlder = merged.size() > roomCapacity || latestFirst.size() > roomCapacity;
+            tail.seeded = true;
+
+            stripe.resized(tail.bytes - before);
+        }
+    }
+
+    /**
+     * 저장이 커밋된 메시지를 채팅방 버퍼에 추가하는 메서드이다. 버퍼가 없는 채팅방은 캐시하지 않는다.
+     * 버퍼에 이미 있는 메시지는 다시 추가하지 않는다.
+     * @param message 메시지 ID가 부여된 채팅 메시지
+     */
+    public void append(ChatDTO message) {
+        Stripe stripe = stripeOf(message.getChatRoomId());
+
+        synchronized (stripe) {
+            RoomTail tail = stripe.rooms.get(message.getChatRoomId());
+            if (tail == null || tail.contains(message.getMessageId())) {
+                return;
+            }
+
+            // 채운 버퍼의 마지막 메시지보다 이전 메시지는 순서대로 넣을 수 없으므로 다시 채운다.
+            if (tail.seeded && tail.size > 0 && message.getMessageId() <= tail.lastMessageId()) {
+                stripe.rooms.remove(message.getChatRoomId());
+                stripe.bytes -= tail.bytes;
+                return;
+            }
+
+            long before = tail.bytes;
+            tail.add(message);
+            stripe.resized(tail.bytes - before);
+        }
+    }
+
+    /**
+     * 채팅방 버퍼를 제거하는 메서드이다. 다음 조회 때 데이터베이스에서 다시 채워진다.
+     * 다른 서버에서 저장된 메시지처럼 내용을 알 수 없는 메시지가 커밋되었을 때 사용한다.
+     * @param chatRoomId 채팅방 ID
+     */
+    public void evict(Long chatRoomId) {
+        Stripe stripe = stripeOf(chatRoomId);
+
+        synchronized (stripe) {
+            RoomTail tail = stripe.rooms.remove(chatRoomId);
+            if (tail != null) {
+                stripe.bytes -= tail.bytes;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.rooms.size();
+            }
+        }
+        return size;
+    }
+
+    public long totalEntries() {
+        long entries = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (RoomTail tail : stripe.rooms.values()) {
+                    entries += tail.size;
+                }
+            }
+        }
+        return entries;
+    }
+
+    public long totalBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    private Stripe stripeOf(Long chatRoomId) {
+        return stripes[Math.floorMod(Long.hashCode(chatRoomId), STRIPE_COUNT)];
+    }
+
+    /**
+     * 메시지 하나가 차지하는 메모리를 추정하는 메서드이다.
+     * 한글이 포함된 문자열은 문자당 2바이트로 저장되므로, 모든 문자열을 문자당 2바이트로 계산한다.
+     */
+    static long estimateBytes(ChatDTO message) {
+        return MESSAGE_OVERHEAD_BYTES
+                + estimateBytes(message.getContent())
+                + estimateBytes(message.getSender())
+                + estimateBytes(message.getClientMessageId());
+    }
+
+    private static long estimateBytes(String value) {
+        return (value != null) ? STRING_OVERHEAD_BYTES + 2L * value.length() : 0L;
+    }
+
+    /**
+     * 채팅방 ID 구획 하나이다. 접근 순서로 정렬되어 가장 오래 사용되지 않은 채팅방이 맨 앞에 온다.
+     * 모든 필드는 구획 객체의 잠금을 잡은 상태에서만 접근한다.
+     */
+    private static class Stripe {
+
+        private final long maxBytes;
+
+        private final LinkedHashMap<Long, RoomTail> rooms = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long bytes = 0;
+
+        Stripe(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        void put(Long chatRoomId, RoomTail tail) {
+            rooms.put(chatRoomId, tail);
+            resized(tail.bytes);
+        }
+
+        /**
+         * 구획의 추정 크기를 갱신하고, 상한을 넘으면 가장 오래 사용되지 않은 채팅방부터 제거한다.
+         * 방금 사용한 채팅방은 맨 뒤에 있으므로, 채팅방 하나가 상한보다 크지 않은 한 제거되지 않는다.
+         */
+        void resized(long delta) {
+            bytes += delta;
+
+            Iterator<RoomTail> iterator = rooms.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().bytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 한 채팅방의 최근 메시지를 보관하는 링 버퍼이다.
+     */
+    private static class RoomTail {
+
+        private final ChatDTO[] slots;
+
+        private final long emptyBytes;
+
+        // 가장 오래된 메시지의 위치
+        private int head = 0;
+
+        private int size = 0;
+
+        // 버퍼와 버퍼에 담긴 메시지의 추정 크기
+        private long bytes;
+
+        // 버퍼에서 밀려난 더 이전 메시지가 있는지 여부
+        private boolean hasOlder = false;
+
+        private boolean seeded = false;
+
+        RoomTail(int capacity, long emptyBytes) {
+            this.slots = new ChatDTO[capacity];
+            this.emptyBytes = emptyBytes;
+            this.bytes = emptyBytes;
+        }
+
+        /**
+         * 메시지를 버퍼 끝에 추가한다. 버퍼가 가득 차면 가장 오래된 메시지를 덮어쓴다.
+         */
+        void add(ChatDTO message) {
+            bytes += estimateBytes(message);
+
+            if (size < slots.length) {
+                slots[(head + size) % slots.length] = message;
+                size++;
+                return;
+            }
+
+            bytes -= estimateBytes(slots[head]);
+            slots[head] = message;
+            head = (head + 1) % slots.length;
+            hasOlder = true;
+        }
+
+        boolean contains(Long messageId) {
+            for (int i = 0; i < size; i++) {
+                if (slots[(head + i) % slots.length].getMessageId().equals(messageId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long lastMessageId() {
+            return slots[(head + size - 1) % slots.length].getMessageId();
+        }
+
+        /**
+         * 가장 최근 메시지 count개를 작성순으로 반환한다.
+         */
+        List<ChatDTO> latest(int count) {
+            int n = Math.min(count, size);
+            List<ChatDTO> result = new ArrayList<>(n);
+            for (int i = size - n; i < size; i++) {
+                result.add(slots[(head + i) % slots.length]);
+            }
+            return result;
+        }
+
+        void clear() {
+            Arrays.fill(slots, null);
+            head = 0;
+            size = 0;
+            bytes = emptyBytes;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.iglooclub.nungil.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 회원의 접속 상태를 관리하는 인터페이스이다.
+ * STOMP CONNECT, DISCONNECT 시 ChatPreHandler가 갱신하며, 연결된 STOMP 세션이 하나라도 있는 회원을 접속 중으로 본다.
+ * chat.broker.mode 설정에 따라 현재 서버의 세션만 보거나(simple), Redis에 모아 모든 서버의 세션을 본다(redis).
+ */
+public interface ChatPresenceService {
+
+    /**
+     * 회원의 STOMP 세션이 연결되었음을 기록하는 메서드이다.
+     * @param memberId 회원 ID
+     * @param sessionId STOMP 세션 ID
+     */
+    void connect(Long memberId, String sessionId);
+
+    /**
+     * STOMP 세션이 종료되었음을 기록하는 메서드이다.
+     * 클라이언트의 DISCONNECT 프레임과 연결 종료 시 두 번 호출될 수 있다.
+     * @param sessionId STOMP 세션 ID
+     */
+    void disconnect(String sessionId);
+
+    /**
+     * 주어진 회원 중 접속 중인 회원을 조회하는 메서드이다.
+     * @param memberIds 회원 ID 목록
+     * @return 연결된 STOMP 세션이 있는 회원 ID
+     */
+    Set<Long> findOnlineMembers(Collection<Long> memberIds);
+}
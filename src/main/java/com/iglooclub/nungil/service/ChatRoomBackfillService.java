@@ -0,0 +1,68 @@
+package com.iglooclub.nungil.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 마지막 메시지 정보가 비어 있는 채팅방에 chat_message의 마지막 메시지를 한 번 채워 넣는 서비스이다.
+ *
+ * 마지막 메시지 정보는 메시지를 저장할 때 갱신되므로, 그 컬럼이 추가되기 전에 만들어진 채팅방만 채우면 된다.
+ * 채팅방을 ID 순서의 청크로 나누어 청크마다 따로 커밋하며, 이미 채워진 채팅방은 건너뛰므로 여러 서버가 동시에 실행하거나
+ * 중간에 중단된 뒤 다시 실행해도 안전하다. 모두 채워진 뒤에는 메시지가 없는 채팅방만 다시 확인한다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "chat.room.last-message-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class ChatRoomBackfillService {
+
+    private static final String SELECT_SQL = "select id from chat_room where id > ? and last_message_at is null and archived_at is null order by id limit ?";
+
+    private static final String UPDATE_SQL = "update chat_room r " +
+            "join (select chatroom_id, max(id) as last_id from chat_message where chatroom_id in (%s) group by chatroom_id) l on l.chatroom_id = r.id " +
+            "join chat_message m on m.id = l.last_id " +
+            "set r.last_message_content = m.content, r.last_message_at = m.created_at, r.last_sender_id = m.member_id " +
+            "where r.last_message_at is null";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int chunkSize;
+
+    public ChatRoomBackfillService(JdbcTemplate jdbcTemplate,
+                                   @Value("${chat.room.last-message-backfill.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 서버가 시작되면 마지막 메시지 정보가 비어 있는 채팅방을 채운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLastMessage() {
+        long lastId = 0L;
+        int updatedRooms = 0;
+
+        List<Long> chatRoomIds;
+        do {
+            chatRoomIds = jdbcTemplate.queryForList(SELECT_SQL, Long.class, lastId, chunkSize);
+            if (chatRoomIds.isEmpty()) {
+                break;
+            }
+
+            String placeholders = String.join(",", Collections.nCopies(chatRoomIds.size(), "?"));
+            updatedRooms += jdbcTemplate.update(String.format(UPDATE_SQL, placeholders), chatRoomIds.toArray());
+            lastId = chatRoomIds.get(chatRoomIds.size() - 1);
+        } while (chatRoomIds.size() >= chunkSize);
+
+        if (updatedRooms > 0) {
+            log.info("Backfilled the last message of {} chat rooms", updatedRooms);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.iglooclub.nungil.service;
+
+import java.util.SortedSet;
+
+/**
+ * 채팅방별 메시지 순번을 할당하는 인터페이스이다.
+ * 순번은 채팅방마다 1부터 증가하며, 저장에 실패한 메시지의 순번은 다시 사용하지 않으므로 중간이 비어 있을 수 있다.
+ * chat.broker.mode 설정에 따라 현재 서버의 메모리(simple) 또는 chat_room 테이블(redis)에서 할당한다.
+ *
+ * 두 메서드 모두 메시지를 저장하는 트랜잭션 안에서 호출해야 한다.
+ */
+public interface ChatSequenceAllocator {
+
+    /**
+     * 채팅방들의 순번 할당을 현재 트랜잭션이 끝날 때까지 독점하는 메서드이다.
+     * 여러 서버가 같은 채팅방의 메시지를 저장할 때, 잠근 뒤에 확인한 중복과 할당한 순번이 커밋 순서와 어긋나지 않도록 한다.
+     * 채팅방 ID 오름차순으로 잠가 서로 다른 배치가 교착 상태에 빠지지 않도록 한다.
+     * 한 채팅방의 메시지를 항상 한 작업자가 처리하는 서버 한 대에서는 잠글 필요가 없다.
+     * @param chatRoomIds 배치에 포함된 채팅방 ID
+     */
+    default void lock(SortedSet<Long> chatRoomIds) {
+    }
+
+    /**
+     * 채팅방의 연속된 순번을 할당하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param count 할당할 순번 수
+     * @return 할당된 첫 번째 순번
+     */
+    long allocate(Long chatRoomId, int count);
+}
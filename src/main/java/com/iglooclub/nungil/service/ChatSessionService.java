@@ -0,0 +1,58 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.domain.ChatSession;
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@Service
+@Transactional(readOnly = true)
+public class ChatSessionService {
+
+    private final MemberService memberService;
+
+    private final ChatRoomRepository chatRoomRepository;
+
+    /**
+     * STOMP CONNECT 시 인증된 회원의 채팅 세션을 생성하는 메서드이다.
+     * 회원이 참여 중인 채팅방 ID를 함께 조회하여 세션에 저장한다.
+     * @param memberId 인증된 회원 ID
+     * @return 채팅 세션
+     */
+    public ChatSession open(Long memberId) {
+        Member member = memberService.findById(memberId);
+        return ChatSession.create(member, chatRoomRepository.findIdsByMemberId(memberId));
+    }
+
+    /**
+     * 세션의 회원이 주어진 채팅방의 일원인지 확인하는 메서드이다.
+     * 세션에 없는 채팅방(CONNECT 이후 생성된 채팅방 등)만 데이터베이스에서 확인하고, 참여 중이면 세션에 추가한다.
+     * @param chatSession 채팅 세션
+     * @param chatRoomId 채팅방 ID
+     * @return 채팅방에 속해있는지 여부
+     */
+    public boolean checkRoomMember(ChatSession chatSession, Long chatRoomId) {
+        if (chatRoomId == null) {
+            return false;
+        }
+
+        if (chatSession.isRoomMember(chatRoomId)) {
+            return true;
+        }
+
+        Set<Long> memberIds = chatRoomRepository.findMemberIdsByIds(Collections.singleton(chatRoomId))
+                .getOrDefault(chatRoomId, Collections.emptySet());
+        if (!memberIds.contains(chatSession.getMemberId())) {
+            return false;
+        }
+
+        chatSession.addRoom(chatRoomId);
+        return true;
+    }
+}
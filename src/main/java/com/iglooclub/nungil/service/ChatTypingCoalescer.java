@@ -0,0 +1,111 @@
+package com.iglooclub.nungil.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * 입력 중 이벤트를 채팅방별로 모아서 발행하는 클래스이다.
+ *
+ * 입력 중 이벤트는 키 입력마다 올 수 있으므로 바로 발행하지 않고, window-millis 구간 동안 채팅방별로 입력 중인 회원을 모은다.
+ * 구간이 끝날 때마다 이벤트가 있었던 채팅방에만 /topic/{채팅방 ID}/typing으로 한 번 발행하므로,
+ * 채팅방마다 구간당 최대 한 번만 발행된다. 서버가 여러 대이면 ChatBroadcaster가 Redis에서 서버별 회원을 합쳐 한 서버만 발행한다.
+ * 데이터베이스에는 저장하지 않는다.
+ * 클라이언트는 입력 중 표시를 몇 초 뒤 스스로 지우며, 입력이 계속되면 다음 발행으로 다시 표시한다.
+ *
+ * 구간 작업은 브로커 하트비트와 같은 스케줄러에서 실행하여, 오래 걸리는 배치 작업(@Scheduled)에 밀리지 않도록 한다.
+ */
+@Slf4j
+@Component
+public class ChatTypingCoalescer {
+
+    private final ChatBroadcaster chatBroadcaster;
+
+    private final TaskScheduler taskScheduler;
+
+    private final long windowMillis;
+
+    // 채팅방 ID -> 현재 구간 동안 입력 중이었던 회원 ID
+    private final Map<Long, Set<Long>> pending = new ConcurrentHashMap<>();
+
+    private final Counter receivedCounter;
+    private final Counter broadcastCounter;
+
+    private ScheduledFuture<?> flushTask;
+
+    // 메시지 브로커 설정이 끝난 뒤에 생성되는 빈이므로 지연 주입한다.
+    public ChatTypingCoalescer(ChatBroadcaster chatBroadcaster,
+                               @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler,
+                               MeterRegistry meterRegistry,
+                               @Value("${chat.typing.window-millis:300}") long windowMillis) {
+        this.chatBroadcaster = chatBroadcaster;
+        this.taskScheduler = taskScheduler;
+        this.windowMillis = windowMillis;
+
+        this.receivedCounter = meterRegistry.counter("chat.typing.received");
+        this.broadcastCounter = meterRegistry.counter("chat.typing.broadcast");
+    }
+
+    @PostConstruct
+    public void start() {
+        flushTask = taskScheduler.scheduleAtFixedRate(this::flush, Duration.ofMillis(windowMillis));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+    }
+
+    /**
+     * 회원이 채팅방에서 입력 중임을 기록하는 메서드이다.
+     * 채팅방의 일원인지는 호출하는 쪽에서 미리 확인해야 한다.
+     * @param chatRoomId 채팅방 ID
+     * @param memberId 입력 중인 회원 ID
+     */
+    public void typing(Long chatRoomId, Long memberId) {
+        receivedCounter.increment();
+        pending.compute(chatRoomId, (id, memberIds) -> {
+            Set<Long> updated = (memberIds != null) ? memberIds : new HashSet<>(2);
+            updated.add(memberId);
+            return updated;
+        });
+    }
+
+    /**
+     * 현재 구간 동안 모인 입력 중 이벤트를 채팅방별로 모아 발행하는 메서드이다.
+     */
+    void flush() {
+        Map<Long, Set<Long>> typingMembers = new HashMap<>();
+        for (Long chatRoomId : pending.keySet()) {
+            // 꺼낸 뒤에 들어온 이벤트는 새 항목에 모여 다음 구간에 발행된다.
+            Set<Long> memberIds = pending.remove(chatRoomId);
+            if (memberIds != null) {
+                typingMembers.put(chatRoomId, memberIds);
+            }
+        }
+
+        try {
+            long window = System.currentTimeMillis() / windowMillis;
+            broadcastCounter.increment(chatBroadcaster.typing(window, typingMembers));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast typing events of {} chat rooms", typingMembers.size(), e);
+        }
+    }
+}
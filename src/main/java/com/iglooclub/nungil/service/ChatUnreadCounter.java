@@ -0,0 +1,215 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.repository.ChatMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 회원별 안 읽은 메시지를 메모리에서 관리하는 카운터이다.
+ * 회원마다 마지막으로 읽은 메시지 ID, 세고 있는 안 읽은 메시지 중 가장 큰 ID(최고 수위), 안 읽은 메시지 수만 보관하며,
+ * 메시지 저장과 읽음 처리 시 갱신된다. 채팅방 목록 조회 시 메시지 테이블을 세지 않고 안 읽은 메시지 수를 반환한다.
+ *
+ * (채팅방, 회원) 항목은 처음 조회될 때 데이터베이스에서 한 번 채워진다.
+ * 항목을 먼저 만든 뒤 데이터베이스를 읽으므로, 그 사이에 저장된 메시지는 둘 중 한 곳에는 반드시 포함되고 ID로 중복이 제거된다.
+ * 최고 수위보다 앞의 메시지까지만 읽은 경우에는 남은 수를 알 수 없으므로, 다음 조회 때 데이터베이스에서 다시 채운다.
+ * idle-ttl 동안 조회되지 않은 항목은 주기적으로 제거된다.
+ *
+ * 데이터베이스에서는 최근 안 읽은 메시지를 UNREAD_COUNT_LIMIT개까지만 읽으므로, 안 읽은 메시지 수도 UNREAD_COUNT_LIMIT에서 멈춘다.
+ * (UNREAD_COUNT_LIMIT이면 그 이상 안 읽었다는 뜻이다)
+ */
+@Component
+public class ChatUnreadCounter {
+
+    public static final int UNREAD_COUNT_LIMIT = 100;
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    private final long idleTtlMillis;
+
+    // 채팅방 ID -> (회원 ID -> 안 읽은 메시지)
+    private final Map<Long, Map<Long, Unread>> rooms = new ConcurrentHashMap<>();
+
+    public ChatUnreadCounter(ChatMessageRepository chatMessageRepository,
+                             @Value("${chat.unread.idle-ttl-millis:1800000}") long idleTtlMillis) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.idleTtlMillis = idleTtlMillis;
+    }
+
+    /**
+     * 회원이 채팅방에서 읽지 않은 메시지 수를 반환하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param memberId 회원 ID
+     * @param lastReadMessageId 데이터베이스에 저장된 마지막으로 읽은 메시지 ID
+     * @return 안 읽은 메시지 수 (UNREAD_COUNT_LIMIT 이하)
+     */
+    public int getUnreadCount(Long chatRoomId, Long memberId, Long lastReadMessageId) {
+        Unread unread = rooms.computeIfAbsent(chatRoomId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(memberId, id -> new Unread());
+
+        long now = System.currentTimeMillis();
+        if (!unread.isLoaded(now)) {
+            Long readMessageId = unread.lastReadMessageId(lastReadMessageId);
+            List<Long> unreadMessageIds = chatMessageRepository.findUnreadMessageIds(chatRoomId, memberId, readMessageId, UNREAD_COUNT_LIMIT);
+            unread.load(unreadMessageIds, readMessageId);
+        }
+
+        return unread.count();
+    }
+
+    /**
+     * 저장이 커밋된 메시지를 발행자를 제외한 채팅방 회원의 안 읽은 메시지에 추가하는 메서드이다.
+     * @param message 메시지 ID가 부여된 채팅 메시지
+     */
+    public void increment(ChatDTO message) {
+        increment(message.getChatRoomId(), message.getMessageId(), message.getSenderId());
+    }
+
+    /**
+     * 저장이 커밋된 메시지를 발행자를 제외한 채팅방 회원의 안 읽은 메시지에 추가하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param messageId 메시지 ID
+     * @param senderId 발행자 ID
+     */
+    public void increment(Long chatRoomId, Long messageId, Long senderId) {
+        Map<Long, Unread> members = rooms.get(chatRoomId);
+        if (members == null) {
+            return;
+        }
+
+        members.forEach((memberId, unread) -> {
+            if (!memberId.equals(senderId)) {
+                unread.add(messageId);
+            }
+        });
+    }
+
+    /**
+     * 회원이 주어진 메시지까지 읽었음을 반영하는 메서드이다.
+     * @param chatRoomId 채팅방 ID
+     * @param memberId 회원 ID
+     * @param lastReadMessageId 마지막으로 읽은 메시지 ID
+     */
+    public void markRead(Long chatRoomId, Long memberId, Long lastReadMessageId) {
+        Map<Long, Unread> members = rooms.get(chatRoomId);
+        if (members == null) {
+            return;
+        }
+
+        Unread unread = members.get(memberId);
+        if (unread != null) {
+            unread.markRead(lastReadMessageId);
+        }
+    }
+
+    /**
+     * idle-ttl 동안 조회되지 않은 항목을 제거하는 메서드이다.
+     * 제거된 항목은 다음 조회 때 데이터베이스에서 다시 채워진다.
+     */
+    @Scheduled(fixedDelayString = "${chat.unread.sweep-interval-millis:300000}")
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleTtlMillis;
+
+        for (Long chatRoomId : rooms.keySet()) {
+            rooms.computeIfPresent(chatRoomId, (id, members) -> {
+                members.values().removeIf(unread -> unread.isIdleSince(threshold));
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+
+    private static class Unread {
+
+        private long lastReadMessageId = 0;
+
+        // 세고 있는 안 읽은 메시지 중 가장 큰 ID
+        private long highWaterMessageId = 0;
+
+        private int count = 0;
+
+        private boolean loaded = false;
+
+        // 채워지기 전에 추가된 메시지 ID (데이터베이스에서 읽은 메시지와 중복을 제거한 뒤 버린다)
+        private List<Long> pendingMessageIds = new ArrayList<>();
+
+        private long lastAccessMillis = System.currentTimeMillis();
+
+        synchronized boolean isLoaded(long now) {
+            lastAccessMillis = now;
+            return loaded;
+        }
+
+        synchronized boolean isIdleSince(long threshold) {
+            return lastAccessMillis < threshold;
+        }
+
+        /**
+         * 데이터베이스에 저장된 값과 메모리의 값 중 더 뒤의 마지막으로 읽은 메시지 ID를 반환한다.
+         */
+        synchronized Long lastReadMessageId(Long dbLastReadMessageId) {
+            long dbValue = (dbLastReadMessageId != null) ? dbLastReadMessageId : 0L;
+            long lastRead = Math.max(dbValue, lastReadMessageId);
+            return (lastRead > 0) ? lastRead : null;
+        }
+
+        synchronized void load(List<Long> unreadMessageIds, Long dbLastReadMessageId) {
+            if (loaded) {
+                return;
+            }
+
+            if (dbLastReadMessageId != null) {
+                lastReadMessageId = Math.max(lastReadMessageId, dbLastReadMessageId);
+            }
+
+            Set<Long> loadedIds = new HashSet<>(unreadMessageIds);
+            count = 0;
+            highWaterMessageId = 0;
+            unreadMessageIds.forEach(this::countUnread);
+            pendingMessageIds.stream()
+                    .filter(messageId -> !loadedIds.contains(messageId))
+                    .forEach(this::countUnread);
+
+            pendingMessageIds = null;
+            loaded = true;
+        }
+
+        synchronized void add(Long messageId) {
+            if (!loaded) {
+                pendingMessageIds.add(messageId);
+                return;
+            }
+            countUnread(messageId);
+        }
+
+        synchronized void markRead(Long messageId) {
+            if (messageId <= lastReadMessageId) {
+                return;
+            }
+            lastReadMessageId = messageId;
+
+            if (messageId >= highWaterMessageId) {
+                count = 0;
+                highWaterMessageId = 0;
+            } else if (loaded) {
+                // 읽지 않고 남은 메시지 수를 알 수 없으므로 다음 조회 때 다시 채운다.
+                loaded = false;
+                pendingMessageIds = new ArrayList<>();
+            }
+        }
+
+        synchronized int count() {
+            return Math.min(count, UNREAD_COUNT_LIMIT);
+        }
+
+        private void countUnread(long messageId) {
+            if (messageId > lastReadMessageId) {
+                count++;
+                highWaterMessageId = Math.max(highWaterMessageId, messageId);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.iglooclub.nungil.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.SortedSet;
+
+/**
+ * chat_room.last_seq를 갱신하여 순번을 할당하는 구현체이다. 서버가 여러 대일 때 사용한다.
+ *
+ * 메시지를 저장하는 트랜잭션 안에서 채팅방 행을 잠그고 last_seq를 증가시키므로, 같은 채팅방의 배치는 서버와 관계없이 한 번에 하나씩 커밋된다.
+ * 따라서 순번은 커밋 순서대로 증가하며, 클라이언트가 순번 n을 받았다면 n보다 작은 순번의 메시지는 이미 커밋되어 있다.
+ * 저장이 롤백되면 할당된 순번도 함께 롤백된다.
+ */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+public class DatabaseChatSequenceAllocator implements ChatSequenceAllocator {
+
+    private static final String LOCK_SQL = "select id from chat_room where id in (%s) order by id for update";
+
+    private static final String INCREMENT_SQL = "update chat_room set last_seq = coalesce(last_seq, 0) + ? where id = ?";
+
+    private static final String SELECT_SQL = "select last_seq from chat_room where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void lock(SortedSet<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) {
+            return;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(chatRoomIds.size(), "?"));
+        jdbcTemplate.queryForList(String.format(LOCK_SQL, placeholders), Long.class, chatRoomIds.toArray());
+    }
+
+    @Override
+    public long allocate(Long chatRoomId, int count) {
+        jdbcTemplate.update(INCREMENT_SQL, count, chatRoomId);
+        long last = Objects.requireNonNull(jdbcTemplate.queryForObject(SELECT_SQL, Long.class, chatRoomId));
+        return last - count + 1;
+    }
+}
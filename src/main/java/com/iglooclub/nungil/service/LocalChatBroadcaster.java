@@ -0,0 +1,61 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.dto.ChatReadDTO;
+import com.iglooclub.nungil.dto.ChatTypingDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 현재 서버에만 반영하는 구현체이다. 서버가 한 대일 때 사용한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "simple", matchIfMissing = true)
+public class LocalChatBroadcaster implements ChatBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final ChatFrameCodec chatFrameCodec;
+
+    private final ChatMessageTailCache chatMessageTailCache;
+
+    private final ChatUnreadCounter chatUnreadCounter;
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        messagingTemplate.send(destination, chatFrameCodec.toMessage(chatFrameCodec.encode(payload)));
+    }
+
+    @Override
+    public void messagePersisted(ChatDTO message) {
+        chatMessageTailCache.append(message);
+        chatUnreadCounter.increment(message);
+    }
+
+    @Override
+    public void messageRead(ChatReadDTO receipt) {
+        chatUnreadCounter.markRead(receipt.getChatRoomId(), receipt.getMemberId(), receipt.getMessageId());
+    }
+
+    @Override
+    public int typing(long window, Map<Long, Set<Long>> typingMembers) {
+        int broadcastRooms = 0;
+        for (Map.Entry<Long, Set<Long>> entry : typingMembers.entrySet()) {
+            try {
+                broadcast("/topic/" + entry.getKey() + "/typing", ChatTypingDTO.of(entry.getKey(), entry.getValue()));
+                broadcastRooms++;
+            } catch (Exception e) {
+                log.warn("Failed to broadcast typing event of chat room {}", entry.getKey(), e);
+            }
+        }
+        return broadcastRooms;
+    }
+}
@@ -0,0 +1,63 @@
+package com.iglooclub.nungil.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 회원의 접속 상태를 메모리에서 관리하는 구현체이다. 서버가 한 대일 때 사용한다.
+ * 데이터베이스에는 저장하지 않으며, 현재 서버에 연결된 세션만 알 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "simple", matchIfMissing = true)
+public class LocalChatPresenceService implements ChatPresenceService {
+
+    // 회원 ID -> 연결된 STOMP 세션 ID
+    private final Map<Long, Set<String>> memberSessions = new ConcurrentHashMap<>();
+
+    // STOMP 세션 ID -> 회원 ID (DISCONNECT 프레임에는 회원 정보가 없을 수 있으므로 세션 ID로 찾는다)
+    private final Map<String, Long> sessionMembers = new ConcurrentHashMap<>();
+
+    public LocalChatPresenceService(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("chat.presence.members", memberSessions, Map::size);
+    }
+
+    @Override
+    public void connect(Long memberId, String sessionId) {
+        if (sessionMembers.putIfAbsent(sessionId, memberId) != null) {
+            return;
+        }
+
+        memberSessions.compute(memberId, (id, sessions) -> {
+            Set<String> updated = (sessions != null) ? sessions : ConcurrentHashMap.newKeySet();
+            updated.add(sessionId);
+            return updated;
+        });
+    }
+
+    @Override
+    public void disconnect(String sessionId) {
+        Long memberId = sessionMembers.remove(sessionId);
+        if (memberId == null) {
+            return;
+        }
+
+        memberSessions.computeIfPresent(memberId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    @Override
+    public Set<Long> findOnlineMembers(Collection<Long> memberIds) {
+        return memberIds.stream()
+                .filter(memberSessions::containsKey)
+                .collect(Collectors.toSet());
+    }
+}
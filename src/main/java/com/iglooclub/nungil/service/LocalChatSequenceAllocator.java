@@ -0,0 +1,34 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 현재 서버의 메모리에서 순번을 할당하는 구현체이다. 서버가 한 대일 때 사용한다.
+ * 채팅방의 카운터는 처음 사용될 때 chat_room.last_seq로 초기화되며, 이후에는 잠금 없이 증가한다.
+ */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "simple", matchIfMissing = true)
+public class LocalChatSequenceAllocator implements ChatSequenceAllocator {
+
+    private final ChatRoomRepository chatRoomRepository;
+
+    // 채팅방 ID -> 마지막으로 할당된 순번
+    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long allocate(Long chatRoomId, int count) {
+        AtomicLong counter = counters.get(chatRoomId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(chatRoomId, id -> new AtomicLong(chatRoomRepository.findLastSeqById(id)));
+        }
+        return counter.addAndGet(count) - count + 1;
+    }
+}
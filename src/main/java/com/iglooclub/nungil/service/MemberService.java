@@ -2,19 +2,22 @@ package com.iglooclub.nungil.service;
 
 import com.iglooclub.nungil.domain.*;
 import com.iglooclub.nungil.domain.enums.*;
+import com.iglooclub.nungil.domain.events.MemberProfileUpdatedEvent;
 import com.iglooclub.nungil.dto.*;
 import com.iglooclub.nungil.exception.CompanyErrorResult;
 import com.iglooclub.nungil.exception.GeneralException;
 import com.iglooclub.nungil.exception.GlobalErrorResult;
 import com.iglooclub.nungil.exception.MemberErrorResult;
+import com.iglooclub.nungil.exception.NungilErrorResult;
 import com.iglooclub.nungil.repository.*;
 import com.iglooclub.nungil.util.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,6 +40,8 @@ public class MemberService {
 
     private final CoolSMS coolSMS;
 
+    private final ApplicationEventPublisher publisher;
+
     public Member findById(Long memberId) {
         return memberRepository.findById(memberId)
                 .orElseThrow(() -> new GeneralException(MemberErrorResult.USER_NOT_FOUND));
@@ -60,11 +65,23 @@ public class MemberService {
     public void updateProfile(Member member, ProfileUpdateRequest request) {
 
         member.updateProfile(request);
+        publishProfileUpdated(member);
     }
 
     @Transactional
     public void updateSchedule(Member member, ScheduleUpdateRequest request) {
         member.updateSchedule(request.getAvailableTimeList(), request.getMarkerList());
+        publishProfileUpdated(member);
+    }
+
+    /**
+     * 변경된 회원 정보의 스냅샷을 발행하여, 커밋 이후 추천 후보 인덱스가 갱신되도록 하는 메서드이다.
+     * 회원의 프로필이나 일정을 바꾸는 모든 트랜잭션에서 호출해야 한다.
+     * @param member 프로필 또는 일정이 변경된 회원
+     */
+    public void publishProfileUpdated(Member member) {
+        RecommendationCandidate candidate = RecommendationCandidate.of(member, CompatibilityProfile.of(member));
+        publisher.publishEvent(new MemberProfileUpdatedEvent(candidate));
     }
 
     /**
@@ -141,13 +158,19 @@ public class MemberService {
     }
 
     /**
-     * 매일 자정에 drawCount = 0으로 초기화
-     *
+     * 오늘의 인연 프로필 뽑기 횟수를 1 증가시키는 메서드이다.
+     * 날짜가 바뀌면 횟수가 자동으로 초기화되므로, 자정에 전체 회원을 갱신할 필요가 없다.
+     * @param member 뽑기를 요청한 회원
+     * @param limit 하루 최대 뽑기 횟수
+     * @return 갱신된 횟수가 반영된 회원 엔티티 (갱신 후 영속성 컨텍스트가 비워지므로, 이전 엔티티 대신 사용해야 한다)
      */
-    @Scheduled(cron = "0 0 0 * * *") // 매일 자정에 실행
     @Transactional
-    public void initMemberDrawCount() {
-        memberRepository.initDrawCount();
+    public Member increaseDrawCount(Member member, long limit) {
+        int updated = memberRepository.increaseDrawCount(member.getId(), LocalDate.now(), limit);
+        if (updated == 0) {
+            throw new GeneralException(NungilErrorResult.LIMIT_EXCEEDED);
+        }
+        return findById(member.getId());
     }
 
 
@@ -13,6 +13,7 @@ import com.iglooclub.nungil.repository.AcquaintanceRepository;
 import com.iglooclub.nungil.repository.ChatRoomRepository;
 import com.iglooclub.nungil.repository.MemberRepository;
 import com.iglooclub.nungil.repository.NungilRepository;
+import com.iglooclub.nungil.util.CompatibilityCalculator;
 import com.iglooclub.nungil.util.CoolSMS;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
@@ -37,17 +38,21 @@ public class NungilService {
 
     private final MemberService memberService;
 
+    private final RecommendationService recommendationService;
+
     private final CoolSMS coolSMS;
 
+    private final CompatibilityCalculator compatibilityCalculator;
+
     private final ApplicationEventPublisher publisher;
 
     private static final String BASE_URL = "https://nungil.com";
 
-    private static final Long RECOMMENDATION_LIMIT = 3L;
-
     /* 눈길 관리 */
     /**
      * 추천 눈길을 생성하는 api 입니다
+     * 추천 후보 인덱스에서 아직 추천되지 않은 회원 중 가장 잘 맞는 회원을 뽑습니다
+     * 하루에 RECOMMENDATION_LIMIT 번까지만 뽑을 수 있습니다
      *
      * @request member
      * @return nungilResponse 추천되는 사용자 눈길 정보
@@ -55,10 +60,15 @@ public class NungilService {
     @Transactional
     public NungilResponse addRecommendMember(Member member){
 
-        Nungil newNungil = Nungil.create(member, member, NungilStatus.RECOMMENDED);
-        nungilRepository.save(newNungil);
+        // 오늘 뽑기 횟수를 넘었으면 예외 발생. 추천 후보가 없어 예외가 발생하면 롤백된다.
+        Member drawer = memberService.increaseDrawCount(member, RecommendationService.RECOMMENDATION_LIMIT);
 
-        return convertToNungilResponse(newNungil);
+        List<Nungil> recommendations = recommendationService.createRecommendations(drawer, 1);
+        if (recommendations.isEmpty()) {
+            throw new GeneralException(NungilErrorResult.NUNGIL_NO_RECOMMEND);
+        }
+
+        return convertToNungilResponse(recommendations.get(0));
     }
 
     /**
@@ -87,6 +97,27 @@ public class NungilService {
         return new SliceImpl<>(nungilResponses, pageRequest, nungilSlice.hasNext());
     }
 
+    /**
+     * 요청 눈길상태의 프로필을 커서 기반으로 조회하는 api입니다
+     *
+     * @param cursor 이전 응답의 다음 커서 (첫 페이지이면 빈 문자열)
+     * @param size 페이지 크기
+     * @param status 요청 눈길 상태
+     *
+     * @return NungilCursorSliceResponse 눈길 목록과 다음 커서 반환
+     */
+    public NungilCursorSliceResponse getNungilCursorSliceByMemberAndStatus(Member member, NungilStatus status, String cursor, int size) {
+        // 추천 목록이 아니면 회원의 눈길만 조회하므로 비회원은 조회할 수 없다.
+        if (member == null) {
+            throw new GeneralException(MemberErrorResult.ANONYMOUS_USER);
+        }
+        checkPageSize(size);
+
+        List<NungilSliceResponse> fetched = nungilRepository.findByMemberAndStatusAfter(member, status, NungilCursor.decode(cursor), size + 1);
+
+        return NungilCursorSliceResponse.create(fetched, size);
+    }
+
     /**
      * 추천 눈길상태의 프로필을 전체 조회하는 api입니다. 오늘 프로필을 추천받지 않았다면, 하나 뽑습니다.
      *
@@ -97,22 +128,52 @@ public class NungilService {
      */
     @Transactional
     public Slice<NungilSliceResponse> getRecommendedNungilSlice(Member member, int page, int size) {
-        PageRequest pageRequest = PageRequest.of(page, size,Sort.by("createdAt").descending());
+        PageRequest pageRequest = PageRequest.of(page, size);
 
-        // Nungil 엔티티를 데이터베이스에서 조회
-        Slice<Nungil> nungilSlice = nungilRepository.findAllByStatus(pageRequest, NungilStatus.RECOMMENDED);
+        recommendIfAbsentToday(member);
 
-        // Nungil 엔티티를 NungilPageResponse DTO로 변환
-        List<NungilSliceResponse> nungilResponses = nungilSlice.getContent().stream()
-                .filter(nungil -> member == null || !member.equals(nungil.getReceiver()))
-                .filter(nungil -> member == null || acquaintanceRepository.findByMemberAndAcquaintanceMember(member, nungil.getReceiver()).isEmpty())
-                .map(nungil -> NungilSliceResponse.create(nungil, nungil.getReceiver()))
-                .collect(Collectors.toList());
+        // 자기 자신과 지인을 제외한 추천 눈길을 DTO로 바로 조회
+        return nungilRepository.findRecommendedSlice(member, pageRequest);
+    }
+
+    /**
+     * 추천 눈길상태의 프로필을 커서 기반으로 조회하는 api입니다.
+     *
+     * @param cursor 이전 응답의 다음 커서 (첫 페이지이면 빈 문자열)
+     * @param size 페이지 크기
+     *
+     * @return NungilCursorSliceResponse 눈길 목록과 다음 커서 반환
+     */
+    @Transactional
+    public NungilCursorSliceResponse getRecommendedNungilCursorSlice(Member member, String cursor, int size) {
+        checkPageSize(size);
 
+        recommendIfAbsentToday(member);
 
+        List<NungilSliceResponse> fetched = nungilRepository.findRecommendedAfter(member, NungilCursor.decode(cursor), size + 1);
 
-        // 변환된 DTO 리스트와 함께 새로운 Slice 객체를 생성하여 반환
-        return new SliceImpl<>(nungilResponses, pageRequest, nungilSlice.hasNext());
+        return NungilCursorSliceResponse.create(fetched, size);
+    }
+
+    /**
+     * 페이지 크기가 1 이상인지 확인하는 메서드입니다.
+     * @param size 요청한 페이지 크기
+     */
+    private void checkPageSize(int size) {
+        if (size < 1) {
+            throw new GeneralException(NungilErrorResult.INVALID_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * 회원이 오늘 추천을 받지 않았다면, 하루 추천 수만큼 추천 눈길을 생성하는 메서드입니다.
+     * @param member 조회를 요청한 회원 (비회원이면 null)
+     */
+    private void recommendIfAbsentToday(Member member) {
+        if (member == null || recommendationService.hasTodayRecommendations(member)) {
+            return;
+        }
+        recommendationService.createRecommendations(member, RecommendationService.RECOMMENDATION_LIMIT);
     }
 
     /**
@@ -181,11 +242,16 @@ public class NungilService {
      *
      *
      * @param nungilId 눈길 id
+     * @param memberRef 요청을 보낸 사용자 (눈길을 받은 사용자여야 한다)
      */
     @Transactional
-    public void matchNungil(Long nungilId){
+    public void matchNungil(Long nungilId, MemberRef memberRef){
         Nungil receivedNungil = nungilRepository.findById(nungilId)
                 .orElseThrow(()->new GeneralException(NungilErrorResult.NUNGIL_NOT_FOUND));
+        // 요청을 보낸 사용자가 눈길을 받은 사용자인지 확인 (회원 ID만 비교하므로 회원을 조회하지 않는다)
+        if(!memberRef.refersTo(receivedNungil.getMember())){
+            throw new GeneralException(MemberErrorResult.NOT_OWNER);
+        }
         //눈길이 잘못된 상태일 시 에러 발생
         if(!receivedNungil.getStatus().equals(NungilStatus.RECEIVED)){
             throw new GeneralException(NungilErrorResult.NUNGIL_WRONG_STATUS);
@@ -208,22 +274,21 @@ public class NungilService {
 
 
         // 매칭된 사용자 간에 겹치는 시간, 마커를 조회하여 저장
-        List<Marker> marker = findCommonMarkers(member, sender);
-        AvailableTime time = null;
-
-        List<AvailableTime> commonAvailableTimes = findCommonAvailableTimes(member, sender);
-        if(!commonAvailableTimes.isEmpty()){
-            for(int i = 0; i < commonAvailableTimes.size();i++){
-                time = commonAvailableTimes.get(i);
-                if(time.getValue() > LocalDateTime.now().getHour()){
-                    break;
-                }
-                else{
-                    time = null;
-                }
-            }
+        CompatibilityProfile memberProfile = CompatibilityProfile.ofSchedule(member);
+        CompatibilityProfile senderProfile = CompatibilityProfile.ofSchedule(sender);
+
+        List<Marker> marker = compatibilityCalculator.toMarkerList(compatibilityCalculator.commonMarkers(memberProfile, senderProfile));
+
+        // 현재 시각 이후의 가장 빠른 공통 시간을 약속 시간으로 잡고, 두 사용자의 가능한 시간에서 제외
+        long commonAvailableTimes = compatibilityCalculator.commonAvailableTimes(memberProfile, senderProfile);
+        AvailableTime time = compatibilityCalculator.earliestAvailableTimeAfter(commonAvailableTimes, LocalDateTime.now().getHour());
+        if (time != null) {
             member.deleteAvailableTime(time);
             sender.deleteAvailableTime(time);
+
+            // 가능한 시간이 바뀌었으므로 두 회원의 추천 후보 정보를 갱신한다.
+            memberService.publishProfileUpdated(member);
+            memberService.publishProfileUpdated(sender);
         }
         receivedNungil.update(marker, time);
         sentNungil.update(marker, time);
@@ -303,36 +368,13 @@ public class NungilService {
 
     //두 사용자의 공통 시간을 추출
     public List<AvailableTime> findCommonAvailableTimes(Member member1, Member member2) {
-        List<AvailableTimeAllocation> list1 = member1.getAvailableTimeAllocationList();
-        List<AvailableTimeAllocation> list2 = member2.getAvailableTimeAllocationList();
-
-        Set<AvailableTime> timesSet1 = list1.stream()
-                .map(AvailableTimeAllocation::getAvailableTime)
-                .collect(Collectors.toSet());
-
-        Set<AvailableTime> timesSet2 = list2.stream()
-                .map(AvailableTimeAllocation::getAvailableTime)
-                .collect(Collectors.toSet());
-
-        // 교집합 찾기
-        timesSet1.retainAll(timesSet2);
-
-        return new ArrayList<>(timesSet1);
+        long commonMask = compatibilityCalculator.commonAvailableTimes(CompatibilityProfile.ofSchedule(member1), CompatibilityProfile.ofSchedule(member2));
+        return compatibilityCalculator.toAvailableTimeList(commonMask);
     }
     //두 사용자의 공통 마커를 추출
     public List<Marker> findCommonMarkers(Member member1, Member member2) {
-        Set<Marker> markerSet1 = member1.getMarkerAllocationList().stream()
-                .map(MarkerAllocation::getMarker)
-                .collect(Collectors.toSet());
-
-        Set<Marker> markerSet2 = member2.getMarkerAllocationList().stream()
-                .map(MarkerAllocation::getMarker)
-                .collect(Collectors.toSet());
-
-        // 교집합 찾기
-        markerSet1.retainAll(markerSet2);
-
-        return new ArrayList<>(markerSet1);
+        long commonMask = compatibilityCalculator.commonMarkers(CompatibilityProfile.ofSchedule(member1), CompatibilityProfile.ofSchedule(member2));
+        return compatibilityCalculator.toMarkerList(commonMask);
     }
     /**
      * ACQUAINTANCE 데이터베이스에 member와 acquaintanceMember로 구성된 데이터가 없는 경우 생성하고, 있는 경우 조회하여 반환하는 메서드이다.
@@ -6,15 +6,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iglooclub.nungil.config.jwt.TokenProvider;
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.domain.OauthInfo;
-import com.iglooclub.nungil.domain.RefreshToken;
 import com.iglooclub.nungil.domain.enums.OauthProvider;
 import com.iglooclub.nungil.domain.enums.RegisterProgress;
 import com.iglooclub.nungil.dto.LoginResponse;
 import com.iglooclub.nungil.exception.GeneralException;
 import com.iglooclub.nungil.exception.GlobalErrorResult;
 import com.iglooclub.nungil.repository.MemberRepository;
-import com.iglooclub.nungil.repository.RefreshTokenRepository;
 import com.iglooclub.nungil.util.CookieUtil;
+import com.iglooclub.nungil.util.TokenUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -26,7 +25,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.WebUtils;
 
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.time.Duration;
@@ -39,7 +40,7 @@ public class OauthService {
 
     private final TokenProvider tokenProvider;
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
 
     private final String CLIENT_ID;
 
@@ -47,19 +48,17 @@ public class OauthService {
 
     private static final Duration ACCESS_TOKEN_DURATION = Duration.ofMinutes(30L);
 
-    private static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(14);
-
     private static final String REFRESH_TOKEN_COOKIE_NAME = "refresh_token";
 
     @Autowired
     public OauthService(MemberRepository memberRepository,
                         TokenProvider tokenProvider,
-                        RefreshTokenRepository refreshTokenRepository,
+                        RefreshTokenService refreshTokenService,
                         @Value("${OAuth2.kakao.client-id}") String CLIENT_ID,
                         @Value("${OAuth2.kakao.redirect-uri}") String REDIRECT_URI) {
         this.memberRepository = memberRepository;
         this.tokenProvider = tokenProvider;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenService = refreshTokenService;
         this.CLIENT_ID = CLIENT_ID;
         this.REDIRECT_URI = REDIRECT_URI;
     }
@@ -79,8 +78,7 @@ public class OauthService {
         RegisterProgress nextProgress = getNextProgress(member);
 
         // 4. JWT 리프레시 토큰 발급
-        String refreshToken = tokenProvider.generateToken(member, REFRESH_TOKEN_DURATION);
-        saveRefreshToken(member.getId(), refreshToken);
+        String refreshToken = refreshTokenService.issue(member.getId(), nextProgress);
         addRefreshTokenToCookie(request, response, refreshToken);
 
         // 5. JWT 액세스 토큰 발급
@@ -121,8 +119,17 @@ public class OauthService {
      * @param request HttpServletRequest
      * @param response HttpServletResponse
      */
+    @Transactional
     public void kakaoLogout(Member member, HttpServletRequest request, HttpServletResponse response) {
-        // 1. 리프레시 토큰 만료
+        // 1. 요청에 사용한 액세스 토큰 폐기
+        tokenProvider.revoke(TokenUtil.getAccessToken(request.getHeader(TokenUtil.HEADER_AUTHORIZATION)));
+
+        // 1-1. 리프레시 토큰 계열과 리프레시 토큰 자체를 폐기하고 쿠키 만료
+        Cookie refreshTokenCookie = WebUtils.getCookie(request, REFRESH_TOKEN_COOKIE_NAME);
+        if (refreshTokenCookie != null && !refreshTokenCookie.getValue().isEmpty()) {
+            refreshTokenService.revoke(refreshTokenCookie.getValue());
+            tokenProvider.revoke(refreshTokenCookie.getValue());
+        }
         CookieUtil.deleteCookie(request, response, REFRESH_TOKEN_COOKIE_NAME);
 
         // 2. 사용자의 카카오 액세스 토큰 조회
@@ -132,23 +139,13 @@ public class OauthService {
         logoutKakao(oauthAccess);
     }
 
-    private void addRefreshTokenToCookie(HttpServletRequest request, HttpServletResponse response, String refreshToken) {
-        int cookieMaxAge = (int) REFRESH_TOKEN_DURATION.toSeconds();
-        CookieUtil.deleteCookie(request, response, REFRESH_TOKEN_COOKIE_NAME);
-        CookieUtil.addHttpOnlyCookie(response, REFRESH_TOKEN_COOKIE_NAME, refreshToken, cookieMaxAge);
-    }
-
     /**
-     * JWT 리프레시 토큰을 데이터베이스에 저장하는 메서드이다.
-     * @param memberId 리프레시 토큰에 대응되는 회원 ID
-     * @param newRefreshToken 새로운 리프레시 토큰
+     * 리프레시 토큰을 HttpOnly 쿠키로 설정하는 메서드이다. 기존 리프레시 토큰 쿠키는 삭제된다.
      */
-    private void saveRefreshToken(Long memberId, String newRefreshToken) {
-        RefreshToken refreshToken = refreshTokenRepository.findByMemberId(memberId)
-                .map(entity -> entity.update(newRefreshToken))
-                .orElse(new RefreshToken(memberId, newRefreshToken));
-
-        refreshTokenRepository.save(refreshToken);
+    public void addRefreshTokenToCookie(HttpServletRequest request, HttpServletResponse response, String refreshToken) {
+        int cookieMaxAge = (int) RefreshTokenService.REFRESH_TOKEN_DURATION.toSeconds();
+        CookieUtil.deleteCookie(request, response, REFRESH_TOKEN_COOKIE_NAME);
+        CookieUtil.addHttpOnlyCookie(response, REFRESH_TOKEN_COOKIE_NAME, refreshToken, cookieMaxAge);
     }
 
     /**
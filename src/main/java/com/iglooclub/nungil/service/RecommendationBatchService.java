@@ -0,0 +1,247 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.domain.RecommendationCandidate;
+import com.iglooclub.nungil.domain.enums.NungilStatus;
+import com.iglooclub.nungil.repository.AcquaintanceRepository;
+import com.iglooclub.nungil.repository.NungilRepository;
+import com.iglooclub.nungil.util.StringRedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 하루치 추천 눈길을 자정에 미리 생성하는 배치 서비스이다.
+ * 추천 대상 회원을 청크로 나누어 여러 작업자가 병렬로 처리하고, 청크마다 JDBC 배치 insert 후 커밋한다.
+ * 이미 오늘 추천을 받은 회원은 건너뛰므로, 중간에 중단되더라도 다시 실행하면 남은 회원부터 이어서 처리된다.
+ * 모든 서버에서 실행되지만, Redis 잠금을 잡은 한 서버만 생성한다. 잠금은 lock-ttl이 지나면 풀린다.
+ */
+@Slf4j
+@Service
+public class RecommendationBatchService {
+
+    private static final String COMPLETED_KEY_PREFIX = "recommendation:batch:completed:";
+
+    private static final String LOCK_KEY = "recommendation:batch:lock";
+
+    private static final String INSERT_SQL = "insert into nungil (status, created_at, member_id, receiver_id, matched_markers) values (?, ?, ?, ?, ?)";
+
+    // MarkerListConverter가 빈 목록을 저장하는 형식
+    private static final String EMPTY_MARKERS = "[]";
+
+    private final RecommendationIndex recommendationIndex;
+
+    private final NungilRepository nungilRepository;
+
+    private final AcquaintanceRepository acquaintanceRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final StringRedisUtil redisUtil;
+
+    private final int workerCount;
+
+    private final int chunkSize;
+
+    private final Duration lockTtl;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // 진행 상황 지표
+    private final AtomicLong totalMembers = new AtomicLong();
+    private final AtomicLong processedMembers = new AtomicLong();
+    private final Counter createdCounter;
+    private final Counter skippedCounter;
+    private final Counter failedChunkCounter;
+    private final Timer batchTimer;
+
+    public RecommendationBatchService(RecommendationIndex recommendationIndex,
+                                      NungilRepository nungilRepository,
+                                      AcquaintanceRepository acquaintanceRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      StringRedisUtil redisUtil,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${recommendation.batch.worker-count:4}") int workerCount,
+                                      @Value("${recommendation.batch.chunk-size:200}") int chunkSize,
+                                      @Value("${recommendation.batch.lock-ttl-millis:3600000}") long lockTtlMillis) {
+        this.recommendationIndex = recommendationIndex;
+        this.nungilRepository = nungilRepository;
+        this.acquaintanceRepository = acquaintanceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisUtil = redisUtil;
+        this.workerCount = workerCount;
+        this.chunkSize = chunkSize;
+        this.lockTtl = Duration.ofMillis(lockTtlMillis);
+
+        meterRegistry.gauge("recommendation.batch.members.total", totalMembers);
+        meterRegistry.gauge("recommendation.batch.members.processed", processedMembers);
+        this.createdCounter = meterRegistry.counter("recommendation.batch.nungils.created");
+        this.skippedCounter = meterRegistry.counter("recommendation.batch.members.skipped");
+        this.failedChunkCounter = meterRegistry.counter("recommendation.batch.chunks.failed");
+        this.batchTimer = meterRegistry.timer("recommendation.batch.duration");
+    }
+
+    /**
+     * 매일 자정에 그날의 추천 눈길을 생성
+     */
+    @Scheduled(cron = "${recommendation.batch.cron:0 0 0 * * *}")
+    public void generateDailyRecommendations() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * 서버가 배치 도중 종료되었던 경우, 재시작 시 오늘의 배치를 이어서 실행한다.
+     * 추천 후보 인덱스가 채워진 뒤에 실행되어야 한다.
+     * 배치가 끝날 때까지 서버가 요청을 받을 수 있는 상태(ACCEPTING_TRAFFIC)로 바뀌지 않도록 막지 않기 위해, 별도 스레드에서 실행한다.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIfIncomplete() {
+        ExecutorService resumeExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "recommendation-batch-resume"));
+        resumeExecutor.execute(() -> {
+            try {
+                run(LocalDate.now());
+            } catch (Exception e) {
+                log.error("Failed to resume recommendation batch", e);
+            }
+        });
+        // 제출한 작업이 끝나면 스레드도 종료된다.
+        resumeExecutor.shutdown();
+    }
+
+    /**
+     * 주어진 날짜의 추천 눈길을 생성하는 메서드이다.
+     * 이미 완료된 날짜이거나, 현재 서버 또는 다른 서버에서 실행 중이면 아무것도 하지 않는다.
+     * @param date 추천을 생성할 날짜
+     */
+    public void run(LocalDate date) {
+        String completedKey = COMPLETED_KEY_PREFIX + date;
+        if (redisUtil.exists(completedKey)) {
+            return;
+        }
+
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Recommendation batch for {} is already running", date);
+            return;
+        }
+
+        String lockToken = UUID.randomUUID().toString();
+        try {
+            if (!redisUtil.setIfAbsent(LOCK_KEY, lockToken, lockTtl)) {
+                log.info("Recommendation batch for {} is running on another server", date);
+                return;
+            }
+
+            try {
+                // 잠금을 잡기 전에 다른 서버가 끝냈을 수 있다.
+                if (!redisUtil.exists(completedKey)) {
+                    generate(date, completedKey);
+                }
+            } finally {
+                redisUtil.deleteIfEquals(LOCK_KEY, lockToken);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void generate(LocalDate date, String completedKey) {
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        try {
+            batchTimer.record(() -> {
+                List<Long> memberIds = recommendationIndex.getMemberIds();
+                totalMembers.set(memberIds.size());
+                processedMembers.set(0);
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int from = 0; from < memberIds.size(); from += chunkSize) {
+                    List<Long> chunk = memberIds.subList(from, Math.min(from + chunkSize, memberIds.size()));
+                    futures.add(executor.submit(() -> processChunk(chunk, date)));
+                }
+
+                boolean completed = awaitAll(futures);
+                if (completed) {
+                    redisUtil.set(completedKey, "1", Duration.ofDays(2));
+                }
+                log.info("Recommendation batch for {} finished: {} / {} members, completed = {}",
+                        date, processedMembers.get(), totalMembers.get(), completed);
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean awaitAll(List<Future<?>> futures) {
+        boolean completed = true;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                completed = false;
+                failedChunkCounter.increment();
+                log.error("Recommendation batch chunk failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * 회원 ID 청크 하나의 추천 눈길을 생성하여 한 트랜잭션으로 저장하는 메서드이다.
+     * @param memberIds 처리할 회원 ID 청크
+     * @param date 추천을 생성할 날짜
+     */
+    private void processChunk(List<Long> memberIds, LocalDate date) {
+        // 이미 오늘 추천을 받은 회원은 건너뛴다. (재실행 시 이어서 처리하기 위함)
+        Set<Long> doneMemberIds = nungilRepository.findMemberIdsByStatusSince(memberIds, NungilStatus.RECOMMENDED, date.atStartOfDay());
+
+        Map<Long, Set<Long>> excludedMemberIds = acquaintanceRepository.findAcquaintanceMemberIdsByMemberIds(memberIds);
+        nungilRepository.findReceiverIdsByMemberIds(memberIds, NungilStatus.RECOMMENDED)
+                .forEach((memberId, receiverIds) -> excludedMemberIds.computeIfAbsent(memberId, id -> new HashSet<>()).addAll(receiverIds));
+
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(memberIds.size() * RecommendationService.RECOMMENDATION_LIMIT);
+
+        for (Long memberId : memberIds) {
+            Optional<RecommendationCandidate> requester = recommendationIndex.find(memberId);
+            if (doneMemberIds.contains(memberId) || requester.isEmpty()) {
+                skippedCounter.increment();
+                continue;
+            }
+
+            Set<Long> excluded = excludedMemberIds.getOrDefault(memberId, Collections.emptySet());
+            for (Long receiverId : recommendationIndex.findTopCandidates(requester.get(), excluded, RecommendationService.RECOMMENDATION_LIMIT)) {
+                rows.add(new Object[]{NungilStatus.RECOMMENDED.name(), createdAt, memberId, receiverId, EMPTY_MARKERS});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+
+        createdCounter.increment(rows.size());
+        processedMembers.addAndGet(memberIds.size());
+    }
+}
@@ -0,0 +1,227 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.domain.RecommendationCandidate;
+import com.iglooclub.nungil.domain.enums.Location;
+import com.iglooclub.nungil.domain.enums.Sex;
+import com.iglooclub.nungil.util.CompatibilityCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 추천 후보 회원을 메모리에 보관하는 인덱스이다.
+ * 후보는 (지역, 성별) 파티션 안에서 출생연도별로 정렬되어 있어, 선호 나이 범위에 해당하는 후보만 순회한다.
+ * 회원 테이블을 조회하지 않으므로 추천 요청마다 데이터베이스 스캔이 발생하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationIndex {
+
+    private static final Location[] LOCATIONS = Location.values();
+
+    private static final Sex[] SEXES = Sex.values();
+
+    // 지역을 설정하지 않은 회원은 마지막 지역 칸에 저장한다.
+    private static final int NO_LOCATION = LOCATIONS.length;
+
+    // 같은 회원에 대한 갱신이 동시에 일어나도 파티션과 candidates가 어긋나지 않도록 회원 ID 단위로 잠근다.
+    private static final Object[] LOCKS = createLocks(64);
+
+    private final CompatibilityCalculator compatibilityCalculator;
+
+    // partitions[지역 * 성별 수 + 성별]: 출생연도 -> (회원 ID -> 후보)
+    private final Partition[] partitions = createPartitions();
+
+    // 회원 ID -> 현재 인덱스에 저장된 후보
+    private final Map<Long, RecommendationCandidate> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * 후보 정보를 추가하거나 갱신하는 메서드이다. 추천 대상이 아닌 상태이면 인덱스에서 제거한다.
+     * @param candidate 회원 정보 스냅샷
+     */
+    public void upsert(RecommendationCandidate candidate) {
+        Long memberId = candidate.getMemberId();
+
+        synchronized (lockFor(memberId)) {
+            RecommendationCandidate previous = candidates.remove(memberId);
+            if (previous != null) {
+                partitionOf(previous).remove(previous);
+            }
+
+            if (candidate.isEligible()) {
+                candidates.put(memberId, candidate);
+                partitionOf(candidate).add(candidate);
+            }
+        }
+    }
+
+    /**
+     * 회원을 인덱스에서 제거하는 메서드이다. 회원 테이블에서 삭제된 회원이 후보로 남지 않도록 할 때 사용한다.
+     * @param memberId 제거할 회원 ID
+     */
+    public void remove(Long memberId) {
+        synchronized (lockFor(memberId)) {
+            RecommendationCandidate previous = candidates.remove(memberId);
+            if (previous != null) {
+                partitionOf(previous).remove(previous);
+            }
+        }
+    }
+
+    public Optional<RecommendationCandidate> find(Long memberId) {
+        return Optional.ofNullable(candidates.get(memberId));
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * 현재 추천 대상인 회원 ID를 오름차순으로 반환하는 메서드이다.
+     */
+    public List<Long> getMemberIds() {
+        List<Long> memberIds = new ArrayList<>(candidates.keySet());
+        Collections.sort(memberIds);
+        return memberIds;
+    }
+
+    /**
+     * 주어진 회원에게 추천할 후보를 겹침 점수가 높은 순으로 찾는 메서드이다.
+     * 같은 지역(지역 미설정이면 전체)의 다른 성별 회원 중, 서로의 선호 나이 범위에 속하는 회원만 대상으로 한다.
+     * @param requester 추천을 요청한 회원의 스냅샷
+     * @param excludedMemberIds 제외할 회원 ID 목록 (지인, 이미 추천된 회원 등)
+     * @param limit 찾을 최대 후보 수
+     * @return 점수 내림차순으로 정렬된 후보 회원 ID 목록
+     */
+    public List<Long> findTopCandidates(RecommendationCandidate requester, Set<Long> excludedMemberIds, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int currentYear = LocalDate.now().getYear();
+
+        // 선호 나이 범위를 출생연도 범위로 변환 (나이가 많을수록 출생연도가 작다)
+        int fromBirthYear = (requester.getPreferredAgeEnd() != null) ? currentYear - requester.getPreferredAgeEnd() : Integer.MIN_VALUE;
+        int toBirthYear = (requester.getPreferredAgeStart() != null) ? currentYear - requester.getPreferredAgeStart() : Integer.MAX_VALUE;
+
+        // 점수가 가장 낮은 후보가 맨 앞에 오는 크기 limit의 힙
+        PriorityQueue<ScoredCandidate> topCandidates = new PriorityQueue<>(limit + 1);
+
+        int locationFrom = (requester.getLocation() != null) ? requester.getLocation().ordinal() : 0;
+        int locationTo = (requester.getLocation() != null) ? requester.getLocation().ordinal() : NO_LOCATION;
+
+        for (int location = locationFrom; location <= locationTo; location++) {
+            for (Sex sex : SEXES) {
+                if (sex == requester.getSex()) {
+                    continue;
+                }
+
+                Partition partition = partitions[location * SEXES.length + sex.ordinal()];
+                for (Map<Long, RecommendationCandidate> bucket : partition.range(fromBirthYear, toBirthYear)) {
+                    for (RecommendationCandidate candidate : bucket.values()) {
+                        if (candidate.getMemberId().equals(requester.getMemberId())
+                                || excludedMemberIds.contains(candidate.getMemberId())
+                                || (requester.getBirthYear() != null && !candidate.prefersBirthYear(requester.getBirthYear(), currentYear))) {
+                            continue;
+                        }
+
+                        int score = compatibilityCalculator.score(requester.getProfile(), candidate.getProfile());
+                        offer(topCandidates, new ScoredCandidate(candidate.getMemberId(), score), limit);
+                    }
+                }
+            }
+        }
+
+        List<Long> result = new ArrayList<>(topCandidates.size());
+        while (!topCandidates.isEmpty()) {
+            result.add(topCandidates.poll().memberId);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void offer(PriorityQueue<ScoredCandidate> topCandidates, ScoredCandidate scored, int limit) {
+        if (topCandidates.size() < limit) {
+            topCandidates.add(scored);
+        } else if (scored.compareTo(topCandidates.peek()) > 0) {
+            topCandidates.poll();
+            topCandidates.add(scored);
+        }
+    }
+
+    private Partition partitionOf(RecommendationCandidate candidate) {
+        int location = (candidate.getLocation() != null) ? candidate.getLocation().ordinal() : NO_LOCATION;
+        return partitions[location * SEXES.length + candidate.getSex().ordinal()];
+    }
+
+    private Object lockFor(Long memberId) {
+        return LOCKS[(int) (memberId & (LOCKS.length - 1))];
+    }
+
+    private static Object[] createLocks(int size) {
+        Object[] locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static Partition[] createPartitions() {
+        Partition[] partitions = new Partition[(LOCATIONS.length + 1) * SEXES.length];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+        return partitions;
+    }
+
+    /**
+     * 같은 지역, 성별의 후보들을 출생연도별로 묶어 보관하는 파티션이다.
+     */
+    private static class Partition {
+
+        private final ConcurrentNavigableMap<Integer, Map<Long, RecommendationCandidate>> byBirthYear = new ConcurrentSkipListMap<>();
+
+        void add(RecommendationCandidate candidate) {
+            byBirthYear.computeIfAbsent(candidate.getBirthYear(), year -> new ConcurrentHashMap<>())
+                    .put(candidate.getMemberId(), candidate);
+        }
+
+        void remove(RecommendationCandidate candidate) {
+            Map<Long, RecommendationCandidate> bucket = byBirthYear.get(candidate.getBirthYear());
+            if (bucket != null) {
+                bucket.remove(candidate.getMemberId());
+            }
+        }
+
+        Collection<Map<Long, RecommendationCandidate>> range(int fromBirthYear, int toBirthYear) {
+            if (fromBirthYear > toBirthYear) {
+                return Collections.emptyList();
+            }
+            return byBirthYear.subMap(fromBirthYear, true, toBirthYear, true).values();
+        }
+    }
+
+    private static class ScoredCandidate implements Comparable<ScoredCandidate> {
+
+        private final Long memberId;
+
+        private final int score;
+
+        ScoredCandidate(Long memberId, int score) {
+            this.memberId = memberId;
+            this.score = score;
+        }
+
+        // 점수가 같으면 먼저 가입한(ID가 작은) 회원을 우선한다.
+        @Override
+        public int compareTo(ScoredCandidate other) {
+            int compared = Integer.compare(score, other.score);
+            return (compared != 0) ? compared : Long.compare(other.memberId, memberId);
+        }
+    }
+}
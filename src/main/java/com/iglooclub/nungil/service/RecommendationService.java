@@ -0,0 +1,140 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.domain.CompatibilityProfile;
+import com.iglooclub.nungil.domain.Member;
+import com.iglooclub.nungil.domain.Nungil;
+import com.iglooclub.nungil.domain.RecommendationCandidate;
+import com.iglooclub.nungil.domain.enums.NungilStatus;
+import com.iglooclub.nungil.repository.AcquaintanceRepository;
+import com.iglooclub.nungil.repository.MemberRepository;
+import com.iglooclub.nungil.repository.NungilRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Transactional(readOnly = true)
+public class RecommendationService {
+
+    // 하루에 회원 한 명에게 추천되는 최대 프로필 수
+    public static final int RECOMMENDATION_LIMIT = 3;
+
+    private static final int INDEX_LOAD_PAGE_SIZE = 500;
+
+    private final RecommendationIndex recommendationIndex;
+
+    private final MemberRepository memberRepository;
+
+    private final NungilRepository nungilRepository;
+
+    private final AcquaintanceRepository acquaintanceRepository;
+
+    /**
+     * 애플리케이션 시작 시 전체 회원으로 추천 후보 인덱스를 채우는 메서드이다.
+     * 이후에는 프로필, 일정 수정 이벤트로 인덱스가 갱신되므로 회원 테이블을 다시 스캔하지 않는다.
+     * 페이지마다 별도의 영속성 컨텍스트를 사용하여, 조회한 회원 엔티티가 메모리에 누적되지 않도록 한다.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void loadIndex() {
+        int page = 0;
+        Slice<Member> memberSlice;
+
+        do {
+            memberSlice = memberRepository.findAll(PageRequest.of(page++, INDEX_LOAD_PAGE_SIZE, Sort.by("id")));
+            List<Long> memberIds = memberSlice.getContent().stream()
+                    .map(Member::getId)
+                    .collect(Collectors.toList());
+            Map<Long, CompatibilityProfile> profiles = memberRepository.findCompatibilityProfiles(memberIds);
+
+            for (Member member : memberSlice.getContent()) {
+                CompatibilityProfile profile = profiles.getOrDefault(member.getId(), CompatibilityProfile.EMPTY);
+                recommendationIndex.upsert(RecommendationCandidate.of(member, profile));
+            }
+        } while (memberSlice.hasNext());
+
+        log.info("Recommendation index loaded: {} candidates", recommendationIndex.size());
+    }
+
+    /**
+     * 회원이 오늘 이미 추천을 받았는지 확인하는 메서드이다.
+     * @param member 확인할 회원
+     * @return 오늘 생성된 추천 눈길의 존재 여부
+     */
+    public boolean hasTodayRecommendations(Member member) {
+        return nungilRepository.existsByMemberAndStatusAndCreatedAtAfter(member, NungilStatus.RECOMMENDED, LocalDate.now().atStartOfDay());
+    }
+
+    /**
+     * 추천 후보 인덱스에서 회원과 잘 맞는 후보를 찾아 추천 눈길로 저장하는 메서드이다.
+     * 지인과 이미 추천된 회원은 제외한다. 삭제된 회원이 후보로 나오면 인덱스에서 제거하고 다시 찾는다.
+     * @param member 추천을 받을 회원
+     * @param limit 저장할 최대 추천 수
+     * @return 저장된 추천 눈길 목록 (점수 내림차순)
+     */
+    @Transactional
+    public List<Nungil> createRecommendations(Member member, int limit) {
+        List<Long> candidateIds = findCandidateIds(member, limit);
+        List<Long> removedIds = findRemovedIds(candidateIds);
+
+        while (!removedIds.isEmpty()) {
+            removedIds.forEach(recommendationIndex::remove);
+            candidateIds = findCandidateIds(member, limit);
+            removedIds = findRemovedIds(candidateIds);
+        }
+
+        List<Nungil> recommendations = candidateIds.stream()
+                .map(candidateId -> Nungil.create(member, memberRepository.getReferenceById(candidateId), NungilStatus.RECOMMENDED))
+                .collect(Collectors.toList());
+
+        return nungilRepository.saveAll(recommendations);
+    }
+
+    /**
+     * 후보 회원 ID 중 회원 테이블에서 삭제된 회원의 ID를 찾는 메서드이다.
+     * @param candidateIds 추천 후보 인덱스에서 찾은 회원 ID 목록
+     * @return 더 이상 존재하지 않는 회원 ID 목록
+     */
+    private List<Long> findRemovedIds(List<Long> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> existingIds = new HashSet<>(memberRepository.findExistingIds(candidateIds));
+        return candidateIds.stream()
+                .filter(candidateId -> !existingIds.contains(candidateId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 회원에게 추천할 후보 회원 ID를 점수 순으로 찾는 메서드이다.
+     * @param member 추천을 받을 회원
+     * @param limit 찾을 최대 후보 수
+     * @return 후보 회원 ID 목록
+     */
+    public List<Long> findCandidateIds(Member member, int limit) {
+        RecommendationCandidate requester = recommendationIndex.find(member.getId())
+                .orElseGet(() -> RecommendationCandidate.of(member, CompatibilityProfile.of(member)));
+
+        Set<Long> excludedMemberIds = new HashSet<>(acquaintanceRepository.findAcquaintanceMemberIdsByMember(member));
+        excludedMemberIds.addAll(nungilRepository.findReceiverIdsByMemberAndStatus(member, NungilStatus.RECOMMENDED));
+
+        return recommendationIndex.findTopCandidates(requester, excludedMemberIds, limit);
+    }
+}
@@ -0,0 +1,295 @@
+package com.iglooclub.nungil.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.dto.ChatPersistedDTO;
+import com.iglooclub.nungil.dto.ChatReadDTO;
+import com.iglooclub.nungil.dto.ChatTypingDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Redis Pub/Sub을 거쳐 모든 서버에 반영하는 구현체이다. 서버가 여러 대일 때 사용한다.
+ *
+ * 토픽 메시지는 토픽마다 하나의 Redis 채널(chat:{토픽})에 한 번만 발행되고, 각 서버는 받은 메시지를 자기 서버의 구독자에게만 전달한다.
+ * 토픽 메시지는 발행한 서버에서 JSON으로 한 번 직렬화되어 전달되고, 받는 서버는 JSON 세션에 그대로 보낸다.
+ * CBOR는 받는 서버에 CBOR 세션이 있을 때만 그 서버에서 JSON으로부터 한 번 변환된다.
+ * 서버는 현재 서버에 구독자가 있는 토픽의 채널만 구독하므로, 구독자가 없는 채팅방의 메시지는 받지 않는다.
+ * 발행한 서버도 Redis에서 받은 메시지로 구독자에게 전달하므로, 같은 메시지가 두 번 전달되지 않는다.
+ *
+ * 최근 메시지 캐시와 안 읽은 메시지 카운터는 서버마다 따로 있으므로, 저장과 읽음 처리는 모든 서버가 구독하는 상태 채널로 전파한다.
+ * 상태 채널에는 메시지 내용 없이 채팅방 ID, 메시지 ID, 발행자 ID만 보낸다.
+ * 메시지를 저장한 서버는 메시지를 직접 캐시에 추가하고, 다른 서버는 해당 채팅방의 캐시를 제거하여 다음 조회 때 데이터베이스에서 다시 채운다.
+ *
+ * 입력 중 이벤트는 각 서버가 구간마다 자기 서버의 회원을 채팅방과 구간 번호별 Redis 집합에 보태고,
+ * 다음 구간에 그 구간을 먼저 가져간(SET NX) 서버 한 대만 합친 회원을 발행한다. 그래서 서버 수와 관계없이 채팅방마다 구간당 한 번만 발행되며,
+ * 발행은 한 구간 늦어진다. 서버 사이의 시각 차이로 이미 발행된 구간에 보탠 회원은 빠질 수 있으나, 입력이 계속되면 다음 구간에 다시 발행된다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+public class RedisChatBroadcaster implements ChatBroadcaster, MessageListener {
+
+    private static final String CHANNEL_PREFIX = "chat:";
+
+    private static final String PERSISTED_CHANNEL = "chat-state:persisted";
+
+    private static final String READ_CHANNEL = "chat-state:read";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private static final String TYPING_KEY_PREFIX = "chat:typing:";
+
+    // 구간 키는 다음 구간에 발행될 때까지만 있으면 되므로 구간 길이와 관계없이 충분히 길게 둔다.
+    private static final long TYPING_KEY_TTL_MILLIS = 10_000;
+
+    // KEYS[1]: 구간의 회원 집합, ARGV[1]: 만료 시간, ARGV[2..]: 회원 ID
+    private static final RedisScript<Long> ADD_TYPING_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('sadd', KEYS[1], unpack(ARGV, 2)) " +
+            "redis.call('pexpire', KEYS[1], ARGV[1]) " +
+            "return 1", Long.class);
+
+    // KEYS[1]: 구간의 회원 집합, KEYS[2]: 구간의 발행 표시, ARGV[1]: 서버 ID, ARGV[2]: 만료 시간
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_TYPING_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('set', KEYS[2], ARGV[1], 'NX', 'PX', ARGV[2]) then " +
+            "return redis.call('smembers', KEYS[1]) " +
+            "end " +
+            "return {}", List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ChatFrameCodec chatFrameCodec;
+
+    private final ChatMessageTailCache chatMessageTailCache;
+
+    private final ChatUnreadCounter chatUnreadCounter;
+
+    // 상태 채널에서 자기 서버가 보낸 메시지를 구분하기 위한 서버 ID
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 토픽 -> 현재 서버의 구독 수
+    private final Map<String, Integer> localSubscriptionCounts = new HashMap<>();
+
+    // 세션 ID -> (구독 ID -> 토픽)
+    private final Map<String, Map<String, String>> sessionSubscriptions = new HashMap<>();
+
+    // 구간 번호 -> 현재 서버가 입력 중 회원을 보탠 채팅방 ID
+    private final TreeMap<Long, Set<Long>> typingWindows = new TreeMap<>();
+
+    @PostConstruct
+    public void subscribeStateChannels() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(PERSISTED_CHANNEL));
+        listenerContainer.addMessageListener(this, new ChannelTopic(READ_CHANNEL));
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        byte[] channel = (CHANNEL_PREFIX + destination).getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = chatFrameCodec.toEnvelope(chatFrameCodec.encode(payload));
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, envelope));
+    }
+
+    @Override
+    public void messagePersisted(ChatDTO message) {
+        chatMessageTailCache.append(message);
+        chatUnreadCounter.increment(message);
+        publish(PERSISTED_CHANNEL, ChatPersistedDTO.of(message, nodeId));
+    }
+
+    @Override
+    public void messageRead(ChatReadDTO receipt) {
+        publish(READ_CHANNEL, receipt);
+    }
+
+    @Override
+    public int typing(long window, Map<Long, Set<Long>> typingMembers) {
+        synchronized (typingWindows) {
+            // 지난 구간에는 모든 서버가 회원을 보탰으므로, 먼저 가져간 서버 한 대만 합친 회원을 발행한다.
+            int broadcastRooms = 0;
+            Map<Long, Set<Long>> pastWindows = typingWindows.headMap(window);
+            for (Map.Entry<Long, Set<Long>> entry : pastWindows.entrySet()) {
+                for (Long chatRoomId : entry.getValue()) {
+                    if (claimTyping(entry.getKey(), chatRoomId)) {
+                        broadcastRooms++;
+                    }
+                }
+            }
+            pastWindows.clear();
+
+            typingMembers.forEach((chatRoomId, memberIds) -> {
+                if (addTyping(window, chatRoomId, memberIds)) {
+                    typingWindows.computeIfAbsent(window, key -> new HashSet<>()).add(chatRoomId);
+                }
+            });
+            return broadcastRooms;
+        }
+    }
+
+    private boolean addTyping(long window, Long chatRoomId, Set<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return false;
+        }
+
+        List<String> args = new ArrayList<>(memberIds.size() + 1);
+        args.add(String.valueOf(TYPING_KEY_TTL_MILLIS));
+        memberIds.forEach(memberId -> args.add(memberId.toString()));
+
+        try {
+            redisTemplate.execute(ADD_TYPING_SCRIPT, List.of(typingKey(window, chatRoomId) + ":members"), args.toArray());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to add typing members of chat room {}", chatRoomId, e);
+            return false;
+        }
+    }
+
+    private boolean claimTyping(long window, Long chatRoomId) {
+        String key = typingKey(window, chatRoomId);
+
+        try {
+            List<?> memberIds = redisTemplate.execute(CLAIM_TYPING_SCRIPT, List.of(key + ":members", key + ":claim"),
+                    nodeId, String.valueOf(TYPING_KEY_TTL_MILLIS));
+            if (memberIds == null || memberIds.isEmpty()) {
+                return false;
+            }
+
+            Set<Long> typingMemberIds = memberIds.stream()
+                    .map(memberId -> Long.valueOf(memberId.toString()))
+                    .collect(Collectors.toSet());
+            broadcast(TOPIC_PREFIX + chatRoomId + "/typing", ChatTypingDTO.of(chatRoomId, typingMemberIds));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast typing event of chat room {}", chatRoomId, e);
+            return false;
+        }
+    }
+
+    // 한 채팅방의 구간 키는 Redis Cluster에서도 같은 슬롯에 놓이도록 채팅방 ID를 해시 태그로 묶는다.
+    private static String typingKey(long window, Long chatRoomId) {
+        return TYPING_KEY_PREFIX + "{" + chatRoomId + "}:" + window;
+    }
+
+    private void publish(String channel, Object payload) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize chat payload for " + channel, e);
+        }
+    }
+
+    /**
+     * Redis 채널에서 받은 메시지를 처리한다.
+     * 상태 채널의 메시지는 현재 서버의 캐시와 카운터에 반영하고, 토픽 채널의 메시지는 현재 서버의 구독자에게 전달한다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+
+        try {
+            if (PERSISTED_CHANNEL.equals(channel)) {
+                ChatPersistedDTO persisted = objectMapper.readValue(message.getBody(), ChatPersistedDTO.class);
+                if (!nodeId.equals(persisted.getNodeId())) {
+                    chatMessageTailCache.evict(persisted.getChatRoomId());
+                    chatUnreadCounter.increment(persisted.getChatRoomId(), persisted.getMessageId(), persisted.getSenderId());
+                }
+            } else if (READ_CHANNEL.equals(channel)) {
+                ChatReadDTO receipt = objectMapper.readValue(message.getBody(), ChatReadDTO.class);
+                chatUnreadCounter.markRead(receipt.getChatRoomId(), receipt.getMemberId(), receipt.getMessageId());
+            } else {
+                deliverLocally(channel.substring(CHANNEL_PREFIX.length()), message.getBody());
+            }
+        } catch (IOException e) {
+            log.error("Failed to read chat message from Redis channel {}", channel, e);
+        }
+    }
+
+    // 메시지 본문은 이미 JSON으로 직렬화되어 있으므로 다시 변환하지 않는다. (CBOR는 CBOR 세션에 보낼 때 변환된다)
+    private void deliverLocally(String destination, byte[] body) {
+        messagingTemplate.send(destination, chatFrameCodec.toMessage(chatFrameCodec.fromEnvelope(body)));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return;
+        }
+
+        synchronized (this) {
+            sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new HashMap<>())
+                    .put(accessor.getSubscriptionId(), destination);
+            increase(destination);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+
+        synchronized (this) {
+            Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+            String destination = (subscriptions != null) ? subscriptions.remove(accessor.getSubscriptionId()) : null;
+            if (destination != null) {
+                decrease(destination);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        synchronized (this) {
+            Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+            if (subscriptions != null) {
+                subscriptions.values().forEach(this::decrease);
+            }
+        }
+    }
+
+    // 현재 서버의 첫 구독자가 생기면 채널을 구독한다.
+    private void increase(String destination) {
+        int count = localSubscriptionCounts.merge(destination, 1, Integer::sum);
+        if (count == 1) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + destination));
+        }
+    }
+
+    // 현재 서버의 마지막 구독자가 사라지면 채널 구독을 해제한다.
+    private void decrease(String destination) {
+        Integer count = localSubscriptionCounts.computeIfPresent(destination, (key, value) -> (value > 1) ? value - 1 : null);
+        if (count == null) {
+            listenerContainer.removeMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + destination));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.iglooclub.nungil.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원의 접속 상태를 Redis에 모아 관리하는 구현체이다. 서버가 여러 대일 때 사용한다.
+ *
+ * 회원마다 정렬 집합(chat:presence:{회원 ID})에 연결된 세션을 만료 시각을 점수로 하여 저장하고, 만료되지 않은 세션이 있으면 접속 중으로 본다.
+ * 각 서버는 현재 서버에 연결된 세션의 만료 시각을 refresh-millis마다 연장하므로,
+ * 서버가 DISCONNECT를 처리하지 못하고 종료되어도 그 서버의 세션은 ttl-millis가 지나면 접속 중으로 보지 않는다.
+ * 세션 ID는 서버마다 따로 만들어지므로 서버 ID를 붙여 저장한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+public class RedisChatPresenceService implements ChatPresenceService {
+
+    private static final String KEY_PREFIX = "chat:presence:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final long ttlMillis;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 현재 서버에 연결된 STOMP 세션 ID -> 회원 ID
+    private final Map<String, Long> sessionMembers = new ConcurrentHashMap<>();
+
+    public RedisChatPresenceService(StringRedisTemplate redisTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${chat.presence.ttl-millis:90000}") long ttlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = ttlMillis;
+
+        meterRegistry.gauge("chat.presence.sessions", sessionMembers, Map::size);
+    }
+
+    @Override
+    public void connect(Long memberId, String sessionId) {
+        if (sessionMembers.putIfAbsent(sessionId, memberId) != null) {
+            return;
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.zAdd(KEY_PREFIX + memberId, expiresAt, member(sessionId));
+            stringConnection.pExpire(KEY_PREFIX + memberId, ttlMillis);
+            return null;
+        });
+    }
+
+    @Override
+    public void disconnect(String sessionId) {
+        Long memberId = sessionMembers.remove(sessionId);
+        if (memberId == null) {
+            return;
+        }
+
+        redisTemplate.opsForZSet().remove(KEY_PREFIX + memberId, member(sessionId));
+    }
+
+    @Override
+    public Set<Long> findOnlineMembers(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        List<Long> orderedIds = new ArrayList<>(memberIds);
+        long now = System.currentTimeMillis();
+        List<Object> counts = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            orderedIds.forEach(memberId -> stringConnection.zCount(KEY_PREFIX + memberId, now, Double.POSITIVE_INFINITY));
+            return null;
+        });
+
+        Set<Long> onlineMemberIds = new HashSet<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            if (((Number) counts.get(i)).longValue() > 0) {
+                onlineMemberIds.add(orderedIds.get(i));
+            }
+        }
+        return onlineMemberIds;
+    }
+
+    /**
+     * 현재 서버에 연결된 세션의 만료 시각을 연장하고, 만료된 세션을 정리하는 메서드이다.
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.refresh-millis:30000}")
+    public void refresh() {
+        if (sessionMembers.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        Map<String, Long> sessions = new HashMap<>(sessionMembers);
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                sessions.forEach((sessionId, memberId) -> {
+                    String key = KEY_PREFIX + memberId;
+                    stringConnection.zAdd(key, expiresAt, member(sessionId));
+                    stringConnection.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                    stringConnection.pExpire(key, ttlMillis);
+                });
+                return null;
+            });
+
+            // 연장하는 동안 종료된 세션은 다시 제거한다.
+            sessions.keySet().removeAll(sessionMembers.keySet());
+            sessions.forEach((sessionId, memberId) ->
+                    redisTemplate.opsForZSet().remove(KEY_PREFIX + memberId, member(sessionId)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh presence of {} sessions", sessions.size(), e);
+        }
+    }
+
+    private String member(String sessionId) {
+        return nodeId + ":" + sessionId;
+    }
+}
@@ -1,19 +1,248 @@
 package com.iglooclub.nungil.service;
 
+import com.iglooclub.nungil.config.jwt.TokenClaims;
+import com.iglooclub.nungil.config.jwt.TokenProvider;
 import com.iglooclub.nungil.domain.RefreshToken;
+import com.iglooclub.nungil.domain.enums.RegisterProgress;
 import com.iglooclub.nungil.exception.GeneralException;
 import com.iglooclub.nungil.exception.TokenErrorResult;
 import com.iglooclub.nungil.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-@RequiredArgsConstructor
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.iglooclub.nungil.util.TokenUtil.digest;
+
+/**
+ * 리프레시 토큰을 Redis에 저장하고 교체하는 서비스이다.
+ *
+ * 리프레시 토큰은 토큰 원문 대신 SHA-256 다이제스트를 키로 저장하며(refresh:token:{다이제스트} -> 회원 ID:계열 ID),
+ * 키의 만료 시간은 토큰의 유효 기간과 같다. 로그인할 때마다 새 계열(refresh:family:{계열 ID})이 시작되고,
+ * 계열에는 가장 최근에 발급된 토큰의 다이제스트만 저장된다.
+ *
+ * 토큰을 재발급할 때마다 리프레시 토큰도 새로 발급하고 계열의 최신 토큰을 바꾼다.
+ * 이미 교체된 토큰이 다시 사용되면 탈취된 것으로 보고 계열 전체를 폐기하여, 같은 계열의 모든 토큰을 사용할 수 없게 한다.
+ * 리프레시 토큰에는 계열 ID(fam 클레임)가 담기며, 계열을 폐기하면 계열 ID가 토큰 폐기 목록에 추가되어 이미 발급된 토큰도 검증에 실패한다.
+ *
+ * 리프레시 토큰에는 발급 시점의 다음 가입 절차가 담기며, 프로필이나 일정이 바뀌면 그 이전에 발급된 토큰의 가입 절차는 무효가 된다
+ * (refresh:progress-invalidated:{회원 ID} -> 무효가 된 시간).
+ *
+ * 이전에 데이터베이스에 저장된 리프레시 토큰은 jwt.refresh-token.jpa-fallback.enabled가 true이면 계속 사용할 수 있으며,
+ * 처음 사용될 때 데이터베이스에서 삭제되고 Redis의 새 계열로 옮겨진다.
+ */
+@Slf4j
 @Service
 public class RefreshTokenService {
+
+    public static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(14);
+
+    private static final String TOKEN_KEY_PREFIX = "refresh:token:";
+
+    private static final String FAMILY_KEY_PREFIX = "refresh:family:";
+
+    private static final String PROGRESS_INVALIDATED_KEY_PREFIX = "refresh:progress-invalidated:";
+
+    // 계열의 최신 토큰이 교체할 토큰일 때만 새 토큰으로 바꾼다.
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+                    "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[4]) " +
+                    "redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[4]) " +
+                    "return 1 " +
+                    "end " +
+                    "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final TokenProvider tokenProvider;
+
     private final RefreshTokenRepository refreshTokenRepository;
 
-    public RefreshToken findByRefreshToken(String refreshToken) {
-        return refreshTokenRepository.findByRefreshToken(refreshToken)
-                .orElseThrow(() -> new GeneralException(TokenErrorResult.UNEXPECTED_TOKEN));
+    private final boolean jpaFallbackEnabled;
+
+    private final Counter issuedCounter;
+    private final Counter rotatedCounter;
+    private final Counter reusedCounter;
+    private final Counter fallbackCounter;
+
+    public RefreshTokenService(StringRedisTemplate redisTemplate,
+                               TokenProvider tokenProvider,
+                               RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh-token.jpa-fallback.enabled:true}") boolean jpaFallbackEnabled) {
+        this.redisTemplate = redisTemplate;
+        this.tokenProvider = tokenProvider;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jpaFallbackEnabled = jpaFallbackEnabled;
+
+        this.issuedCounter = meterRegistry.counter("auth.refresh-token.issued");
+        this.rotatedCounter = meterRegistry.counter("auth.refresh-token.rotated");
+        this.reusedCounter = meterRegistry.counter("auth.refresh-token.reused");
+        this.fallbackCounter = meterRegistry.counter("auth.refresh-token.fallback");
+    }
+
+    /**
+     * 로그인한 회원에게 새 계열의 리프레시 토큰을 발급하는 메서드이다.
+     * @param memberId 회원 ID
+     * @param progress 회원의 다음 가입 절차
+     * @return 발급된 리프레시 토큰
+     */
+    public String issue(Long memberId, RegisterProgress progress) {
+        String familyId = UUID.randomUUID().toString();
+        String refreshToken = tokenProvider.generateRefreshToken(memberId, REFRESH_TOKEN_DURATION, progress, familyId);
+        String tokenDigest = digest(refreshToken);
+
+        redisTemplate.opsForValue().set(FAMILY_KEY_PREFIX + familyId, tokenDigest, REFRESH_TOKEN_DURATION);
+        redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + tokenDigest, memberId + ":" + familyId, REFRESH_TOKEN_DURATION);
+
+        issuedCounter.increment();
+        return refreshToken;
+    }
+
+    /**
+     * 리프레시 토큰을 같은 계열의 새 리프레시 토큰으로 교체하는 메서드이다.
+     * 서명과 만료 시간은 호출하는 쪽에서 미리 검증해야 한다.
+     * @param refreshToken 사용할 리프레시 토큰
+     * @param progress 새 리프레시 토큰에 담을 회원의 다음 가입 절차
+     * @return 토큰의 회원 ID와 새 리프레시 토큰
+     */
+    @Transactional
+    public RotatedToken rotate(String refreshToken, RegisterProgress progress) {
+        String tokenDigest = digest(refreshToken);
+
+        String value = redisTemplate.opsForValue().get(TOKEN_KEY_PREFIX + tokenDigest);
+        if (value == null) {
+            return rotateLegacy(refreshToken, progress);
+        }
+
+        int separator = value.indexOf(':');
+        Long memberId = Long.parseLong(value.substring(0, separator));
+        String familyId = value.substring(separator + 1);
+        String familyKey = FAMILY_KEY_PREFIX + familyId;
+
+        // 로그아웃 등으로 폐기된 계열이다.
+        String latestDigest = redisTemplate.opsForValue().get(familyKey);
+        if (latestDigest == null) {
+            throw new GeneralException(TokenErrorResult.UNEXPECTED_TOKEN);
+        }
+
+        // 이미 교체된 토큰이 다시 사용되었으므로 계열 전체를 폐기한다.
+        if (!latestDigest.equals(tokenDigest)) {
+            throw revokeReusedFamily(memberId, familyId);
+        }
+
+        String newRefreshToken = tokenProvider.generateRefreshToken(memberId, REFRESH_TOKEN_DURATION, progress, familyId);
+        String newDigest = digest(newRefreshToken);
+
+        // 확인한 뒤 다른 요청이 먼저 교체했다면 같은 토큰이 두 번 사용된 것이다.
+        Long rotated = redisTemplate.execute(ROTATE_SCRIPT, Arrays.asList(familyKey, TOKEN_KEY_PREFIX + newDigest),
+                tokenDigest, newDigest, value, String.valueOf(REFRESH_TOKEN_DURATION.toMillis()));
+        if (rotated == null || rotated != 1L) {
+            throw revokeReusedFamily(memberId, familyId);
+        }
+
+        rotatedCounter.increment();
+        return new RotatedToken(memberId, newRefreshToken);
+    }
+
+    /**
+     * 리프레시 토큰에 담긴 가입 절차를 그대로 사용할 수 있는지 확인하는 메서드이다.
+     * @param claims 서명이 검증된 리프레시 토큰의 클레임
+     * @return 토큰이 발급된 뒤 프로필이나 일정이 바뀌지 않았으면 true
+     */
+    public boolean isProgressValid(TokenClaims claims) {
+        if (claims.getProgress() == null) {
+            return false;
+        }
+
+        // 발급 시간은 초 단위로 내림되므로, 무효가 된 시간과 같은 초에 발급된 토큰도 무효로 본다.
+        String invalidatedAt = redisTemplate.opsForValue().get(PROGRESS_INVALIDATED_KEY_PREFIX + claims.getMemberId());
+        return invalidatedAt == null || claims.getIssuedAtMillis() > Long.parseLong(invalidatedAt);
+    }
+
+    /**
+     * 회원의 프로필이나 일정이 바뀌어, 지금까지 발급된 리프레시 토큰의 가입 절차를 무효로 만드는 메서드이다.
+     * 그 이전에 발급된 리프레시 토큰이 모두 만료될 때까지만 기록한다.
+     * @param memberId 회원 ID
+     */
+    public void invalidateProgress(Long memberId) {
+        redisTemplate.opsForValue().set(PROGRESS_INVALIDATED_KEY_PREFIX + memberId,
+                String.valueOf(System.currentTimeMillis()), REFRESH_TOKEN_DURATION);
+    }
+
+    /**
+     * 리프레시 토큰의 계열을 폐기하는 메서드이다. 계열의 모든 리프레시 토큰을 더 이상 사용할 수 없다.
+     * @param refreshToken 폐기할 리프레시 토큰
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        String value = redisTemplate.opsForValue().get(TOKEN_KEY_PREFIX + digest(refreshToken));
+        if (value != null) {
+            revokeFamily(value.substring(value.indexOf(':') + 1));
+            return;
+        }
+
+        if (jpaFallbackEnabled) {
+            refreshTokenRepository.findByRefreshToken(refreshToken).ifPresent(refreshTokenRepository::delete);
+        }
+    }
+
+    private GeneralException revokeReusedFamily(Long memberId, String familyId) {
+        revokeFamily(familyId);
+        reusedCounter.increment();
+        log.warn("Refresh token reuse detected for member {}, revoked token family {}", memberId, familyId);
+        return new GeneralException(TokenErrorResult.REUSED_TOKEN);
+    }
+
+    /**
+     * 계열을 교체할 수 없도록 삭제하고, 이미 발급된 계열의 토큰이 검증에도 실패하도록 폐기 목록에 추가하는 메서드이다.
+     * 계열의 토큰은 마지막 교체 후 REFRESH_TOKEN_DURATION 안에 모두 만료되므로, 지금부터 그 기간 동안만 폐기한다.
+     */
+    private void revokeFamily(String familyId) {
+        redisTemplate.delete(FAMILY_KEY_PREFIX + familyId);
+        tokenProvider.revokeFamily(familyId, System.currentTimeMillis() + REFRESH_TOKEN_DURATION.toMillis());
+    }
+
+    /**
+     * 데이터베이스에 저장된 이전 리프레시 토큰을 삭제하고, Redis의 새 계열로 발급하는 메서드이다.
+     */
+    private RotatedToken rotateLegacy(String refreshToken, RegisterProgress progress) {
+        Optional<RefreshToken> legacyToken = jpaFallbackEnabled
+                ? refreshTokenRepository.findByRefreshToken(refreshToken)
+                : Optional.empty();
+        if (legacyToken.isEmpty()) {
+            throw new GeneralException(TokenErrorResult.UNEXPECTED_TOKEN);
+        }
+
+        Long memberId = legacyToken.get().getMemberId();
+        refreshTokenRepository.delete(legacyToken.get());
+
+        fallbackCounter.increment();
+        return new RotatedToken(memberId, issue(memberId, progress));
+    }
+
+    /**
+     * 교체된 리프레시 토큰과 토큰의 회원 ID이다.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class RotatedToken {
+
+        private final Long memberId;
+
+        private final String refreshToken;
     }
 }
@@ -1,17 +1,21 @@
 package com.iglooclub.nungil.service;
 
+import com.iglooclub.nungil.config.jwt.TokenClaims;
 import com.iglooclub.nungil.config.jwt.TokenProvider;
 import com.iglooclub.nungil.domain.Member;
 import com.iglooclub.nungil.domain.enums.RegisterProgress;
 import com.iglooclub.nungil.dto.LoginResponse;
 import com.iglooclub.nungil.exception.GeneralException;
 import com.iglooclub.nungil.exception.TokenErrorResult;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.time.Duration;
 
-@RequiredArgsConstructor
 @Service
 public class TokenService {
     private final TokenProvider tokenProvider;
@@ -20,18 +24,59 @@ public class TokenService {
 
     private final OauthService oauthService;
 
-    public LoginResponse createNewAccessToken(String refreshToken) {
-        // 토큰 유효성 검사에 실패하면 예외 발생
-        if (!tokenProvider.validateToken(refreshToken)) {
+    private final Timer refreshTimer;
+    private final Counter progressReloadedCounter;
+
+    public TokenService(TokenProvider tokenProvider,
+                        RefreshTokenService refreshTokenService,
+                        MemberService memberService,
+                        OauthService oauthService,
+                        MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.refreshTokenService = refreshTokenService;
+        this.memberService = memberService;
+        this.oauthService = oauthService;
+
+        this.refreshTimer = meterRegistry.timer("auth.refresh.duration");
+        this.progressReloadedCounter = meterRegistry.counter("auth.refresh.progress.reloaded");
+    }
+
+    /**
+     * 리프레시 토큰으로 새 액세스 토큰을 발급하는 메서드이다.
+     * 리프레시 토큰도 같은 계열의 새 토큰으로 교체되어 쿠키에 설정되며, 사용한 리프레시 토큰은 다시 사용할 수 없다.
+     * 가입을 마친 회원은 토큰에 담긴 가입 절차를 그대로 사용하므로 회원 정보를 조회하지 않는다.
+     * @param refreshToken 쿠키의 리프레시 토큰
+     * @param request HttpServletRequest
+     * @param response HttpServletResponse
+     * @return 새 액세스 토큰과 가입 절차
+     */
+    public LoginResponse createNewAccessToken(String refreshToken, HttpServletRequest request, HttpServletResponse response) {
+        return refreshTimer.record(() -> refresh(refreshToken, request, response));
+    }
+
+    private LoginResponse refresh(String refreshToken, HttpServletRequest request, HttpServletResponse response) {
+        // 토큰 유효성 검사에 실패하거나 액세스 토큰이면 예외 발생
+        TokenClaims claims = tokenProvider.verify(refreshToken);
+        if (claims == null || claims.isAccessToken()) {
             throw new GeneralException(TokenErrorResult.UNEXPECTED_TOKEN);
         }
 
-        Long memberId = refreshTokenService.findByRefreshToken(refreshToken).getMemberId();
-        Member member = memberService.findById(memberId);
-        // 현재 사용자의 가입 절차 탐색
-        RegisterProgress nextProgress = oauthService.getNextProgress(member);
+        // 가입을 마친 뒤에는 가입 절차가 되돌아가지 않으므로, 토큰 발급 이후 프로필이나 일정이 바뀌지 않았다면 그대로 사용한다.
+        RegisterProgress nextProgress;
+        if (RegisterProgress.REGISTERED.equals(claims.getProgress()) && refreshTokenService.isProgressValid(claims)) {
+            nextProgress = RegisterProgress.REGISTERED;
+        } else {
+            Member member = memberService.findById(claims.getMemberId());
+            // 현재 사용자의 가입 절차 탐색
+            nextProgress = oauthService.getNextProgress(member);
+            progressReloadedCounter.increment();
+        }
+
+        // 리프레시 토큰 교체 (이미 교체된 토큰이면 계열 전체를 폐기하고 예외 발생)
+        RefreshTokenService.RotatedToken rotatedToken = refreshTokenService.rotate(refreshToken, nextProgress);
+        oauthService.addRefreshTokenToCookie(request, response, rotatedToken.getRefreshToken());
 
-        String token = tokenProvider.generateToken(member, Duration.ofHours(24));
+        String token = tokenProvider.generateToken(rotatedToken.getMemberId(), Duration.ofHours(24));
 
         return new LoginResponse(token, nextProgress.getTitle(), RegisterProgress.REGISTERED.equals(nextProgress));
     }
@@ -0,0 +1,94 @@
+package com.iglooclub.nungil.util;
+
+import com.iglooclub.nungil.domain.CompatibilityProfile;
+import com.iglooclub.nungil.domain.enums.AvailableTime;
+import com.iglooclub.nungil.domain.enums.Marker;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 두 회원의 CompatibilityProfile을 비트 연산으로 비교하는 컴포넌트이다.
+ * 교집합, 가장 빠른 약속 시간, 겹침 점수 계산 모두 객체를 생성하지 않는다.
+ */
+@Component
+public class CompatibilityCalculator {
+
+    private static final AvailableTime[] AVAILABLE_TIMES = AvailableTime.values();
+
+    private static final Marker[] MARKERS = Marker.values();
+
+    // 겹침 점수 가중치: 약속을 잡을 수 있는 시간과 장소를 취미, 묘사보다 우선한다.
+    private static final int AVAILABLE_TIME_WEIGHT = 3;
+    private static final int MARKER_WEIGHT = 2;
+    private static final int HOBBY_WEIGHT = 2;
+    private static final int DEPICTION_WEIGHT = 1;
+
+    // AVAILABLE_TIME_AFTER_HOUR[h]: h시 이후(초과)의 AvailableTime 비트들
+    private static final long[] AVAILABLE_TIME_AFTER_HOUR = new long[24];
+
+    static {
+        for (int hour = 0; hour < AVAILABLE_TIME_AFTER_HOUR.length; hour++) {
+            long mask = 0L;
+            for (AvailableTime time : AVAILABLE_TIMES) {
+                if (time.getValue() > hour) {
+                    mask |= CompatibilityProfile.bit(time);
+                }
+            }
+            AVAILABLE_TIME_AFTER_HOUR[hour] = mask;
+        }
+    }
+
+    public long commonAvailableTimes(CompatibilityProfile profile1, CompatibilityProfile profile2) {
+        return profile1.getAvailableTimeMask() & profile2.getAvailableTimeMask();
+    }
+
+    public long commonMarkers(CompatibilityProfile profile1, CompatibilityProfile profile2) {
+        return profile1.getMarkerMask() & profile2.getMarkerMask();
+    }
+
+    /**
+     * 주어진 시간 비트마스크에서 hour시 이후의 가장 빠른 시간을 찾는 메서드이다.
+     * AvailableTime은 시간 순서대로 선언되어 있으므로, 가장 낮은 비트가 가장 빠른 시간이다.
+     * @param availableTimeMask 시간 비트마스크
+     * @param hour 기준 시각(0~23)
+     * @return 가장 빠른 시간. 없으면 null
+     */
+    public AvailableTime earliestAvailableTimeAfter(long availableTimeMask, int hour) {
+        long candidates = availableTimeMask & AVAILABLE_TIME_AFTER_HOUR[hour];
+        if (candidates == 0L) {
+            return null;
+        }
+        return AVAILABLE_TIMES[Long.numberOfTrailingZeros(candidates)];
+    }
+
+    /**
+     * 두 프로필의 겹침 정도를 가중합한 점수를 계산하는 메서드이다. 추천 후보 정렬에 사용된다.
+     */
+    public int score(CompatibilityProfile profile1, CompatibilityProfile profile2) {
+        return AVAILABLE_TIME_WEIGHT * Long.bitCount(profile1.getAvailableTimeMask() & profile2.getAvailableTimeMask())
+                + MARKER_WEIGHT * Long.bitCount(profile1.getMarkerMask() & profile2.getMarkerMask())
+                + HOBBY_WEIGHT * Long.bitCount(profile1.getHobbyMask() & profile2.getHobbyMask())
+                + DEPICTION_WEIGHT * Long.bitCount(profile1.getPersonalityDepictionMask() & profile2.getPersonalityDepictionMask())
+                + DEPICTION_WEIGHT * Long.bitCount(profile1.getFaceDepictionMask() & profile2.getFaceDepictionMask());
+    }
+
+    public List<AvailableTime> toAvailableTimeList(long availableTimeMask) {
+        return toList(availableTimeMask, AVAILABLE_TIMES);
+    }
+
+    public List<Marker> toMarkerList(long markerMask) {
+        return toList(markerMask, MARKERS);
+    }
+
+    private static <E extends Enum<E>> List<E> toList(long mask, E[] values) {
+        List<E> list = new ArrayList<>(Long.bitCount(mask));
+        long remaining = mask;
+        while (remaining != 0L) {
+            list.add(values[Long.numberOfTrailingZeros(remaining)]);
+            remaining &= remaining - 1;
+        }
+        return list;
+    }
+}
@@ -0,0 +1,154 @@
+package com.iglooclub.nungil.util;
+
+import java.util.Arrays;
+
+/**
+ * long 키를 박싱하지 않고 저장하는 해시 맵이다.
+ * 개방 주소법(선형 탐사)을 사용하며, 삭제 시 뒤따르는 항목을 앞으로 당겨 삭제 표시 없이 탐사 경로를 유지한다.
+ * 스레드 안전하지 않으므로 호출하는 쪽에서 동기화해야 한다.
+ * @param <V> 값의 타입 (null은 저장할 수 없다)
+ */
+public class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+
+    // null이면 빈 칸이다.
+    private Object[] values;
+
+    private int mask;
+
+    private int size;
+
+    private int resizeThreshold;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int index = indexOf(key); values[index] != null; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 값을 저장하는 메서드이다.
+     * @return 기존 값 (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+
+        int index = indexOf(key);
+        for (; values[index] != null; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 값을 삭제하는 메서드이다.
+     * @return 삭제된 값 (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int index = indexOf(key);
+        for (; values[index] != null; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                shiftBack(index);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 삭제된 칸 뒤의 항목 중, 원래 위치가 삭제된 칸 이전인 항목을 앞으로 당긴다.
+     */
+    private void shiftBack(int removed) {
+        int gap = removed;
+        int index = (gap + 1) & mask;
+
+        while (values[index] != null) {
+            int home = indexOf(keys[index]);
+            // home이 (gap, index] 구간 밖에 있으면 gap으로 옮겨도 탐사 경로가 유지된다.
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
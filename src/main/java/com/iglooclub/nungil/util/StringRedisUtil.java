@@ -3,13 +3,21 @@ package com.iglooclub.nungil.util;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 
 @RequiredArgsConstructor
 @Component
 public class StringRedisUtil {
+
+    // 값이 같을 때만 키를 삭제한다. (비교와 삭제 사이에 다른 서버가 값을 바꾸지 못하도록 한 번에 실행한다)
+    private static final RedisScript<Long> DELETE_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
     private final StringRedisTemplate template;
 
     public String get(String key) {
@@ -29,4 +37,22 @@ public class StringRedisUtil {
     public void delete(String key) {
         template.delete(key);
     }
+
+    /**
+     * 키가 없을 때만 값을 저장하는 메서드이다. 여러 서버 중 한 서버만 작업을 실행하도록 하는 잠금으로 사용한다.
+     * @return 저장되었으면 true
+     */
+    public boolean setIfAbsent(String key, String value, Duration timeout) {
+        ValueOperations<String, String> valueOperations = template.opsForValue();
+        return Boolean.TRUE.equals(valueOperations.setIfAbsent(key, value, timeout));
+    }
+
+    /**
+     * 키의 값이 주어진 값과 같을 때만 키를 삭제하는 메서드이다. 자신이 잡은 잠금만 해제하는 데 사용한다.
+     * @return 삭제되었으면 true
+     */
+    public boolean deleteIfEquals(String key, String value) {
+        Long deleted = template.execute(DELETE_IF_EQUALS_SCRIPT, List.of(key), value);
+        return deleted != null && deleted > 0;
+    }
 }
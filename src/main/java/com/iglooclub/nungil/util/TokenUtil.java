@@ -1,5 +1,10 @@
 package com.iglooclub.nungil.util;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
 public class TokenUtil {
 
     public final static String HEADER_AUTHORIZATION = "Authorization";
@@ -12,4 +17,18 @@ public class TokenUtil {
         }
         return null;
     }
+
+    /**
+     * 토큰 원문 대신 저장하거나 비교할 때 사용하는 토큰의 SHA-256 다이제스트를 반환하는 메서드이다.
+     * @param token JWT 토큰
+     * @return base64url로 인코딩된 다이제스트
+     */
+    public static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
 }
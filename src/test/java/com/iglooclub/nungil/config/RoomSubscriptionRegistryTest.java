@@ -0,0 +1,97 @@
+package com.iglooclub.nungil.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomSubscriptionRegistryTest {
+
+    private final RoomSubscriptionRegistry registry = new RoomSubscriptionRegistry();
+
+    @Test
+    void parseChatRoomId() {
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId("/topic/42")).isEqualTo(42L);
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId("/topic/42/typing")).isEqualTo(42L);
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId("/topic/")).isEqualTo(-1L);
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId("/topic/abc")).isEqualTo(-1L);
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId("/topic/1234567890123456789")).isEqualTo(-1L);
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId("/queue/42")).isEqualTo(-1L);
+        assertThat(RoomSubscriptionRegistry.parseChatRoomId(null)).isEqualTo(-1L);
+    }
+
+    @Test
+    void findsOnlyExactDestinationOfTheRoom() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/1"));
+        registry.registerSubscription(subscribe("s2", "sub-1", "/topic/1"));
+        registry.registerSubscription(subscribe("s2", "sub-2", "/topic/1/typing"));
+        // 같은 구획(64개)에 들어가는 다른 채팅방
+        registry.registerSubscription(subscribe("s3", "sub-1", "/topic/65"));
+
+        MultiValueMap<String, String> room = registry.findSubscriptions(message("/topic/1"));
+        assertThat(room).containsOnlyKeys("s1", "s2");
+        assertThat(room.get("s2")).containsExactly("sub-1");
+
+        assertThat(registry.findSubscriptions(message("/topic/1/typing")).get("s2")).containsExactly("sub-2");
+        assertThat(registry.findSubscriptions(message("/topic/65"))).containsOnlyKeys("s3");
+        assertThat(registry.findSubscriptions(message("/topic/2"))).isEmpty();
+    }
+
+    @Test
+    void findsOtherDestinationsByExactMatch() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/user/queue/errors"));
+
+        assertThat(registry.findSubscriptions(message("/user/queue/errors")).get("s1")).containsExactly("sub-1");
+        assertThat(registry.findSubscriptions(message("/user/queue/other"))).isEmpty();
+    }
+
+    @Test
+    void unsubscribeAndDisconnectRemoveSubscriptions() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/1"));
+        registry.registerSubscription(subscribe("s1", "sub-2", "/topic/2"));
+        registry.registerSubscription(subscribe("s2", "sub-1", "/topic/1"));
+
+        registry.unregisterSubscription(unsubscribe("s2", "sub-1"));
+        assertThat(registry.findSubscriptions(message("/topic/1"))).containsOnlyKeys("s1");
+
+        registry.unregisterAllSubscriptions("s1");
+        assertThat(registry.findSubscriptions(message("/topic/1"))).isEmpty();
+        assertThat(registry.findSubscriptions(message("/topic/2"))).isEmpty();
+    }
+
+    @Test
+    void resubscribingWithSameIdReplacesTheDestination() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/1"));
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/2"));
+
+        assertThat(registry.findSubscriptions(message("/topic/1"))).isEmpty();
+        assertThat(registry.findSubscriptions(message("/topic/2")).get("s1")).isEqualTo(List.of("sub-1"));
+    }
+
+    private static Message<?> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<?> unsubscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<?> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,85 @@
+package com.iglooclub.nungil.config.jwt;
+
+import com.iglooclub.nungil.domain.enums.RegisterProgress;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TokenProviderTest {
+
+    private static final String SECRET = "bnVuZ2lsLXRlc3Qtc2VjcmV0LWZvci1oczI1Ni1zaWduaW5nLWtleQ==";
+
+    private final TokenRevocationList tokenRevocationList = mock(TokenRevocationList.class);
+
+    private final TokenProvider tokenProvider = new TokenProvider(jwtProperties(), tokenRevocationList,
+            new SimpleMeterRegistry(), 100);
+
+    @Test
+    void accessTokenAuthenticates() {
+        String accessToken = tokenProvider.generateToken(1L, Duration.ofMinutes(30));
+
+        Authentication authentication = tokenProvider.authenticate(accessToken);
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("1");
+    }
+
+    @Test
+    void refreshTokenDoesNotAuthenticate() {
+        String refreshToken = tokenProvider.generateRefreshToken(1L, Duration.ofDays(14), RegisterProgress.REGISTERED, "family-1");
+
+        // 재발급에는 사용할 수 있도록 서명과 만료 시간은 유효하다.
+        assertThat(tokenProvider.verify(refreshToken)).isNotNull();
+        assertThat(tokenProvider.authenticate(refreshToken)).isNull();
+    }
+
+    @Test
+    void revokedFamilyFailsVerification() {
+        String refreshToken = tokenProvider.generateRefreshToken(1L, Duration.ofDays(14), RegisterProgress.REGISTERED, "family-1");
+        assertThat(tokenProvider.verify(refreshToken)).isNotNull();
+
+        long expiresAtMillis = System.currentTimeMillis() + Duration.ofDays(14).toMillis();
+        tokenProvider.revokeFamily("family-1", expiresAtMillis);
+        verify(tokenRevocationList).revoke("family:family-1", expiresAtMillis);
+
+        // 캐시에 있는 토큰도 계열의 폐기 여부를 확인한다.
+        when(tokenRevocationList.isRevoked("family:family-1")).thenReturn(true);
+        assertThat(tokenProvider.verify(refreshToken)).isNull();
+    }
+
+    @Test
+    void legacyTokenWithoutTokenUseIsClassifiedByLifetime() {
+        String legacyAccessToken = legacyToken(Duration.ofHours(24));
+        String legacyRefreshToken = legacyToken(Duration.ofDays(14));
+
+        assertThat(tokenProvider.authenticate(legacyAccessToken)).isNotNull();
+        assertThat(tokenProvider.authenticate(legacyRefreshToken)).isNull();
+    }
+
+    // 용도 클레임이 추가되기 전에 발급된 토큰
+    private static String legacyToken(Duration lifetime) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + lifetime.toMillis()))
+                .setSubject("1")
+                .setId(UUID.randomUUID().toString())
+                .claim("id", 1L)
+                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .compact();
+    }
+
+    private static JwtProperties jwtProperties() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        return jwtProperties;
+    }
+}
@@ -0,0 +1,62 @@
+package com.iglooclub.nungil.config.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.score(anyString(), any())).thenReturn((double) (System.currentTimeMillis() + 60_000));
+
+        revocationList = new TokenRevocationList(redisTemplate, mock(RedisMessageListenerContainer.class),
+                new SimpleMeterRegistry(), 1000, 0.001);
+    }
+
+    @Test
+    void jtiRevokedByOtherServerDuringRebuildIsKept() {
+        // 다시 만드는 필터가 Redis를 읽은 뒤, 교체되기 전에 다른 서버의 폐기 메시지가 도착한다.
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble())).thenAnswer(invocation -> {
+            revocationList.onMessage(message("revoked-during-rebuild"), null);
+            return Set.of("revoked-before-rebuild");
+        });
+
+        revocationList.rebuild();
+
+        assertThat(revocationList.isRevoked("revoked-during-rebuild")).isTrue();
+        assertThat(revocationList.isRevoked("revoked-before-rebuild")).isTrue();
+    }
+
+    @Test
+    void jtiNotInFilterIsNotCheckedInRedis() {
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble())).thenReturn(Set.of());
+        revocationList.rebuild();
+
+        assertThat(revocationList.isRevoked("not-revoked")).isFalse();
+        verify(zSetOperations, never()).score(anyString(), any());
+    }
+
+    private static DefaultMessage message(String jti) {
+        return new DefaultMessage("auth:revoked-jti".getBytes(StandardCharsets.UTF_8), jti.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package com.iglooclub.nungil.dto;
+
+import com.iglooclub.nungil.exception.GeneralException;
+import com.iglooclub.nungil.exception.NungilErrorResult;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NungilCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        LocalDateTime createdAt = LocalDateTime.of(2023, 11, 3, 14, 25, 7, 123_456_000);
+        NungilCursor cursor = NungilCursor.of(createdAt, 42L);
+
+        NungilCursor decoded = NungilCursor.decode(cursor.encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafeWithoutPadding() {
+        String encoded = NungilCursor.of(LocalDateTime.of(2023, 1, 1, 0, 0), 1L).encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(NungilCursor.decode(null)).isNull();
+        assertThat(NungilCursor.decode("")).isNull();
+        assertThat(NungilCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        String missingId = Base64.getUrlEncoder().encodeToString("2023-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String wrongDate = Base64.getUrlEncoder().encodeToString("yesterday,1".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{"not base64!", missingId, wrongDate}) {
+            assertThatThrownBy(() -> NungilCursor.decode(cursor))
+                    .isInstanceOf(GeneralException.class)
+                    .extracting(e -> ((GeneralException) e).getErrorResult())
+                    .isEqualTo(NungilErrorResult.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatArchiveStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsTheLatestBlockOfEachRoom() throws IOException {
+        ChatArchiveStore store = open(1 << 20);
+        store.append(1L, messages(1L, 1, 3));
+        store.append(2L, messages(2L, 10, 2));
+        store.append(1L, messages(1L, 1, 5));
+
+        assertMessages(store, 1L, 1, 5);
+        assertMessages(store, 2L, 10, 2);
+        assertThat(store.read(3L)).isEmpty();
+        store.close();
+
+        // 다시 열어도 인덱스에서 같은 블록을 찾는다.
+        ChatArchiveStore reopened = open(1 << 20);
+        assertMessages(reopened, 1L, 1, 5);
+        assertMessages(reopened, 2L, 10, 2);
+        reopened.close();
+    }
+
+    @Test
+    void rollsOverToANewSegment() throws IOException {
+        ChatArchiveStore store = open(256);
+        for (long chatRoomId = 1; chatRoomId <= 5; chatRoomId++) {
+            store.append(chatRoomId, messages(chatRoomId, chatRoomId * 100, 4));
+        }
+        store.close();
+
+        assertThat(Files.exists(directory.resolve("segment-1.dat"))).isTrue();
+        ChatArchiveStore reopened = open(256);
+        for (long chatRoomId = 1; chatRoomId <= 5; chatRoomId++) {
+            assertMessages(reopened, chatRoomId, chatRoomId * 100, 4);
+        }
+        reopened.close();
+    }
+
+    @Test
+    void ignoresATornTailAfterRestart() throws IOException {
+        ChatArchiveStore store = open(1 << 20);
+        store.append(1L, messages(1L, 1, 3));
+        store.close();
+
+        // 블록은 일부만 기록되고 인덱스 항목도 일부만 기록된 상태
+        byte[] block = ChatArchiveStore.encodeBlock(2L, messages(2L, 10, 3));
+        Files.write(directory.resolve("segment-0.dat"), Arrays.copyOf(block, block.length / 2), StandardOpenOption.APPEND);
+        Files.write(directory.resolve("segment-0.idx"), new byte[]{0, 0, 0, 0, 0, 0, 0, 2, 0, 0}, StandardOpenOption.APPEND);
+
+        ChatArchiveStore reopened = open(1 << 20);
+        assertMessages(reopened, 1L, 1, 3);
+        assertThat(reopened.read(2L)).isEmpty();
+
+        // 잘린 인덱스 항목은 제거되므로, 이후 기록은 정상적으로 읽힌다.
+        reopened.append(2L, messages(2L, 10, 3));
+        reopened.close();
+
+        ChatArchiveStore again = open(1 << 20);
+        assertMessages(again, 1L, 1, 3);
+        assertMessages(again, 2L, 10, 3);
+        again.close();
+    }
+
+    @Test
+    void ignoresAnIndexEntryPointingPastTheData() throws IOException {
+        ChatArchiveStore store = open(1 << 20);
+        store.append(1L, messages(1L, 1, 3));
+        store.close();
+
+        long dataSize = Files.size(directory.resolve("segment-0.dat"));
+        byte[] entry = ByteBuffer.allocate(Long.BYTES * 2 + Integer.BYTES).putLong(2L).putLong(dataSize).putInt(64).array();
+        Files.write(directory.resolve("segment-0.idx"), entry, StandardOpenOption.APPEND);
+
+        ChatArchiveStore reopened = open(1 << 20);
+        assertThat(reopened.read(2L)).isEmpty();
+        assertMessages(reopened, 1L, 1, 3);
+        reopened.close();
+    }
+
+    @Test
+    void sameBlockIsNotWrittenAgain() throws IOException {
+        ChatArchiveStore store = open(1 << 20);
+        store.append(1L, messages(1L, 1, 3));
+        long dataSize = Files.size(directory.resolve("segment-0.dat"));
+
+        store.append(1L, messages(1L, 1, 3));
+
+        assertThat(Files.size(directory.resolve("segment-0.dat"))).isEqualTo(dataSize);
+        assertMessages(store, 1L, 1, 3);
+        store.close();
+    }
+
+    @Test
+    void compactionMovesLiveBlocksAndDeletesTheSegment() throws IOException {
+        ChatArchiveStore store = open(256);
+        store.append(1L, messages(1L, 1, 4));
+        store.append(2L, messages(2L, 10, 4));
+        store.append(3L, messages(3L, 20, 4));
+        store.append(4L, messages(4L, 30, 4));
+        assertThat(Files.exists(directory.resolve("segment-1.dat"))).isTrue();
+
+        // segment-0의 블록은 모두 다시 기록되어 사용되지 않는다.
+        store.append(1L, messages(1L, 1, 5));
+        store.append(2L, messages(2L, 10, 5));
+        store.compact();
+
+        assertThat(Files.exists(directory.resolve("segment-0.dat"))).isFalse();
+        assertThat(Files.exists(directory.resolve("segment-0.idx"))).isFalse();
+        // 모든 블록이 사용되는 segment-1은 그대로 둔다.
+        assertThat(Files.exists(directory.resolve("segment-1.dat"))).isTrue();
+        assertMessages(store, 1L, 1, 5);
+        assertMessages(store, 2L, 10, 5);
+        assertMessages(store, 3L, 20, 4);
+        assertMessages(store, 4L, 30, 4);
+        store.close();
+
+        ChatArchiveStore reopened = open(256);
+        assertMessages(reopened, 1L, 1, 5);
+        assertMessages(reopened, 2L, 10, 5);
+        assertMessages(reopened, 3L, 20, 4);
+        assertMessages(reopened, 4L, 30, 4);
+        reopened.close();
+    }
+
+    @Test
+    void decodeBlockRejectsCorruptedBlocks() {
+        byte[] block = ChatArchiveStore.encodeBlock(1L, messages(1L, 1, 3));
+        block[block.length - 1] ^= 0x7f;
+
+        assertThatThrownBy(() -> ChatArchiveStore.decodeBlock(1L, ByteBuffer.wrap(block))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ChatArchiveStore.decodeBlock(2L, ByteBuffer.wrap(ChatArchiveStore.encodeBlock(1L, messages(1L, 1, 1)))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ChatArchiveStore open(long segmentSize) throws IOException {
+        ChatArchiveStore store = new ChatArchiveStore(directory.toString(), segmentSize, 0.5);
+        store.open();
+        return store;
+    }
+
+    private static void assertMessages(ChatArchiveStore store, Long chatRoomId, long firstMessageId, int count) {
+        List<ChatDTO> messages = store.read(chatRoomId).orElseThrow();
+        assertThat(messages).hasSize(count);
+        for (int i = 0; i < count; i++) {
+            ChatDTO message = messages.get(i);
+            assertThat(message.getMessageId()).isEqualTo(firstMessageId + i);
+            assertThat(message.getChatRoomId()).isEqualTo(chatRoomId);
+            assertThat(message.getContent()).isEqualTo("메시지 " + (firstMessageId + i));
+            assertThat(message.getSeq()).isEqualTo(i + 1L);
+            assertThat(message.getCreatedAt()).isEqualTo(LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(i).withNano(123));
+        }
+    }
+
+    private static List<ChatDTO> messages(Long chatRoomId, long firstMessageId, int count) {
+        List<ChatDTO> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new ChatDTO(firstMessageId + i, chatRoomId, null, "메시지 " + (firstMessageId + i),
+                    LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(i).withNano(123), 7L, i + 1L, null));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,43 @@
+package com.iglooclub.nungil.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iglooclub.nungil.dto.ChatDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatFrameCodecTest {
+
+    private final ChatFrameCodec codec = new ChatFrameCodec(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void envelopeCarriesOnlyJsonAndReceiverEncodesCborLazily() {
+        ChatDTO message = new ChatDTO(5L, 1L, "sender", "hello", LocalDateTime.of(2024, 1, 1, 12, 0), 10L, 3L, "client-1");
+        ChatFrameCodec.EncodedFrame frame = codec.encode(message);
+
+        byte[] envelope = codec.toEnvelope(frame);
+        byte[] type = ChatDTO.class.getName().getBytes(StandardCharsets.UTF_8);
+        assertThat(envelope).hasSize(Integer.BYTES + type.length + frame.getJson().length);
+
+        ChatFrameCodec.EncodedFrame received = codec.fromEnvelope(envelope);
+        assertThat(received.getJson()).isEqualTo(frame.getJson());
+        assertThat(received.getCbor()).isEqualTo(frame.getCbor());
+    }
+
+    @Test
+    void envelopeRejectsTypesOutsideTheDtoPackage() {
+        byte[] type = String.class.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = ByteBuffer.allocate(Integer.BYTES + type.length + 2)
+                .putInt(type.length)
+                .put(type)
+                .put("\"\"".getBytes(StandardCharsets.UTF_8))
+                .array();
+
+        assertThatThrownBy(() -> codec.fromEnvelope(envelope)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
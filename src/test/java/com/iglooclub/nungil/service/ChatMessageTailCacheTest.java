@@ -0,0 +1,62 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.dto.ChatDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatMessageTailCacheTest {
+
+    private static final Long CHAT_ROOM_ID = 1L;
+
+    private final ChatMessageTailCache tailCache = new ChatMessageTailCache(new SimpleMeterRegistry(), 50, 1 << 20);
+
+    @Test
+    void messageCommittedBeforeSeedAndAppendedAfterIsStoredOnce() {
+        assertThat(tailCache.findLatest(CHAT_ROOM_ID, 10)).isEmpty();
+
+        // 3번 메시지는 데이터베이스 읽기에도 포함되었고, 채운 뒤에 추가된다.
+        tailCache.seed(CHAT_ROOM_ID, List.of(message(3L), message(2L), message(1L)));
+        tailCache.append(message(3L));
+        tailCache.append(message(4L));
+
+        assertThat(latestIds()).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void messageAppendedBeforeSeedIsMerged() {
+        assertThat(tailCache.findLatest(CHAT_ROOM_ID, 10)).isEmpty();
+
+        tailCache.append(message(3L));
+        tailCache.seed(CHAT_ROOM_ID, List.of(message(3L), message(2L), message(1L)));
+
+        assertThat(latestIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void olderMessageMissingFromSeededTailEvictsRoom() {
+        assertThat(tailCache.findLatest(CHAT_ROOM_ID, 10)).isEmpty();
+        tailCache.seed(CHAT_ROOM_ID, List.of(message(3L), message(1L)));
+
+        // 2번 메시지가 3번보다 늦게 커밋되었다. 순서대로 넣을 수 없으므로 다시 채워야 한다.
+        tailCache.append(message(2L));
+
+        assertThat(tailCache.findLatest(CHAT_ROOM_ID, 10)).isEmpty();
+        assertThat(tailCache.totalEntries()).isZero();
+    }
+
+    private List<Long> latestIds() {
+        Slice<ChatDTO> latest = tailCache.findLatest(CHAT_ROOM_ID, 10).orElseThrow();
+        return latest.getContent().stream().map(ChatDTO::getMessageId).collect(Collectors.toList());
+    }
+
+    private static ChatDTO message(Long messageId) {
+        return new ChatDTO(messageId, CHAT_ROOM_ID, "sender", "content " + messageId, LocalDateTime.now(), 10L, messageId, null);
+    }
+}
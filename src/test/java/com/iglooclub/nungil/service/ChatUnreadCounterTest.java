@@ -0,0 +1,57 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.repository.ChatMessageRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatUnreadCounterTest {
+
+    private static final Long CHAT_ROOM_ID = 1L;
+
+    private static final Long MEMBER_ID = 20L;
+
+    private static final Long OPPONENT_ID = 10L;
+
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+
+    private final ChatUnreadCounter unreadCounter = new ChatUnreadCounter(chatMessageRepository, 60_000);
+
+    @Test
+    void unreadCountStopsAtLimit() {
+        // 안 읽은 메시지가 한도보다 많으면 최근 메시지부터 한도만큼만 읽힌다.
+        when(chatMessageRepository.findUnreadMessageIds(eq(CHAT_ROOM_ID), eq(MEMBER_ID), isNull(), eq(ChatUnreadCounter.UNREAD_COUNT_LIMIT)))
+                .thenReturn(messageIdsDescending(1_000, ChatUnreadCounter.UNREAD_COUNT_LIMIT));
+
+        assertThat(unreadCounter.getUnreadCount(CHAT_ROOM_ID, MEMBER_ID, null)).isEqualTo(ChatUnreadCounter.UNREAD_COUNT_LIMIT);
+
+        unreadCounter.increment(CHAT_ROOM_ID, 1_001L, OPPONENT_ID);
+        assertThat(unreadCounter.getUnreadCount(CHAT_ROOM_ID, MEMBER_ID, null)).isEqualTo(ChatUnreadCounter.UNREAD_COUNT_LIMIT);
+        verify(chatMessageRepository, times(1)).findUnreadMessageIds(anyLong(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void readingLatestMessageClearsCappedCount() {
+        when(chatMessageRepository.findUnreadMessageIds(eq(CHAT_ROOM_ID), eq(MEMBER_ID), isNull(), anyInt()))
+                .thenReturn(messageIdsDescending(1_000, ChatUnreadCounter.UNREAD_COUNT_LIMIT));
+        assertThat(unreadCounter.getUnreadCount(CHAT_ROOM_ID, MEMBER_ID, null)).isEqualTo(ChatUnreadCounter.UNREAD_COUNT_LIMIT);
+
+        // 읽힌 메시지 중 가장 큰 ID가 채팅방의 마지막 메시지이므로, 그 메시지까지 읽으면 다시 세지 않아도 된다.
+        unreadCounter.markRead(CHAT_ROOM_ID, MEMBER_ID, 1_000L);
+
+        assertThat(unreadCounter.getUnreadCount(CHAT_ROOM_ID, MEMBER_ID, 1_000L)).isZero();
+        verify(chatMessageRepository, times(1)).findUnreadMessageIds(anyLong(), anyLong(), any(), anyInt());
+    }
+
+    private static List<Long> messageIdsDescending(long lastMessageId, int count) {
+        return LongStream.range(0, count)
+                .mapToObj(i -> lastMessageId - i)
+                .collect(Collectors.toList());
+    }
+}
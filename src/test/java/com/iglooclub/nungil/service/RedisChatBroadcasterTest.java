@@ -0,0 +1,205 @@
+package com.iglooclub.nungil.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iglooclub.nungil.dto.ChatDTO;
+import com.iglooclub.nungil.dto.ChatReadDTO;
+import com.iglooclub.nungil.dto.ChatTypingDTO;
+import com.iglooclub.nungil.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 로컬 Redis(localhost:6379)에 연결하여 두 서버 사이의 전파를 확인한다. Redis가 없으면 건너뛴다.
+ */
+class RedisChatBroadcasterTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+    private Node nodeA;
+
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        assumeTrue(isRedisAvailable(), "Redis is not running on localhost:6379");
+
+        nodeA = new Node();
+        nodeB = new Node();
+        await(() -> subscribers("chat-state:persisted") >= 2 && subscribers("chat-state:read") >= 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void topicMessageIsDeliveredOnlyToServersWithLocalSubscribers() {
+        nodeB.subscribe("session-1", "sub-1", "/topic/1");
+        await(() -> subscribers("chat:/topic/1") == 1);
+
+        nodeA.broadcaster.broadcast("/topic/1", message(1L, 10L, 1L));
+
+        verify(nodeB.messagingTemplate, timeout(TIMEOUT_MILLIS)).send(eq("/topic/1"), any(Message.class));
+        verify(nodeA.messagingTemplate, never()).send(eq("/topic/1"), any(Message.class));
+    }
+
+    @Test
+    void persistedMessageUpdatesOtherServersWithoutContent() {
+        seedTail(nodeA, 1L);
+        seedTail(nodeB, 1L);
+        assertThat(nodeB.unreadCounter.getUnreadCount(1L, 20L, null)).isZero();
+
+        nodeA.broadcaster.messagePersisted(message(1L, 10L, 5L));
+
+        // 저장한 서버는 메시지를 캐시에 추가하고, 다른 서버는 캐시를 비운 뒤 안 읽은 메시지 수만 늘린다.
+        await(() -> nodeB.unreadCounter.getUnreadCount(1L, 20L, null) == 1);
+        assertThat(nodeB.tailCache.findLatest(1L, 10)).isEmpty();
+        assertThat(nodeA.tailCache.findLatest(1L, 10)).hasValueSatisfying(slice ->
+                assertThat(slice.getContent()).extracting(ChatDTO::getMessageId).containsExactly(5L));
+    }
+
+    @Test
+    void readReceiptIsAppliedOnEveryServer() {
+        assertThat(nodeB.unreadCounter.getUnreadCount(1L, 20L, null)).isZero();
+        nodeA.broadcaster.messagePersisted(message(1L, 10L, 5L));
+        await(() -> nodeB.unreadCounter.getUnreadCount(1L, 20L, null) == 1);
+
+        nodeA.broadcaster.messageRead(ChatReadDTO.of(1L, 5L, 20L));
+
+        await(() -> nodeB.unreadCounter.getUnreadCount(1L, 20L, null) == 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void typingIsBroadcastOnceWithMembersOfEveryServer() throws Exception {
+        nodeA.subscribe("session-1", "sub-1", "/topic/1/typing");
+        await(() -> subscribers("chat:/topic/1/typing") == 1);
+
+        // 이전 실행의 키와 겹치지 않는 구간 번호
+        long window = System.nanoTime();
+        assertThat(nodeA.broadcaster.typing(window, Map.of(1L, Set.of(10L)))).isZero();
+        assertThat(nodeB.broadcaster.typing(window, Map.of(1L, Set.of(20L)))).isZero();
+
+        // 다음 구간에 두 서버 중 한 대만 합친 회원을 발행한다.
+        int broadcastRooms = nodeA.broadcaster.typing(window + 1, Map.of()) + nodeB.broadcaster.typing(window + 1, Map.of());
+        assertThat(broadcastRooms).isEqualTo(1);
+
+        ArgumentCaptor<Message<ChatFrameCodec.EncodedFrame>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(nodeA.messagingTemplate, timeout(TIMEOUT_MILLIS)).send(eq("/topic/1/typing"), captor.capture());
+        ChatTypingDTO typing = new ObjectMapper().readValue(captor.getValue().getPayload().getJson(), ChatTypingDTO.class);
+        assertThat(typing.getMemberIds()).containsExactlyInAnyOrder(10L, 20L);
+    }
+
+    private static void seedTail(Node node, Long chatRoomId) {
+        assertThat(node.tailCache.findLatest(chatRoomId, 10)).isEmpty();
+        node.tailCache.seed(chatRoomId, List.of());
+        assertThat(node.tailCache.findLatest(chatRoomId, 10)).isPresent();
+    }
+
+    private static ChatDTO message(Long chatRoomId, Long senderId, Long messageId) {
+        return new ChatDTO(messageId, chatRoomId, "sender", "hello", LocalDateTime.now(), senderId, messageId, null);
+    }
+
+    private boolean isRedisAvailable() {
+        try {
+            return "PONG".equals(redisTemplate.execute((RedisCallback<String>) connection -> connection.ping()));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private long subscribers(String channel) {
+        List<?> result = redisTemplate.execute((RedisCallback<List<?>>) connection ->
+                (List<?>) connection.execute("PUBSUB", "NUMSUB".getBytes(StandardCharsets.UTF_8), channel.getBytes(StandardCharsets.UTF_8)));
+        return (result != null && result.size() == 2) ? ((Number) result.get(1)).longValue() : 0L;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 서버 한 대의 브로드캐스터와 캐시, 카운터이다. 서버마다 Redis 구독 연결을 따로 사용한다.
+     */
+    private class Node {
+
+        private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+        private final ChatMessageTailCache tailCache = new ChatMessageTailCache(new SimpleMeterRegistry(), 50, 1 << 20);
+
+        private final ChatUnreadCounter unreadCounter = new ChatUnreadCounter(mock(ChatMessageRepository.class), 60_000);
+
+        private final RedisChatBroadcaster broadcaster;
+
+        Node() throws Exception {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.afterPropertiesSet();
+            container.start();
+            containers.add(container);
+
+            ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+            broadcaster = new RedisChatBroadcaster(redisTemplate, container, messagingTemplate, objectMapper,
+                    new ChatFrameCodec(objectMapper), tailCache, unreadCounter);
+            broadcaster.subscribeStateChannels();
+        }
+
+        void subscribe(String sessionId, String subscriptionId, String destination) {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(subscriptionId);
+            accessor.setDestination(destination);
+            broadcaster.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+        }
+    }
+}
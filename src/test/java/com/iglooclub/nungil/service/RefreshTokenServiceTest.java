@@ -0,0 +1,206 @@
+package com.iglooclub.nungil.service;
+
+import com.iglooclub.nungil.config.jwt.TokenProvider;
+import com.iglooclub.nungil.domain.RefreshToken;
+import com.iglooclub.nungil.domain.enums.RegisterProgress;
+import com.iglooclub.nungil.exception.GeneralException;
+import com.iglooclub.nungil.exception.TokenErrorResult;
+import com.iglooclub.nungil.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Redis를 메모리의 맵으로 대신하여 리프레시 토큰의 교체와 재사용 감지를 확인한다.
+ * 교체 스크립트는 같은 동작(계열의 최신 토큰이 교체할 토큰일 때만 바꾼다)을 맵에서 실행한다.
+ */
+class RefreshTokenServiceTest {
+
+    private static final String FAMILY_KEY_PREFIX = "refresh:family:";
+
+    private final Map<String, String> redis = new HashMap<>();
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    private final TokenProvider tokenProvider = mock(TokenProvider.class);
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger issuedTokens = new AtomicInteger();
+
+    // 교체 스크립트가 실행되기 직전에 실행된다. (다른 요청이 먼저 교체한 경우를 만들 때 사용한다)
+    private Runnable beforeRotateScript = () -> { };
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+        doAnswer(this::rotateScript).when(redisTemplate)
+                .execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any());
+
+        when(tokenProvider.generateRefreshToken(anyLong(), any(Duration.class), any(), anyString()))
+                .thenAnswer(invocation -> "refresh-token-" + issuedTokens.incrementAndGet());
+
+        refreshTokenService = newService(true);
+    }
+
+    @Test
+    void rotateReplacesTokenWithinSameFamily() {
+        String first = refreshTokenService.issue(1L, RegisterProgress.REGISTERED);
+        String familyKey = familyKey();
+
+        RefreshTokenService.RotatedToken second = refreshTokenService.rotate(first, RegisterProgress.REGISTERED);
+        RefreshTokenService.RotatedToken third = refreshTokenService.rotate(second.getRefreshToken(), RegisterProgress.REGISTERED);
+
+        assertThat(second.getMemberId()).isEqualTo(1L);
+        assertThat(third.getMemberId()).isEqualTo(1L);
+        assertThat(List.of(first, second.getRefreshToken(), third.getRefreshToken())).doesNotHaveDuplicates();
+        // 계열은 그대로이고 최신 토큰만 바뀐다.
+        assertThat(familyKeys()).containsExactly(familyKey);
+        assertThat(meterRegistry.counter("auth.refresh-token.rotated").count()).isEqualTo(2);
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesWholeFamily() {
+        String first = refreshTokenService.issue(1L, RegisterProgress.REGISTERED);
+        String familyId = familyKey().substring(FAMILY_KEY_PREFIX.length());
+        RefreshTokenService.RotatedToken second = refreshTokenService.rotate(first, RegisterProgress.REGISTERED);
+
+        assertErrorResult(() -> refreshTokenService.rotate(first, RegisterProgress.REGISTERED), TokenErrorResult.REUSED_TOKEN);
+
+        // 계열의 두 토큰 모두 같은 계열 ID로 발급되었고, 계열 ID가 폐기 목록에 추가되어 검증에도 실패한다.
+        verify(tokenProvider, times(2)).generateRefreshToken(eq(1L), any(Duration.class), any(), eq(familyId));
+        verify(tokenProvider).revokeFamily(eq(familyId), longThat(expiresAt -> expiresAt > System.currentTimeMillis()));
+
+        // 정상 사용자가 가진 최신 토큰도 더 이상 사용할 수 없다.
+        assertThat(familyKeys()).isEmpty();
+        assertErrorResult(() -> refreshTokenService.rotate(second.getRefreshToken(), RegisterProgress.REGISTERED),
+                TokenErrorResult.UNEXPECTED_TOKEN);
+        assertThat(meterRegistry.counter("auth.refresh-token.reused").count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRotationOfSameTokenRevokesFamily() {
+        String first = refreshTokenService.issue(1L, RegisterProgress.REGISTERED);
+        String familyKey = familyKey();
+
+        // 최신 토큰을 확인한 뒤 스크립트가 실행되기 전에 다른 요청이 같은 토큰으로 먼저 교체한다.
+        beforeRotateScript = () -> {
+            beforeRotateScript = () -> { };
+            redis.put(familyKey, "digest-of-other-request");
+        };
+
+        assertErrorResult(() -> refreshTokenService.rotate(first, RegisterProgress.REGISTERED), TokenErrorResult.REUSED_TOKEN);
+        assertThat(familyKeys()).isEmpty();
+    }
+
+    @Test
+    void revokedFamilyCannotBeRotated() {
+        String first = refreshTokenService.issue(1L, RegisterProgress.REGISTERED);
+        String familyId = familyKey().substring(FAMILY_KEY_PREFIX.length());
+
+        refreshTokenService.revoke(first);
+
+        verify(tokenProvider).revokeFamily(eq(familyId), anyLong());
+
+        assertErrorResult(() -> refreshTokenService.rotate(first, RegisterProgress.REGISTERED), TokenErrorResult.UNEXPECTED_TOKEN);
+        assertThat(meterRegistry.counter("auth.refresh-token.reused").count()).isZero();
+    }
+
+    @Test
+    void legacyTokenIsMovedToNewFamilyOnce() {
+        RefreshToken legacyToken = new RefreshToken(2L, "legacy-token");
+        when(refreshTokenRepository.findByRefreshToken("legacy-token"))
+                .thenReturn(Optional.of(legacyToken))
+                .thenReturn(Optional.empty());
+
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate("legacy-token", RegisterProgress.REGISTERED);
+
+        assertThat(rotated.getMemberId()).isEqualTo(2L);
+        verify(refreshTokenRepository).delete(legacyToken);
+        assertThat(familyKeys()).hasSize(1);
+        assertThat(refreshTokenService.rotate(rotated.getRefreshToken(), RegisterProgress.REGISTERED).getMemberId()).isEqualTo(2L);
+
+        // 옮겨진 이전 토큰은 다시 사용할 수 없다.
+        assertErrorResult(() -> refreshTokenService.rotate("legacy-token", RegisterProgress.REGISTERED), TokenErrorResult.UNEXPECTED_TOKEN);
+    }
+
+    @Test
+    void unknownTokenIsRejectedWithoutFallback() {
+        refreshTokenService = newService(false);
+
+        assertErrorResult(() -> refreshTokenService.rotate("legacy-token", RegisterProgress.REGISTERED), TokenErrorResult.UNEXPECTED_TOKEN);
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    private RefreshTokenService newService(boolean jpaFallbackEnabled) {
+        return new RefreshTokenService(redisTemplate, tokenProvider, refreshTokenRepository, meterRegistry, jpaFallbackEnabled);
+    }
+
+    /**
+     * 교체 스크립트를 맵에서 실행한다. KEYS: 계열 키, 새 토큰 키 / ARGV: 교체할 토큰 다이제스트, 새 토큰 다이제스트, 토큰 값, 만료 시간
+     */
+    private Long rotateScript(InvocationOnMock invocation) {
+        beforeRotateScript.run();
+
+        List<String> keys = invocation.getArgument(1);
+        Object[] args = scriptArgs(invocation);
+        if (!args[0].equals(redis.get(keys.get(0)))) {
+            return 0L;
+        }
+
+        redis.put(keys.get(0), (String) args[1]);
+        redis.put(keys.get(1), (String) args[2]);
+        return 1L;
+    }
+
+    // 가변 인자가 펼쳐져 전달되지 않은 경우도 처리한다.
+    private static Object[] scriptArgs(InvocationOnMock invocation) {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length == 3 && arguments[2] instanceof Object[]) {
+            return (Object[]) arguments[2];
+        }
+        return Arrays.copyOfRange(arguments, 2, arguments.length);
+    }
+
+    private String familyKey() {
+        List<String> familyKeys = familyKeys();
+        assertThat(familyKeys).hasSize(1);
+        return familyKeys.get(0);
+    }
+
+    private List<String> familyKeys() {
+        List<String> familyKeys = new ArrayList<>();
+        redis.keySet().stream().filter(key -> key.startsWith(FAMILY_KEY_PREFIX)).forEach(familyKeys::add);
+        return familyKeys;
+    }
+
+    private static void assertErrorResult(Runnable action, TokenErrorResult errorResult) {
+        assertThatThrownBy(action::run)
+                .isInstanceOfSatisfying(GeneralException.class, e -> assertThat(e.getErrorResult()).isEqualTo(errorResult));
+    }
+}
@@ -0,0 +1,76 @@
+package com.iglooclub.nungil.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        List<String> keys = randomKeys(10_000);
+
+        keys.forEach(filter::put);
+
+        assertThat(keys).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearFpp() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        randomKeys(10_000).forEach(filter::put);
+
+        long falsePositives = randomKeys(100_000).stream().filter(filter::mightContain).count();
+
+        // 기대값은 1000개이다. 해시가 고르게 퍼지지 않으면 크게 벗어난다.
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.001);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.001);
+        List<List<String>> keysPerThread = IntStream.range(0, 4)
+                .mapToObj(i -> randomKeys(10_000))
+                .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<String> keys : keysPerThread) {
+                futures.add(executor.submit(() -> keys.forEach(filter::put)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 같은 워드의 다른 비트를 동시에 켜도 덮어쓰지 않는다.
+        keysPerThread.forEach(keys -> assertThat(keys).allMatch(filter::mightContain));
+    }
+
+    private static List<String> randomKeys(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .collect(Collectors.toList());
+    }
+}
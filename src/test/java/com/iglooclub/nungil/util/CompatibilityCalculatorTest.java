@@ -0,0 +1,61 @@
+package com.iglooclub.nungil.util;
+
+import com.iglooclub.nungil.domain.CompatibilityProfile;
+import com.iglooclub.nungil.domain.enums.AvailableTime;
+import com.iglooclub.nungil.domain.enums.Marker;
+import org.junit.jupiter.api.Test;
+
+import static com.iglooclub.nungil.domain.CompatibilityProfile.bit;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompatibilityCalculatorTest {
+
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+
+    @Test
+    void commonAvailableTimesAndMarkers() {
+        CompatibilityProfile profile1 = CompatibilityProfile.of(
+                bit(AvailableTime.T1200) | bit(AvailableTime.T1800) | bit(AvailableTime.T2000),
+                bit(Marker.FOUNTAIN) | bit(Marker.HORSE), 0L, 0L, 0L);
+        CompatibilityProfile profile2 = CompatibilityProfile.of(
+                bit(AvailableTime.T1800) | bit(AvailableTime.T2000) | bit(AvailableTime.T2200),
+                bit(Marker.HORSE) | bit(Marker.FOREST), 0L, 0L, 0L);
+
+        assertThat(calculator.toAvailableTimeList(calculator.commonAvailableTimes(profile1, profile2)))
+                .containsExactly(AvailableTime.T1800, AvailableTime.T2000);
+        assertThat(calculator.toMarkerList(calculator.commonMarkers(profile1, profile2)))
+                .containsExactly(Marker.HORSE);
+    }
+
+    @Test
+    void earliestAvailableTimeAfterIsStrictlyLater() {
+        long mask = bit(AvailableTime.T1100) | bit(AvailableTime.T1500) | bit(AvailableTime.T2100);
+
+        assertThat(calculator.earliestAvailableTimeAfter(mask, 0)).isEqualTo(AvailableTime.T1100);
+        assertThat(calculator.earliestAvailableTimeAfter(mask, 11)).isEqualTo(AvailableTime.T1500);
+        assertThat(calculator.earliestAvailableTimeAfter(mask, 15)).isEqualTo(AvailableTime.T2100);
+        assertThat(calculator.earliestAvailableTimeAfter(mask, 21)).isNull();
+        assertThat(calculator.earliestAvailableTimeAfter(mask, 23)).isNull();
+        assertThat(calculator.earliestAvailableTimeAfter(0L, 0)).isNull();
+    }
+
+    @Test
+    void scoreWeighsScheduleAboveHobbiesAndDepictions() {
+        CompatibilityProfile base = CompatibilityProfile.of(0b11L, 0b1L, 0b101L, 0b1L, 0b10L);
+        CompatibilityProfile other = CompatibilityProfile.of(0b01L, 0b1L, 0b100L, 0b1L, 0b01L);
+
+        // 시간 1개 * 3 + 장소 1개 * 2 + 취미 1개 * 2 + 외모 묘사 1개 * 1 + 성격 묘사 0개 * 1
+        assertThat(calculator.score(base, other)).isEqualTo(8);
+        assertThat(calculator.score(other, base)).isEqualTo(8);
+        assertThat(calculator.score(base, CompatibilityProfile.EMPTY)).isZero();
+    }
+
+    @Test
+    void toListKeepsDeclarationOrder() {
+        long mask = bit(AvailableTime.T2200) | bit(AvailableTime.T1100) | bit(AvailableTime.T1600);
+
+        assertThat(calculator.toAvailableTimeList(mask))
+                .containsExactly(AvailableTime.T1100, AvailableTime.T1600, AvailableTime.T2200);
+        assertThat(calculator.toMarkerList(0L)).isEmpty();
+    }
+}